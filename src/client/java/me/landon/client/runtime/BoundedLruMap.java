@@ -0,0 +1,22 @@
+package me.landon.client.runtime;
+
+import java.io.Serial;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Access-ordered map that evicts its least recently used entry beyond a fixed capacity. */
+final class BoundedLruMap<K, V> extends LinkedHashMap<K, V> {
+    @Serial private static final long serialVersionUID = 1L;
+
+    private final int capacity;
+
+    BoundedLruMap(int capacity) {
+        super(16, 0.75F, true);
+        this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > capacity;
+    }
+}
@@ -4,6 +4,7 @@ import it.unimi.dsi.fastutil.ints.Int2LongMap;
 import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.io.InputStream;
@@ -11,13 +12,16 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +45,8 @@ import me.landon.companion.config.CompanionConfig;
 import me.landon.companion.config.CompanionConfigManager;
 import me.landon.companion.network.CompanionRawPayload;
 import me.landon.companion.protocol.BinaryDecodingException;
+import me.landon.companion.protocol.BinaryWriter;
+import me.landon.companion.protocol.MessageType;
 import me.landon.companion.protocol.ProtocolCodec;
 import me.landon.companion.protocol.ProtocolConstants;
 import me.landon.companion.protocol.ProtocolMessage;
@@ -55,6 +61,8 @@ import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderContext;
 import net.fabricmc.fabric.api.client.rendering.v1.world.WorldRenderEvents;
 import net.fabricmc.fabric.api.client.screen.v1.ScreenEvents;
 import net.fabricmc.fabric.api.client.screen.v1.Screens;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.font.TextRenderer;
@@ -78,6 +86,8 @@ import net.minecraft.item.Items;
 import net.minecraft.particle.ParticleEffect;
 import net.minecraft.particle.ParticleTypes;
 import net.minecraft.registry.tag.ItemTags;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
 import net.minecraft.screen.ScreenHandler;
 import net.minecraft.screen.slot.Slot;
 import net.minecraft.text.Text;
@@ -96,16 +106,27 @@ import org.slf4j.LoggerFactory;
  * <p>Contributors should treat this class as the main integration point for new server-driven
  * client features. Register behavior through existing lifecycle hooks, gate by {@link
  * ClientFeatures}, and persist user settings through {@link CompanionConfigManager}.
+ *
+ * <p>Lifecycle, tick, render, and decoded-frame hooks all run on the client thread, so the render
+ * caches held here, and the helpers they delegate to, are confined to it and need no lock. The
+ * frame decoder is the one exception: only the payload decode thread uses it. Other threads only
+ * read the volatile config, which writers copy, modify, and republish, and the session's published
+ * snapshots.
  */
 public final class CompanionClientRuntime {
     private static final Logger LOGGER = LoggerFactory.getLogger(CompanionClientRuntime.class);
     private static final CompanionClientRuntime INSTANCE = new CompanionClientRuntime();
-    private static final int CLIENT_CAPABILITIES_BITSET = 127;
+    private static final int CLIENT_CAPABILITIES_BITSET =
+            127
+                    | ProtocolConstants.CLIENT_CAPABILITY_HUD_WIDGET_DELTA
+                    | ProtocolConstants.CLIENT_CAPABILITY_STRING_TABLE
+                    | ProtocolConstants.CLIENT_CAPABILITY_COMPRESSED_FRAMES;
     private static final int PLAYER_STORAGE_MIN_SLOT = 0;
     private static final int HOTBAR_MAX_SLOT = 8;
-    private static final int PLAYER_STORAGE_MAX_SLOT = 35;
+    private static final int PLAYER_STORAGE_MAX_SLOT =
+            ConnectionSessionState.INVENTORY_OVERLAY_SLOT_COUNT - 1;
     private static final int KNOWN_OVERLAY_STACK_LIMIT = 64;
-    private static final int PENDING_CURSOR_OVERLAY_FRAMES = 4;
+    private static final long PENDING_CURSOR_OVERLAY_MAX_MILLIS = 250L;
     private static final int HUD_PANEL_MIN_WIDTH = 112;
     private static final int HUD_PANEL_MAX_WIDTH = 206;
     private static final int HUD_PANEL_HEADER_HEIGHT = 11;
@@ -113,20 +134,6 @@ public final class CompanionClientRuntime {
     private static final int HUD_PANEL_VERTICAL_PADDING = 3;
     private static final int HUD_PANEL_EDGE_INSET = 3;
     private static final long LEADERBOARD_CYCLE_INTERVAL_MILLIS = 5500L;
-    private static final Pattern LEADERBOARD_ENTRY_PATTERN =
-            Pattern.compile("^#(\\d+)\\s+(.+?)\\s+-\\s+(.+)$");
-    private static final Pattern LEADERBOARD_VALUE_PATTERN =
-            Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\s*([kKmMbBtT]?)");
-    private static final Pattern PROGRESS_RATIO_HINT_PATTERN =
-            Pattern.compile(
-                    "(?i)(?:^|\\|)\\s*progress\\s*=\\s*(-?\\d+(?:\\.\\d+)?)\\s*/\\s*(-?\\d+(?:\\.\\d+)?)\\s*(?:\\||$)");
-    private static final Pattern PROGRESS_PERCENT_HINT_PATTERN =
-            Pattern.compile(
-                    "(?i)(?:^|\\|)\\s*(?:p|progress)\\s*=\\s*(-?\\d+(?:\\.\\d+)?)\\s*%?\\s*(?:\\||$)");
-    private static final Pattern PROGRESS_ELAPSED_HINT_PATTERN =
-            Pattern.compile("(?i)(?:^|\\|)\\s*elapsed\\s*=\\s*([^|]+)");
-    private static final Pattern PROGRESS_TOTAL_HINT_PATTERN =
-            Pattern.compile("(?i)(?:^|\\|)\\s*total\\s*=\\s*([^|]+)");
     private static final Pattern GANG_MEMBER_LINE_PATTERN =
             Pattern.compile("^(\\[[^\\]]+\\])\\s+(?:(\\[[^\\]]+\\])\\s+)?(.+)$");
     private static final Pattern GANG_TRAILING_TIME_PATTERN =
@@ -166,18 +173,53 @@ public final class CompanionClientRuntime {
                     "(?i)^cosmicprisonsmod[-_]?([vV]?\\d+(?:\\.\\d+){1,3}(?:[-+][A-Za-z0-9._-]+)?)\\.jar$");
     private static final Pattern VERSION_PATTERN =
             Pattern.compile("^[vV]?(\\d+)(?:\\.(\\d+))?(?:\\.(\\d+))?.*$");
+    // Shared by the static row renderers; only touched on the client thread.
+    private static final HudTextMetrics HUD_TEXT_METRICS =
+            new HudTextMetrics(HudTextMetrics.DEFAULT_CAPACITY);
+    private static final ItemOverlayLayoutCache ITEM_OVERLAY_LAYOUTS =
+            new ItemOverlayLayoutCache(ItemOverlayLayoutCache.DEFAULT_CAPACITY);
+    private static final Identifier HUD_TEXT_METRICS_RELOAD_ID =
+            Identifier.of(CosmicPrisonsMod.MOD_ID, "hud_text_metrics");
 
     private final ProtocolCodec protocolCodec = new ProtocolCodec();
-    private final SignatureVerifier signatureVerifier = new SignatureVerifier();
     private final ConnectionSessionState session = new ConnectionSessionState();
+    private final BinaryWriter c2sFrameWriter = new BinaryWriter();
+    private final CompanionFrameDecoder frameDecoder =
+            new CompanionFrameDecoder(
+                    protocolCodec,
+                    session.stringTable(),
+                    this::getConfig,
+                    this::verifyServerHelloForDecode);
+    private final PayloadDecodePipeline payloadDecodePipeline =
+            new PayloadDecodePipeline(
+                    frameDecoder,
+                    PayloadDecodePipeline.newDecodeExecutor(),
+                    runnable -> MinecraftClient.getInstance().execute(runnable),
+                    this::onDecodedFrame,
+                    this::logMalformedOncePerConnection,
+                    new PayloadDecodePipeline.CoalescingPolicy(
+                            Set.of(
+                                    MessageType.HUD_WIDGET_STATE_S2C,
+                                    MessageType.INVENTORY_ITEM_OVERLAYS_S2C),
+                            Set.of(
+                                    MessageType.ENTITY_MARKER_DELTA_S2C,
+                                    MessageType.STRING_TABLE_S2C)));
+    private final SignatureVerifier signatureVerifier = new SignatureVerifier();
+    // Last hello whose signature the decode thread accepted, so the client thread skips a repeat.
+    private volatile ProtocolMessage.ServerHelloS2C decodeVerifiedServerHello;
     private final CompanionConfigManager configManager = new CompanionConfigManager();
     private final BuildAttestationLoader buildAttestationLoader = new BuildAttestationLoader();
     private final LauncherProofProvider launcherProofProvider = new LauncherProofProvider();
     private final ModUpdateChecker modUpdateChecker =
             new ModUpdateChecker(this::resolveInstalledVersionForUpdateCheck);
-    private final List<KnownOverlayStack> knownOverlayStacks = new ArrayList<>();
+    private final KnownOverlayStackIndex knownOverlayStacks =
+            new KnownOverlayStackIndex(KNOWN_OVERLAY_STACK_LIMIT);
+    private boolean knownOverlayStacksStale = true;
+    private final HandledScreenOverlayPlan handledScreenOverlayPlan =
+            new HandledScreenOverlayPlan();
     private final Map<String, Long> eventProgressBaselineSeconds = new LinkedHashMap<>();
     private final Map<String, Long> cooldownProgressBaselineSeconds = new LinkedHashMap<>();
+    private final Set<String> seenProgressKeys = new HashSet<>();
     private final Int2LongMap gangPingVisualExpiryAtMillis = new Int2LongOpenHashMap();
     private final Int2LongMap trucePingVisualExpiryAtMillis = new Int2LongOpenHashMap();
     private final IntSet gangPingVisualSeededIds = new IntOpenHashSet();
@@ -186,17 +228,35 @@ public final class CompanionClientRuntime {
             new Int2ObjectOpenHashMap<>();
     private final Int2ObjectMap<PingLabelSnapshot> trucePingLabelSnapshots =
             new Int2ObjectOpenHashMap<>();
+    private final HudPanelLayoutCache hudPanelLayoutCache = new HudPanelLayoutCache();
+    private final HudPanelLayoutCache editorHudPanelLayoutCache = new HudPanelLayoutCache();
     private KeyBinding gangPingKeyBinding;
     private KeyBinding trucePingKeyBinding;
-
-    private CompanionConfig config;
+    private final HudPanelBatch hudPanelBatch = new HudPanelBatch();
+    private final HudPanelBatch hudPanelRecorder = new HudPanelBatch();
+    private final Map<HudWidgetPanel, HudPanelLayers> hudPanelLayers = new IdentityHashMap<>();
+    private List<HudWidgetPanel> hudPanelLayerPanels;
+    private boolean hudPanelLayerEditorMode;
+    private long hudPanelLayerEpoch;
+    // Bumped by the resource reload listener, since a reload can change glyph widths in place.
+    private long hudRenderEpoch;
+    private List<HudWidgetCatalog.WidgetLine> gangLayoutRows;
+    private GangLayout gangLayout;
+    private long hudRenderFrames;
+    private long hudRenderNanos;
+    private long maxHudRenderNanos;
+    private long hudRenderDrawCalls;
+
+    // Replaced wholesale by publishConfig(), never mutated in place, so any thread may read it.
+    private volatile CompanionConfig config;
+    private volatile long configVersion;
     private BuildAttestation buildAttestation;
     private int helloRetryTicks;
     private boolean helloUnavailableLogged;
     private ConnectionSessionState.ItemOverlayEntry activeCursorOverlayEntry;
     private ItemStack activeCursorOverlayStack = ItemStack.EMPTY;
     private int activeCursorOverlaySlot = -1;
-    private int pendingCursorOverlayFrames;
+    private long pendingCursorOverlayUntilMillis;
     private volatile int activePeacefulMiningTargetEntityId = -1;
     private long lastPingFeedbackAtMillis;
     private boolean gangPingKeyWasDown;
@@ -232,28 +292,45 @@ public final class CompanionClientRuntime {
         ClientPlayNetworking.registerGlobalReceiver(
                 CompanionRawPayload.ID, this::onPayloadReceived);
         ClientPlayConnectionEvents.JOIN.register((handler, sender, client) -> onJoin(client));
-        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> onDisconnect());
+        ClientPlayConnectionEvents.DISCONNECT.register(
+                (handler, client) -> client.execute(this::onDisconnect));
         ClientTickEvents.END_CLIENT_TICK.register(this::onEndTick);
         ClientWorldEvents.AFTER_CLIENT_WORLD_CHANGE.register(this::onWorldChange);
         ScreenEvents.AFTER_INIT.register(this::onScreenAfterInit);
         WorldRenderEvents.END_MAIN.register(this::onWorldRenderEndMain);
 
         HudRenderCallback.EVENT.register(this::renderHud);
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES)
+                .registerReloadListener(
+                        new SimpleSynchronousResourceReloadListener() {
+                            @Override
+                            public Identifier getFabricId() {
+                                return HUD_TEXT_METRICS_RELOAD_ID;
+                            }
+
+                            @Override
+                            public void reload(ResourceManager manager) {
+                                HUD_TEXT_METRICS.invalidate();
+                                ITEM_OVERLAY_LAYOUTS.invalidate();
+                                handledScreenOverlayPlan.clear();
+                                hudRenderEpoch++;
+                            }
+                        });
 
         initialized = true;
     }
 
-    public synchronized boolean isPayloadFallbackEnabled() {
+    public boolean isPayloadFallbackEnabled() {
         return getConfig().enablePayloadCodecFallback;
     }
 
     /** Returns the feature catalog used by settings and runtime gating logic. */
-    public synchronized List<ClientFeatureDefinition> getAvailableFeatures() {
+    public List<ClientFeatureDefinition> getAvailableFeatures() {
         return ClientFeatures.all();
     }
 
     /** Returns whether a feature toggle is currently enabled in client config. */
-    public synchronized boolean isFeatureEnabled(String featureId) {
+    public boolean isFeatureEnabled(String featureId) {
         return getFeatureToggleState(featureId);
     }
 
@@ -267,21 +344,20 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.featureToggles.put(featureId, enabled);
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Returns whether the connected server currently advertises support for the given feature. */
-    public synchronized boolean isFeatureSupportedByServer(String featureId) {
+    public boolean isFeatureSupportedByServer(String featureId) {
         return ClientFeatures.findById(featureId)
                 .map(this::isFeatureSupportedByServer)
                 .orElse(false);
     }
 
     /** Returns a snapshot of event visibility overrides used by the HUD event widget. */
-    public synchronized Map<String, Boolean> getHudEventVisibilitySnapshot() {
+    public Map<String, Boolean> getHudEventVisibilitySnapshot() {
         return new LinkedHashMap<>(getConfig().hudEventVisibility);
     }
 
@@ -291,38 +367,35 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudEventVisibility.put(
                 eventKey.trim().toLowerCase(java.util.Locale.ROOT), visible);
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized boolean isHudEventsCompactMode() {
+    public boolean isHudEventsCompactMode() {
         return getConfig().hudEventsCompactMode;
     }
 
     /** Enables/disables compact rendering for the events widget. */
     public synchronized void setHudEventsCompactMode(boolean compactMode) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudEventsCompactMode = compactMode;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized boolean isHudSatchelsCompactMode() {
+    public boolean isHudSatchelsCompactMode() {
         return getConfig().hudSatchelsCompactMode;
     }
 
     /** Enables/disables compact rendering for the satchels widget. */
     public synchronized void setHudSatchelsCompactMode(boolean compactMode) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudSatchelsCompactMode = compactMode;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized Map<String, Boolean> getHudLeaderboardVisibilitySnapshot() {
+    public Map<String, Boolean> getHudLeaderboardVisibilitySnapshot() {
         return new LinkedHashMap<>(getConfig().hudLeaderboardVisibility);
     }
 
@@ -337,37 +410,34 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudLeaderboardVisibility.put(normalized, visible);
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized boolean isHudLeaderboardsCompactMode() {
+    public boolean isHudLeaderboardsCompactMode() {
         return getConfig().hudLeaderboardsCompactMode;
     }
 
     /** Enables/disables compact rendering for leaderboard widgets. */
     public synchronized void setHudLeaderboardsCompactMode(boolean compactMode) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudLeaderboardsCompactMode = compactMode;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized boolean isHudLeaderboardsCycleMode() {
+    public boolean isHudLeaderboardsCycleMode() {
         return getConfig().hudLeaderboardsCycleMode;
     }
 
     /** Enables/disables rotating leaderboard cycle mode. */
     public synchronized void setHudLeaderboardsCycleMode(boolean cycleMode) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudLeaderboardsCycleMode = cycleMode;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
-    public synchronized Map<String, CompanionConfig.HudWidgetPosition> getHudWidgetPositions() {
+    public Map<String, CompanionConfig.HudWidgetPosition> getHudWidgetPositions() {
         Map<String, CompanionConfig.HudWidgetPosition> snapshot = new LinkedHashMap<>();
         for (Map.Entry<String, CompanionConfig.HudWidgetPosition> entry :
                 getConfig().hudWidgetPositions.entrySet()) {
@@ -379,7 +449,7 @@ public final class CompanionClientRuntime {
     }
 
     /** Returns persisted per-widget scale overrides (clamped to valid config bounds). */
-    public synchronized Map<String, Double> getHudWidgetScales() {
+    public Map<String, Double> getHudWidgetScales() {
         Map<String, Double> snapshot = new LinkedHashMap<>();
         for (Map.Entry<String, Double> entry : getConfig().hudWidgetScales.entrySet()) {
             if (entry.getKey() == null || entry.getValue() == null) {
@@ -391,7 +461,7 @@ public final class CompanionClientRuntime {
     }
 
     /** Returns persisted per-widget width multiplier overrides (clamped). */
-    public synchronized Map<String, Double> getHudWidgetWidthMultipliers() {
+    public Map<String, Double> getHudWidgetWidthMultipliers() {
         Map<String, Double> snapshot = new LinkedHashMap<>();
         for (Map.Entry<String, Double> entry : getConfig().hudWidgetWidthMultipliers.entrySet()) {
             if (entry.getKey() == null || entry.getValue() == null) {
@@ -409,7 +479,7 @@ public final class CompanionClientRuntime {
      *
      * <p>When missing from config, default layout values are used.
      */
-    public synchronized CompanionConfig.HudWidgetPosition getHudWidgetPosition(String widgetId) {
+    public CompanionConfig.HudWidgetPosition getHudWidgetPosition(String widgetId) {
         CompanionConfig.HudWidgetPosition configured =
                 getConfig().hudWidgetPositions.get(normalizeWidgetId(widgetId));
         if (configured == null) {
@@ -426,7 +496,7 @@ public final class CompanionClientRuntime {
     }
 
     /** Returns one widget scale using config value or default fallback. */
-    public synchronized double getHudWidgetScale(String widgetId) {
+    public double getHudWidgetScale(String widgetId) {
         String normalizedWidgetId = normalizeWidgetId(widgetId);
         Double configured = getConfig().hudWidgetScales.get(normalizedWidgetId);
         if (configured != null) {
@@ -442,7 +512,7 @@ public final class CompanionClientRuntime {
     }
 
     /** Returns one widget width multiplier using config value or default fallback. */
-    public synchronized double getHudWidgetWidthMultiplier(String widgetId) {
+    public double getHudWidgetWidthMultiplier(String widgetId) {
         String normalizedWidgetId = normalizeWidgetId(widgetId);
         Double configured = getConfig().hudWidgetWidthMultipliers.get(normalizedWidgetId);
         if (configured != null) {
@@ -465,12 +535,11 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudWidgetPositions.put(
                 normalizeWidgetId(widgetId),
                 new CompanionConfig.HudWidgetPosition(normalizedX, normalizedY));
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Persists one widget scale override. */
@@ -479,11 +548,10 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudWidgetScales.put(
                 normalizeWidgetId(widgetId), CompanionConfig.clampHudWidgetScale(scale));
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Persists one widget width multiplier override. */
@@ -492,24 +560,22 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudWidgetWidthMultipliers.put(
                 normalizeWidgetId(widgetId),
                 CompanionConfig.clampHudWidgetWidthMultiplier(widthMultiplier));
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Restores widget layout/scale/width values to defaults. */
     public synchronized void resetHudLayout() {
         CompanionConfig defaults = CompanionConfig.defaults();
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.hudWidgetPositions = new LinkedHashMap<>(defaults.hudWidgetPositions);
         currentConfig.hudWidgetScales = new LinkedHashMap<>(defaults.hudWidgetScales);
         currentConfig.hudWidgetWidthMultipliers =
                 new LinkedHashMap<>(defaults.hudWidgetWidthMultipliers);
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Returns the localized bind label for the gang ping keybind. */
@@ -561,49 +627,46 @@ public final class CompanionClientRuntime {
     }
 
     /** Returns configured local ping visual duration in seconds (2..10). */
-    public synchronized int pingVisualDurationSeconds() {
+    public int pingVisualDurationSeconds() {
         return CompanionConfig.clampPingVisualDurationSeconds(
                 getConfig().pingVisualDurationSeconds);
     }
 
     /** Persists local ping visual duration in seconds (2..10). */
     public synchronized void setPingVisualDurationSeconds(int durationSeconds) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         int clamped = CompanionConfig.clampPingVisualDurationSeconds(durationSeconds);
         if (currentConfig.pingVisualDurationSeconds == clamped) {
             return;
         }
 
         currentConfig.pingVisualDurationSeconds = clamped;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Returns whether ping particles are enabled in addition to beacon beams. */
-    public synchronized boolean pingParticlesEnabled() {
+    public boolean pingParticlesEnabled() {
         return getConfig().pingParticlesEnabled;
     }
 
     /** Persists whether ping particles are enabled in addition to beacon beams. */
     public synchronized void setPingParticlesEnabled(boolean enabled) {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         if (currentConfig.pingParticlesEnabled == enabled) {
             return;
         }
 
         currentConfig.pingParticlesEnabled = enabled;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /** Restores ping visual settings to defaults. */
     public synchronized void resetPingVisualSettingsToDefault() {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         currentConfig.pingVisualDurationSeconds =
                 CompanionConfig.PING_VISUAL_DURATION_SECONDS_DEFAULT;
         currentConfig.pingParticlesEnabled = true;
-        configManager.save(currentConfig);
-        config = currentConfig;
+        publishConfig(currentConfig);
     }
 
     /**
@@ -613,47 +676,44 @@ public final class CompanionClientRuntime {
      * entities.
      */
     public void onCrosshairTargetUpdated(MinecraftClient client, float tickDelta) {
-        synchronized (this) {
-            if (!shouldApplyPeacefulMiningPassThrough(client)) {
-                clearActivePeacefulMiningTarget();
-                return;
-            }
-
-            HitResult currentTarget = client.crosshairTarget;
+        if (!shouldApplyPeacefulMiningPassThrough(client)) {
+            clearActivePeacefulMiningTarget();
+            return;
+        }
 
-            if (!(currentTarget instanceof EntityHitResult entityHitResult)) {
-                clearActivePeacefulMiningTarget();
-                return;
-            }
+        HitResult currentTarget = client.crosshairTarget;
 
-            int entityId = entityHitResult.getEntity().getId();
+        if (!(currentTarget instanceof EntityHitResult entityHitResult)) {
+            clearActivePeacefulMiningTarget();
+            return;
+        }
 
-            if (!session.isPeacefulMiningPassThroughEntity(entityId)) {
-                clearActivePeacefulMiningTarget();
-                return;
-            }
+        int entityId = entityHitResult.getEntity().getId();
 
-            Entity cameraEntity = client.getCameraEntity();
+        if (!session.isPeacefulMiningPassThroughEntity(entityId)) {
+            clearActivePeacefulMiningTarget();
+            return;
+        }
 
-            if (cameraEntity == null || client.player == null) {
-                clearActivePeacefulMiningTarget();
-                return;
-            }
+        Entity cameraEntity = client.getCameraEntity();
 
-            HitResult blockOnlyHit =
-                    cameraEntity.raycast(
-                            client.player.getBlockInteractionRange(), tickDelta, false);
+        if (cameraEntity == null || client.player == null) {
+            clearActivePeacefulMiningTarget();
+            return;
+        }
 
-            if (!(blockOnlyHit instanceof BlockHitResult blockHitResult)
-                    || blockHitResult.getType() != HitResult.Type.BLOCK) {
-                clearActivePeacefulMiningTarget();
-                return;
-            }
+        HitResult blockOnlyHit =
+                cameraEntity.raycast(client.player.getBlockInteractionRange(), tickDelta, false);
 
-            client.crosshairTarget = blockHitResult;
-            client.targetedEntity = null;
-            activePeacefulMiningTargetEntityId = entityId;
+        if (!(blockOnlyHit instanceof BlockHitResult blockHitResult)
+                || blockHitResult.getType() != HitResult.Type.BLOCK) {
+            clearActivePeacefulMiningTarget();
+            return;
         }
+
+        client.crosshairTarget = blockHitResult;
+        client.targetedEntity = null;
+        activePeacefulMiningTargetEntityId = entityId;
     }
 
     /** Returns whether an entity should be rendered with peaceful-mining ghost visuals. */
@@ -661,29 +721,59 @@ public final class CompanionClientRuntime {
         return entityId >= 0 && entityId == activePeacefulMiningTargetEntityId;
     }
 
-    /** Renders a stack overlay for one handled-screen slot when overlay data is available. */
-    public void renderHandledScreenSlotOverlay(DrawContext drawContext, Slot slot) {
-        if (slot == null || !slot.hasStack()) {
+    /**
+     * Marks the player inventory as changed, so overlay stacks are seeded again before the next
+     * overlay render instead of on every slot drawn.
+     */
+    public void onPlayerInventoryUpdated() {
+        knownOverlayStacksStale = true;
+        pendingCursorOverlayUntilMillis = 0L;
+    }
+
+    /**
+     * Renders a stack overlay for one handled-screen slot when overlay data is available.
+     *
+     * <p>Slots are resolved against the screen's overlay plan, so a slot whose stack has not
+     * changed since an earlier frame is an array read.
+     */
+    public void renderHandledScreenSlotOverlay(
+            DrawContext drawContext, ScreenHandler handler, Slot slot) {
+        if (handler == null || slot == null || !slot.hasStack()) {
             return;
         }
 
-        ConnectionSessionState.ItemOverlayEntry overlayEntry;
+        if (!shouldRenderInventoryItemOverlays()) {
+            return;
+        }
 
-        synchronized (this) {
-            if (!shouldRenderInventoryItemOverlays()) {
-                return;
-            }
+        MinecraftClient client = MinecraftClient.getInstance();
+        TextRenderer textRenderer = client.textRenderer;
 
-            seedKnownOverlayStacksFromPlayerInventory(
-                    MinecraftClient.getInstance(), session.inventoryItemOverlaysSnapshot());
-            overlayEntry = resolveSlotOverlayEntry(slot);
+        if (textRenderer == null) {
+            return;
         }
 
-        if (overlayEntry == null) {
-            return;
+        seedKnownOverlayStacksIfStale(client);
+        handledScreenOverlayPlan.ensureCurrent(
+                handler,
+                session.inventoryItemOverlaysVersion(),
+                knownOverlayStacks.version(),
+                textRenderer);
+
+        ItemStack stack = slot.getStack();
+        ItemOverlayLayout layout;
+
+        if (handledScreenOverlayPlan.isPlanned(slot.id, stack)) {
+            layout = handledScreenOverlayPlan.layout(slot.id);
+        } else {
+            ConnectionSessionState.ItemOverlayEntry overlayEntry = resolveSlotOverlayEntry(slot);
+            layout = overlayEntry == null ? null : layoutOverlayText(textRenderer, overlayEntry);
+            handledScreenOverlayPlan.plan(slot.id, stack, layout);
         }
 
-        drawOverlayText(drawContext, slot.x, slot.y, overlayEntry);
+        if (layout != null) {
+            layout.draw(drawContext, textRenderer, slot.x, slot.y);
+        }
     }
 
     /** Renders cursor-stack overlays in handled screens, with slot-click fallback support. */
@@ -699,46 +789,33 @@ public final class CompanionClientRuntime {
 
         ItemStack cursorStack = handler.getCursorStack();
 
+        if (!shouldRenderInventoryItemOverlays()) {
+            clearOverlayRenderCaches();
+            return;
+        }
+
+        seedKnownOverlayStacksIfStale(MinecraftClient.getInstance());
         ConnectionSessionState.ItemOverlayEntry overlayEntry;
 
-        synchronized (this) {
-            if (!shouldRenderInventoryItemOverlays()) {
-                clearOverlayRenderCaches();
+        if (cursorStack.isEmpty()) {
+            // A clicked stack can take a moment to reach the cursor; keep its overlay until the
+            // inventory update that settles the click arrives, for a bounded time.
+            if (activeCursorOverlayEntry != null
+                    && (isMouseButtonHeld(MinecraftClient.getInstance())
+                            || System.currentTimeMillis() < pendingCursorOverlayUntilMillis)) {
+                overlayEntry = activeCursorOverlayEntry;
+            } else {
+                clearActiveCursorOverlay();
                 return;
             }
+        } else {
+            overlayEntry = resolveCursorOverlayEntry(lastClickedSlot, cursorStack);
 
-            seedKnownOverlayStacksFromPlayerInventory(
-                    MinecraftClient.getInstance(), session.inventoryItemOverlaysSnapshot());
-
-            if (cursorStack.isEmpty()) {
-                if (activeCursorOverlayEntry != null
-                        && isMouseButtonHeld(MinecraftClient.getInstance())) {
-                    overlayEntry = activeCursorOverlayEntry;
-                } else if (pendingCursorOverlayFrames > 0 && activeCursorOverlayEntry != null) {
-                    pendingCursorOverlayFrames--;
-                    overlayEntry = activeCursorOverlayEntry;
-                } else {
-                    clearActiveCursorOverlay();
-                    return;
-                }
-            } else {
-                overlayEntry = resolveCursorOverlayEntry(handler, lastClickedSlot, cursorStack);
-                boolean usedPendingFallback = false;
-
-                if (overlayEntry == null) {
-                    if (pendingCursorOverlayFrames > 0 && activeCursorOverlayEntry != null) {
-                        pendingCursorOverlayFrames--;
-                        overlayEntry = activeCursorOverlayEntry;
-                        usedPendingFallback = true;
-                    } else {
-                        return;
-                    }
-                }
-
-                if (!usedPendingFallback) {
-                    pendingCursorOverlayFrames = 0;
-                }
+            if (overlayEntry == null) {
+                return;
             }
+
+            pendingCursorOverlayUntilMillis = 0L;
         }
 
         int slotX = mouseX - 8;
@@ -749,7 +826,7 @@ public final class CompanionClientRuntime {
     /**
      * Captures the most recent clicked-slot overlay to support cursor-drag rendering across frames.
      */
-    public synchronized void rememberHandledScreenSlotClickOverlay(Slot slot) {
+    public void rememberHandledScreenSlotClickOverlay(Slot slot) {
         if (slot == null || !shouldRenderInventoryItemOverlays() || !slot.hasStack()) {
             return;
         }
@@ -766,7 +843,8 @@ public final class CompanionClientRuntime {
             }
 
             cacheActiveCursorOverlay(-1, knownOverlayEntry, slot.getStack());
-            pendingCursorOverlayFrames = PENDING_CURSOR_OVERLAY_FRAMES;
+            pendingCursorOverlayUntilMillis =
+                    System.currentTimeMillis() + PENDING_CURSOR_OVERLAY_MAX_MILLIS;
             return;
         }
 
@@ -779,11 +857,13 @@ public final class CompanionClientRuntime {
         }
 
         cacheActiveCursorOverlay(slotIndex, overlayEntry, slot.getStack());
-        pendingCursorOverlayFrames = PENDING_CURSOR_OVERLAY_FRAMES;
+        pendingCursorOverlayUntilMillis =
+                System.currentTimeMillis() + PENDING_CURSOR_OVERLAY_MAX_MILLIS;
     }
 
-    private synchronized void onJoin(MinecraftClient client) {
+    private void onJoin(MinecraftClient client) {
         session.reset();
+        payloadDecodePipeline.submitMarker(frameDecoder::resetConnection);
         clearPingVisualTracking();
         clearOverlayRenderCaches();
         clearActivePeacefulMiningTarget();
@@ -794,8 +874,11 @@ public final class CompanionClientRuntime {
         attemptSendClientHello(client);
     }
 
-    private synchronized void onDisconnect() {
+    private void onDisconnect() {
+        logPayloadDecodeMetrics();
+        logHudRenderMetrics();
         session.reset();
+        payloadDecodePipeline.submitMarker(frameDecoder::resetConnection);
         clearPingVisualTracking();
         clearOverlayRenderCaches();
         clearActivePeacefulMiningTarget();
@@ -805,7 +888,7 @@ public final class CompanionClientRuntime {
         helloUnavailableLogged = false;
     }
 
-    private synchronized void onEndTick(MinecraftClient client) {
+    private void onEndTick(MinecraftClient client) {
         modUpdateChecker.tick();
 
         if (client.player == null) {
@@ -821,7 +904,7 @@ public final class CompanionClientRuntime {
         }
     }
 
-    private synchronized void onWorldChange(MinecraftClient client, ClientWorld world) {
+    private void onWorldChange(MinecraftClient client, ClientWorld world) {
         session.clearInventoryItemOverlays();
         session.clearHudWidgets();
         session.clearPeacefulMiningPassThroughIds();
@@ -837,6 +920,7 @@ public final class CompanionClientRuntime {
 
         if (session.gateState().isEnabled() || session.helloSent()) {
             session.reset();
+            payloadDecodePipeline.submitMarker(frameDecoder::resetHandshake);
         }
 
         helloRetryTicks = ProtocolConstants.CLIENT_HELLO_RETRY_TICKS;
@@ -844,7 +928,7 @@ public final class CompanionClientRuntime {
         attemptSendClientHello(client);
     }
 
-    private synchronized void onScreenAfterInit(
+    private void onScreenAfterInit(
             MinecraftClient client, Screen screen, int scaledWidth, int scaledHeight) {
         if (!(screen instanceof GameMenuScreen)) {
             return;
@@ -866,22 +950,11 @@ public final class CompanionClientRuntime {
 
     private void onPayloadReceived(
             CompanionRawPayload payload, ClientPlayNetworking.Context context) {
-        byte[] payloadBytes = payload.payloadBytes();
-        MinecraftClient client = context.client();
-        client.execute(() -> onPayloadReceivedOnClient(payloadBytes, client));
+        payloadDecodePipeline.submit(payload.payloadView());
     }
 
-    private synchronized void onPayloadReceivedOnClient(
-            byte[] payloadBytes, MinecraftClient client) {
-        ProtocolCodec.DecodedFrame frame;
-
-        try {
-            frame = protocolCodec.decode(payloadBytes);
-        } catch (BinaryDecodingException ex) {
-            logMalformedOncePerConnection(ex);
-            return;
-        }
-
+    private void onDecodedFrame(ProtocolCodec.DecodedFrame frame) {
+        MinecraftClient client = MinecraftClient.getInstance();
         ProtocolMessage message = frame.message();
 
         if (!session.gateState().shouldProcessIncoming(message)) {
@@ -893,6 +966,8 @@ public final class CompanionClientRuntime {
                     handleServerHello(frame.protocolVersion(), serverHello, client);
             case ProtocolMessage.HudWidgetStateS2C hudWidgetState ->
                     handleHudWidgetState(hudWidgetState);
+            case ProtocolMessage.HudWidgetDeltaS2C hudWidgetDelta ->
+                    handleHudWidgetDelta(hudWidgetDelta);
             case ProtocolMessage.EntityMarkerDeltaS2C markerDelta ->
                     handleEntityMarkerDelta(markerDelta);
             case ProtocolMessage.InventoryItemOverlaysS2C overlays ->
@@ -901,6 +976,23 @@ public final class CompanionClientRuntime {
         }
     }
 
+    private boolean verifyServerHelloForDecode(
+            ProtocolMessage.ServerHelloS2C serverHello, CompanionConfig config) {
+        boolean verified = signatureVerifier.verifyServerHello(serverHello, config);
+
+        if (verified) {
+            decodeVerifiedServerHello = serverHello;
+        }
+
+        return verified;
+    }
+
+    private boolean verifyServerHelloForApply(
+            ProtocolMessage.ServerHelloS2C serverHello, CompanionConfig config) {
+        return serverHello == decodeVerifiedServerHello
+                || signatureVerifier.verifyServerHello(serverHello, config);
+    }
+
     private void handleServerHello(
             int protocolVersion,
             ProtocolMessage.ServerHelloS2C serverHello,
@@ -912,7 +1004,7 @@ public final class CompanionClientRuntime {
                                 protocolVersion,
                                 serverHello,
                                 currentConfig,
-                                signatureVerifier::verifyServerHello);
+                                this::verifyServerHelloForApply);
 
         if (!result.enabled()) {
             LOGGER.debug("Ignored ServerHello due to {}", result);
@@ -976,7 +1068,7 @@ public final class CompanionClientRuntime {
         }
 
         session.replaceInventoryItemOverlays(overlays.overlays());
-        cacheKnownOverlayStacksFromCurrentSnapshot();
+        onPlayerInventoryUpdated();
     }
 
     private void handleHudWidgetState(ProtocolMessage.HudWidgetStateS2C hudWidgetState) {
@@ -987,6 +1079,20 @@ public final class CompanionClientRuntime {
         session.replaceHudWidgets(hudWidgetState.widgets());
     }
 
+    private void handleHudWidgetDelta(ProtocolMessage.HudWidgetDeltaS2C hudWidgetDelta) {
+        if ((session.serverFeatureFlags() & ProtocolConstants.SERVER_FEATURE_HUD_WIDGET_DELTA)
+                == 0) {
+            LOGGER.debug("Ignored HudWidgetDelta from server without delta support");
+            return;
+        }
+
+        if (!session.hudWidgetsSupported()) {
+            session.setHudWidgetsSupported(true);
+        }
+
+        session.applyHudWidgetDelta(hudWidgetDelta);
+    }
+
     private void handleEntityMarkerDelta(ProtocolMessage.EntityMarkerDeltaS2C markerDelta) {
         switch (markerDelta.markerType()) {
             case ProtocolConstants.MARKER_TYPE_PEACEFUL_MINING_PASS_THROUGH ->
@@ -1002,8 +1108,7 @@ public final class CompanionClientRuntime {
         }
     }
 
-    private void applyGangPingBeaconDelta(
-            List<Integer> addEntityIds, List<Integer> removeEntityIds) {
+    private void applyGangPingBeaconDelta(IntList addEntityIds, IntList removeEntityIds) {
         session.applyGangPingBeaconDelta(addEntityIds, removeEntityIds);
         trackPingVisualDelta(
                 gangPingVisualExpiryAtMillis,
@@ -1012,8 +1117,7 @@ public final class CompanionClientRuntime {
                 removeEntityIds);
     }
 
-    private void applyTrucePingBeaconDelta(
-            List<Integer> addEntityIds, List<Integer> removeEntityIds) {
+    private void applyTrucePingBeaconDelta(IntList addEntityIds, IntList removeEntityIds) {
         session.applyTrucePingBeaconDelta(addEntityIds, removeEntityIds);
         trackPingVisualDelta(
                 trucePingVisualExpiryAtMillis,
@@ -1025,11 +1129,12 @@ public final class CompanionClientRuntime {
     private void trackPingVisualDelta(
             Int2LongMap visualExpiryMap,
             IntSet visualSeededIds,
-            List<Integer> addEntityIds,
-            List<Integer> removeEntityIds) {
+            IntList addEntityIds,
+            IntList removeEntityIds) {
         long now = System.currentTimeMillis();
         long expiryAt = safeAddMillis(now, pingVisualDurationMillis());
-        for (int entityId : addEntityIds) {
+        for (int index = 0; index < addEntityIds.size(); index++) {
+            int entityId = addEntityIds.getInt(index);
             if (entityId < 0) {
                 continue;
             }
@@ -1038,7 +1143,8 @@ public final class CompanionClientRuntime {
             visualSeededIds.add(entityId);
         }
 
-        for (int entityId : removeEntityIds) {
+        for (int index = 0; index < removeEntityIds.size(); index++) {
+            int entityId = removeEntityIds.getInt(index);
             if (entityId < 0) {
                 continue;
             }
@@ -1051,21 +1157,15 @@ public final class CompanionClientRuntime {
         int slotIndex = playerStorageSlotIndex(slot);
 
         if (slotIndex >= PLAYER_STORAGE_MIN_SLOT) {
-            ConnectionSessionState.ItemOverlayEntry directOverlayEntry =
-                    session.getInventoryItemOverlay(slotIndex);
-
-            if (directOverlayEntry != null) {
-                rememberKnownOverlayStack(slot.getStack(), directOverlayEntry);
-            }
-
-            return directOverlayEntry;
+            // Player storage stacks are remembered when the inventory is seeded, not per draw.
+            return session.getInventoryItemOverlay(slotIndex);
         }
 
         return findKnownOverlayForStack(slot.getStack());
     }
 
     private ConnectionSessionState.ItemOverlayEntry resolveCursorOverlayEntry(
-            ScreenHandler handler, Slot lastClickedSlot, ItemStack cursorStack) {
+            Slot lastClickedSlot, ItemStack cursorStack) {
         if (activeCursorOverlayEntry != null && !activeCursorOverlayStack.isEmpty()) {
             if (activeCursorOverlaySlot >= PLAYER_STORAGE_MIN_SLOT) {
                 ConnectionSessionState.ItemOverlayEntry refreshedOverlayEntry =
@@ -1093,26 +1193,16 @@ public final class CompanionClientRuntime {
             }
         }
 
-        for (Slot slot : handler.slots) {
-            int slotIndex = playerStorageSlotIndex(slot);
-
-            if (slotIndex < PLAYER_STORAGE_MIN_SLOT || !slot.hasStack()) {
-                continue;
-            }
-
-            if (!ItemStack.areItemsAndComponentsEqual(slot.getStack(), cursorStack)) {
-                continue;
-            }
+        int matchedSlotIndex = findInventorySlotHoldingStack(cursorStack);
 
+        if (matchedSlotIndex >= PLAYER_STORAGE_MIN_SLOT) {
             ConnectionSessionState.ItemOverlayEntry matchedOverlayEntry =
-                    session.getInventoryItemOverlay(slotIndex);
+                    session.getInventoryItemOverlay(matchedSlotIndex);
 
-            if (matchedOverlayEntry == null) {
-                continue;
+            if (matchedOverlayEntry != null) {
+                cacheActiveCursorOverlay(matchedSlotIndex, matchedOverlayEntry, cursorStack);
+                return matchedOverlayEntry;
             }
-
-            cacheActiveCursorOverlay(slotIndex, matchedOverlayEntry, cursorStack);
-            return matchedOverlayEntry;
         }
 
         ConnectionSessionState.ItemOverlayEntry knownOverlayEntry =
@@ -1140,40 +1230,37 @@ public final class CompanionClientRuntime {
         return slotIndex;
     }
 
-    private void cacheKnownOverlayStacksFromCurrentSnapshot() {
-        MinecraftClient client = MinecraftClient.getInstance();
-
-        if (client.player == null) {
+    private void seedKnownOverlayStacksIfStale(MinecraftClient client) {
+        if (!knownOverlayStacksStale || client.player == null) {
             return;
         }
 
-        seedKnownOverlayStacksFromPlayerInventory(client, session.inventoryItemOverlaysSnapshot());
+        knownOverlayStacksStale = false;
+        seedKnownOverlayStacksFromPlayerInventory(client);
     }
 
-    private void seedKnownOverlayStacksFromPlayerInventory(
-            MinecraftClient client,
-            Map<Integer, ConnectionSessionState.ItemOverlayEntry> overlaySnapshot) {
-        if (client.player == null || overlaySnapshot.isEmpty()) {
+    private void seedKnownOverlayStacksFromPlayerInventory(MinecraftClient client) {
+        if (client.player == null || !session.hasInventoryItemOverlays()) {
             return;
         }
 
         PlayerInventory playerInventory = client.player.getInventory();
 
-        for (Map.Entry<Integer, ConnectionSessionState.ItemOverlayEntry> entry :
-                overlaySnapshot.entrySet()) {
-            int slotIndex = entry.getKey();
+        for (int slot = PLAYER_STORAGE_MIN_SLOT; slot <= PLAYER_STORAGE_MAX_SLOT; slot++) {
+            ConnectionSessionState.ItemOverlayEntry overlayEntry =
+                    session.getInventoryItemOverlay(slot);
 
-            if (slotIndex < PLAYER_STORAGE_MIN_SLOT || slotIndex > PLAYER_STORAGE_MAX_SLOT) {
+            if (overlayEntry == null) {
                 continue;
             }
 
-            ItemStack stack = playerInventory.getStack(slotIndex);
+            ItemStack stack = playerInventory.getStack(slot);
 
             if (stack.isEmpty()) {
                 continue;
             }
 
-            rememberKnownOverlayStack(stack, entry.getValue());
+            rememberKnownOverlayStack(stack, overlayEntry, slot);
         }
     }
 
@@ -1191,7 +1278,7 @@ public final class CompanionClientRuntime {
         activeCursorOverlayEntry = null;
         activeCursorOverlayStack = ItemStack.EMPTY;
         activeCursorOverlaySlot = -1;
-        pendingCursorOverlayFrames = 0;
+        pendingCursorOverlayUntilMillis = 0L;
     }
 
     private void clearActivePeacefulMiningTarget() {
@@ -1201,65 +1288,45 @@ public final class CompanionClientRuntime {
     private void clearOverlayRenderCaches() {
         clearActiveCursorOverlay();
         knownOverlayStacks.clear();
+        knownOverlayStacksStale = true;
+        handledScreenOverlayPlan.clear();
     }
 
     private void rememberKnownOverlayStack(
             ItemStack stack, ConnectionSessionState.ItemOverlayEntry overlayEntry) {
-        if (stack.isEmpty()) {
-            return;
-        }
+        knownOverlayStacks.remember(stack, overlayEntry);
+    }
 
-        for (int i = 0; i < knownOverlayStacks.size(); i++) {
-            KnownOverlayStack knownOverlayStack = knownOverlayStacks.get(i);
+    private void rememberKnownOverlayStack(
+            ItemStack stack,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            int inventorySlot) {
+        knownOverlayStacks.remember(stack, overlayEntry, inventorySlot);
+    }
 
-            if (!ItemStack.areItemsAndComponentsEqual(knownOverlayStack.stack(), stack)) {
-                continue;
-            }
+    /**
+     * Returns the player storage slot that still holds a stack identical to {@code stack}, using
+     * the slot recorded in the known overlay stacks rather than walking the open screen.
+     */
+    private int findInventorySlotHoldingStack(ItemStack stack) {
+        int slotIndex = knownOverlayStacks.findInventorySlot(stack);
+        MinecraftClient client = MinecraftClient.getInstance();
 
-            knownOverlayStacks.set(i, new KnownOverlayStack(stack.copy(), overlayEntry));
-            return;
+        if (slotIndex < PLAYER_STORAGE_MIN_SLOT || client.player == null) {
+            return -1;
         }
 
-        knownOverlayStacks.add(new KnownOverlayStack(stack.copy(), overlayEntry));
+        ItemStack slotStack = client.player.getInventory().getStack(slotIndex);
 
-        if (knownOverlayStacks.size() > KNOWN_OVERLAY_STACK_LIMIT) {
-            knownOverlayStacks.remove(0);
+        if (slotStack.isEmpty() || !ItemStack.areItemsAndComponentsEqual(slotStack, stack)) {
+            return -1;
         }
+
+        return slotIndex;
     }
 
     private ConnectionSessionState.ItemOverlayEntry findKnownOverlayForStack(ItemStack stack) {
-        if (stack.isEmpty()) {
-            return null;
-        }
-
-        ConnectionSessionState.ItemOverlayEntry itemAndComponentMatch = null;
-        String stackName = stack.getName().getString();
-
-        for (int i = knownOverlayStacks.size() - 1; i >= 0; i--) {
-            KnownOverlayStack knownOverlayStack = knownOverlayStacks.get(i);
-
-            if (ItemStack.areItemsAndComponentsEqual(knownOverlayStack.stack(), stack)) {
-                return knownOverlayStack.overlayEntry();
-            }
-
-            if (itemAndComponentMatch != null) {
-                continue;
-            }
-
-            ItemStack knownStack = knownOverlayStack.stack();
-
-            if (knownStack.getItem() != stack.getItem()) {
-                continue;
-            }
-
-            if (!knownStack.getName().getString().equals(stackName)) {
-                continue;
-            }
-
-            itemAndComponentMatch = knownOverlayStack.overlayEntry();
-        }
-
-        return itemAndComponentMatch;
+        return knownOverlayStacks.find(stack);
     }
 
     private static boolean isMouseButtonHeld(MinecraftClient client) {
@@ -1425,7 +1492,7 @@ public final class CompanionClientRuntime {
      *
      * <p>Useful for hit-testing and drag constraints in custom editor UIs.
      */
-    public synchronized List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
+    public List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
             int screenWidth,
             int screenHeight,
             Map<String, CompanionConfig.HudWidgetPosition> positionOverrides,
@@ -1443,7 +1510,7 @@ public final class CompanionClientRuntime {
     /**
      * Convenience overload of {@link #collectHudWidgetPanelsForEditor(int, int, Map, Map, Map)}.
      */
-    public synchronized List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
+    public List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
             int screenWidth,
             int screenHeight,
             Map<String, CompanionConfig.HudWidgetPosition> positionOverrides,
@@ -1455,7 +1522,7 @@ public final class CompanionClientRuntime {
     /**
      * Convenience overload of {@link #collectHudWidgetPanelsForEditor(int, int, Map, Map, Map)}.
      */
-    public synchronized List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
+    public List<HudWidgetPanel> collectHudWidgetPanelsForEditor(
             int screenWidth,
             int screenHeight,
             Map<String, CompanionConfig.HudWidgetPosition> positionOverrides) {
@@ -1471,22 +1538,18 @@ public final class CompanionClientRuntime {
             return;
         }
 
-        Map<Integer, ConnectionSessionState.ItemOverlayEntry> overlaySnapshot;
-
-        synchronized (this) {
-            if (!shouldRenderInventoryItemOverlays()) {
-                return;
-            }
-
-            overlaySnapshot = session.inventoryItemOverlaysSnapshot();
-            seedKnownOverlayStacksFromPlayerInventory(client, overlaySnapshot);
+        if (!shouldRenderInventoryItemOverlays()) {
+            return;
         }
 
+        seedKnownOverlayStacksIfStale(client);
+
         int centerX = drawContext.getScaledWindowWidth() / 2;
         int slotY = drawContext.getScaledWindowHeight() - 19;
 
         for (int slot = PLAYER_STORAGE_MIN_SLOT; slot <= HOTBAR_MAX_SLOT; slot++) {
-            ConnectionSessionState.ItemOverlayEntry overlayEntry = overlaySnapshot.get(slot);
+            ConnectionSessionState.ItemOverlayEntry overlayEntry =
+                    session.getInventoryItemOverlay(slot);
 
             if (overlayEntry == null) {
                 continue;
@@ -1536,12 +1599,37 @@ public final class CompanionClientRuntime {
             cooldownProgressBaselineSeconds.clear();
         }
 
+        // Cached layouts hand back the same panel list, so layers recorded for it stay valid
+        // until a resource reload changes the glyphs they were recorded with.
+        if (hudPanelLayerPanels != panels
+                || hudPanelLayerEditorMode != editorMode
+                || hudPanelLayerEpoch != hudRenderEpoch) {
+            hudPanelLayerPanels = panels;
+            hudPanelLayerEditorMode = editorMode;
+            hudPanelLayerEpoch = hudRenderEpoch;
+            hudPanelLayers.clear();
+        }
+
+        long startedAt = System.nanoTime();
+        long now = System.currentTimeMillis();
+        boolean cacheStaticRows = getConfig().hudPanelRenderCaching;
+        int drawCalls = 0;
         for (HudWidgetPanel panel : panels) {
-            drawHudWidgetPanel(drawContext, textRenderer, panel, editorMode);
+            drawCalls +=
+                    drawHudWidgetPanel(
+                            drawContext, textRenderer, panel, editorMode, cacheStaticRows, now);
         }
+        recordHudRender(System.nanoTime() - startedAt, drawCalls);
     }
 
-    private synchronized List<HudWidgetPanel> collectHudWidgetPanels(
+    private void recordHudRender(long elapsedNanos, int drawCalls) {
+        hudRenderFrames++;
+        hudRenderNanos += elapsedNanos;
+        maxHudRenderNanos = Math.max(maxHudRenderNanos, elapsedNanos);
+        hudRenderDrawCalls += drawCalls;
+    }
+
+    private List<HudWidgetPanel> collectHudWidgetPanels(
             int screenWidth,
             int screenHeight,
             boolean editorMode,
@@ -1553,10 +1641,32 @@ public final class CompanionClientRuntime {
             return List.of();
         }
 
+        // Versions are read before the state they guard, so a racing update only forces a rebuild.
+        HudPanelLayoutKey layoutKey =
+                new HudPanelLayoutKey(
+                        session.hudWidgetsVersion(),
+                        configVersion,
+                        hudRenderEpoch,
+                        session.gateState().isEnabled(),
+                        session.hudWidgetsSupported(),
+                        session.serverFeatureFlags(),
+                        screenWidth,
+                        screenHeight,
+                        textRenderer,
+                        positionOverrides,
+                        scaleOverrides,
+                        widthMultiplierOverrides);
+        HudPanelLayoutCache layoutCache =
+                editorMode ? editorHudPanelLayoutCache : hudPanelLayoutCache;
+        long now = System.currentTimeMillis();
+
+        if (layoutCache.matches(layoutKey, now)) {
+            return layoutCache.panels;
+        }
+
         CompanionConfig currentConfig = getConfig();
         Map<String, ConnectionSessionState.HudWidgetEntry> widgetSnapshot =
                 session.hudWidgetsSnapshot();
-        long now = System.currentTimeMillis();
         List<HudWidgetPanel> panels = new ArrayList<>();
         boolean leaderboardCycleMode = currentConfig.hudLeaderboardsCycleMode;
 
@@ -1575,7 +1685,7 @@ public final class CompanionClientRuntime {
 
             boolean compactMode = isCompactModeEnabled(widget.widgetId(), currentConfig);
 
-            List<String> lines =
+            List<HudWidgetCatalog.WidgetLine> lines =
                     resolveWidgetLines(
                             widget.widgetId(),
                             widget.previewLines(),
@@ -1593,7 +1703,8 @@ public final class CompanionClientRuntime {
                     textRenderer.getWidth(Text.translatable(widget.titleTranslationKey()))
                             + (HUD_PANEL_HORIZONTAL_PADDING * 2);
             int contentWidth =
-                    measureWidgetLineWidth(widget.widgetId(), lines, textRenderer, compactMode);
+                    measureWidgetLineWidth(
+                            widget.widgetId(), lines, textRenderer, compactMode, now);
             int desiredWidth =
                     Math.max(
                             basePanelWidth(widget.widgetId(), compactMode),
@@ -1662,10 +1773,68 @@ public final class CompanionClientRuntime {
                     textRenderer);
         }
 
-        return panels;
+        layoutCache.store(
+                layoutKey.withCopiedOverrides(),
+                List.copyOf(panels),
+                nextHudLayoutChangeMillis(widgetSnapshot, leaderboardCycleMode, now));
+        return layoutCache.panels;
     }
 
-    private List<String> resolveWidgetLines(
+    /**
+     * Returns when the time-dependent inputs of a HUD layout next change: a widget TTL running out,
+     * the leaderboard cycle advancing to its next slot, or a countdown the panels are sized for
+     * ticking to different text.
+     */
+    private static long nextHudLayoutChangeMillis(
+            Map<String, ConnectionSessionState.HudWidgetEntry> widgetSnapshot,
+            boolean leaderboardCycleMode,
+            long now) {
+        long next = Long.MAX_VALUE;
+
+        if (leaderboardCycleMode) {
+            next =
+                    ((now / LEADERBOARD_CYCLE_INTERVAL_MILLIS) + 1)
+                            * LEADERBOARD_CYCLE_INTERVAL_MILLIS;
+        }
+
+        for (ConnectionSessionState.HudWidgetEntry entry : widgetSnapshot.values()) {
+            if (entry.ttlSeconds() <= 0) {
+                continue;
+            }
+
+            long expiresAt = entry.receivedAtEpochMillis() + (entry.ttlSeconds() * 1000L);
+
+            // isHudWidgetExpired() flips once now passes expiresAt.
+            if (expiresAt >= now) {
+                next = Math.min(next, expiresAt + 1);
+            }
+        }
+
+        // Cooldown rows drop out of the panel once their local countdown reaches zero.
+        ConnectionSessionState.HudWidgetEntry cooldowns =
+                widgetSnapshot.get(CompanionConfig.HUD_WIDGET_COOLDOWNS_ID);
+        if (cooldowns != null) {
+            for (HudWidgetCatalog.WidgetLine row : cooldowns.rows()) {
+                long endsAt = row.countdownEndsAtMillis();
+                if (endsAt > now) {
+                    next = Math.min(next, endsAt);
+                }
+                next = Math.min(next, row.nextCountdownTextChangeMillis(now));
+            }
+        }
+
+        ConnectionSessionState.HudWidgetEntry events =
+                widgetSnapshot.get(CompanionConfig.HUD_WIDGET_EVENTS_ID);
+        if (events != null) {
+            for (HudWidgetCatalog.WidgetLine row : events.rows()) {
+                next = Math.min(next, row.nextCountdownTextChangeMillis(now));
+            }
+        }
+
+        return next;
+    }
+
+    private List<HudWidgetCatalog.WidgetLine> resolveWidgetLines(
             String widgetId,
             List<String> previewLines,
             Map<String, ConnectionSessionState.HudWidgetEntry> widgetSnapshot,
@@ -1682,10 +1851,7 @@ public final class CompanionClientRuntime {
             if (!editorMode) {
                 return List.of();
             }
-            List<String> preview = List.copyOf(previewLines);
-            return HudWidgetCatalog.isLeaderboardWidget(widgetId)
-                    ? stripLeaderboardHeader(new ArrayList<>(preview))
-                    : preview;
+            return previewRows(widgetId, previewLines);
         }
 
         ConnectionSessionState.HudWidgetEntry entry =
@@ -1694,29 +1860,17 @@ public final class CompanionClientRuntime {
             if (!editorMode) {
                 return List.of();
             }
-            List<String> preview = List.copyOf(previewLines);
-            return HudWidgetCatalog.isLeaderboardWidget(widgetId)
-                    ? stripLeaderboardHeader(new ArrayList<>(preview))
-                    : preview;
+            return previewRows(widgetId, previewLines);
         }
 
-        List<String> lines = new ArrayList<>(entry.lines().size());
-        for (String line : entry.lines()) {
-            if (line != null && !line.isBlank()) {
-                lines.add(line.trim());
-            }
-        }
+        List<HudWidgetCatalog.WidgetLine> lines = new ArrayList<>(entry.rows());
 
         if (CompanionConfig.HUD_WIDGET_EVENTS_ID.equals(widgetId)) {
             lines = resolveEventLines(lines, currentConfig.hudEventVisibility);
         } else if (CompanionConfig.HUD_WIDGET_COOLDOWNS_ID.equals(widgetId)) {
-            lines.removeIf(line -> !HudWidgetCatalog.isCooldownLineActive(line));
+            lines.removeIf(line -> !HudWidgetCatalog.isCooldownLineActive(line, now));
             lines.sort(
-                    Comparator.comparingLong(
-                            line ->
-                                    HudWidgetCatalog.parseDurationSeconds(
-                                                    HudWidgetCatalog.splitLine(line).value())
-                                            .orElse(Long.MAX_VALUE)));
+                    Comparator.comparingLong(HudWidgetCatalog.WidgetLine::countdownEndsAtMillis));
         } else if (HudWidgetCatalog.isLeaderboardWidget(widgetId)) {
             lines = stripLeaderboardHeader(lines);
         }
@@ -1729,41 +1883,44 @@ public final class CompanionClientRuntime {
             if (!editorMode) {
                 return List.of();
             }
-            List<String> preview = List.copyOf(previewLines);
-            return HudWidgetCatalog.isLeaderboardWidget(widgetId)
-                    ? stripLeaderboardHeader(new ArrayList<>(preview))
-                    : preview;
+            return previewRows(widgetId, previewLines);
         }
 
         return lines;
     }
 
-    private static List<String> stripLeaderboardHeader(List<String> lines) {
+    private static List<HudWidgetCatalog.WidgetLine> previewRows(
+            String widgetId, List<String> previewLines) {
+        List<HudWidgetCatalog.WidgetLine> preview =
+                HudWidgetCatalog.parseWidgetLines(widgetId, previewLines);
+        return HudWidgetCatalog.isLeaderboardWidget(widgetId)
+                ? stripLeaderboardHeader(preview)
+                : preview;
+    }
+
+    private static List<HudWidgetCatalog.WidgetLine> stripLeaderboardHeader(
+            List<HudWidgetCatalog.WidgetLine> lines) {
         if (lines.size() <= 1) {
             return lines;
         }
-        String first = lines.get(0);
-        if (first == null || first.isBlank()) {
-            return new ArrayList<>(lines.subList(1, lines.size()));
-        }
-        if (parseLeaderboardEntry(first.trim()) == null) {
+        if (lines.get(0).leaderboardEntry() == null) {
             return new ArrayList<>(lines.subList(1, lines.size()));
         }
         return lines;
     }
 
-    private static List<String> resolveEventLines(
-            List<String> rawLines, Map<String, Boolean> eventVisibilityConfig) {
-        List<HudWidgetCatalog.ParsedLine> sorted =
-                HudWidgetCatalog.sortEventsClosestFirst(rawLines, eventVisibilityConfig);
-        List<String> lines = new ArrayList<>(sorted.size());
+    private static List<HudWidgetCatalog.WidgetLine> resolveEventLines(
+            List<HudWidgetCatalog.WidgetLine> rows, Map<String, Boolean> eventVisibilityConfig) {
+        List<HudWidgetCatalog.WidgetLine> sorted =
+                HudWidgetCatalog.sortEventRowsClosestFirst(rows, eventVisibilityConfig);
+        List<HudWidgetCatalog.WidgetLine> lines = new ArrayList<>(sorted.size());
 
-        for (HudWidgetCatalog.ParsedLine parsedLine : sorted) {
-            if (parsedLine.label().isEmpty()) {
+        for (HudWidgetCatalog.WidgetLine row : sorted) {
+            if (row.label().isEmpty()) {
                 continue;
             }
 
-            lines.add(parsedLine.asText());
+            lines.add(row);
             if (lines.size() >= ProtocolConstants.MAX_WIDGET_LINES) {
                 break;
             }
@@ -1791,7 +1948,7 @@ public final class CompanionClientRuntime {
                 continue;
             }
 
-            List<String> lines =
+            List<HudWidgetCatalog.WidgetLine> lines =
                     resolveWidgetLines(
                             descriptor.widgetId(),
                             descriptor.previewLines(),
@@ -1822,8 +1979,9 @@ public final class CompanionClientRuntime {
             candidates.add(
                     new LeaderboardCandidate(
                             fallbackDescriptor,
-                            stripLeaderboardHeader(
-                                    new ArrayList<>(fallbackDescriptor.previewLines()))));
+                            previewRows(
+                                    fallbackDescriptor.widgetId(),
+                                    fallbackDescriptor.previewLines())));
         }
 
         int index = 0;
@@ -1834,14 +1992,15 @@ public final class CompanionClientRuntime {
         LeaderboardCandidate selected = candidates.get(index);
         String cycleWidgetId = CompanionConfig.HUD_WIDGET_LEADERBOARD_CYCLE_ID;
         boolean compactMode = isCompactModeEnabled(cycleWidgetId, currentConfig);
-        List<String> lines = selected.lines();
+        List<HudWidgetCatalog.WidgetLine> lines = selected.lines();
 
         int lineHeight = widgetLineHeight(cycleWidgetId, compactMode);
         int titleWidth =
                 textRenderer.getWidth(
                                 Text.translatable(selected.descriptor().titleTranslationKey()))
                         + (HUD_PANEL_HORIZONTAL_PADDING * 2);
-        int contentWidth = measureWidgetLineWidth(cycleWidgetId, lines, textRenderer, compactMode);
+        int contentWidth =
+                measureWidgetLineWidth(cycleWidgetId, lines, textRenderer, compactMode, now);
         int desiredWidth =
                 Math.max(
                         basePanelWidth(cycleWidgetId, compactMode),
@@ -1992,16 +2151,26 @@ public final class CompanionClientRuntime {
         return now > expiresAt;
     }
 
-    private void drawHudWidgetPanel(
+    /**
+     * Draws one panel geometry first through {@link #hudPanelBatch}.
+     *
+     * <p>The chrome, and with {@code cacheStaticRows} the rows of panels that only change with a
+     * new snapshot, are recorded once per cached layout and replayed on later frames. Time-driven
+     * content is drawn fresh on top every frame.
+     *
+     * @return the number of draw calls submitted for the panel
+     */
+    private int drawHudWidgetPanel(
             DrawContext drawContext,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
-            boolean editorMode) {
+            boolean editorMode,
+            boolean cacheStaticRows,
+            long now) {
         int x = panel.x();
         int y = panel.y();
         int right = x + panel.physicalWidth();
         int bottom = y + panel.physicalHeight();
-        int accent = panel.accentColor();
 
         drawContext.fill(
                 x - 1 - HUD_PANEL_EDGE_INSET,
@@ -2013,25 +2182,73 @@ public final class CompanionClientRuntime {
         drawContext.getMatrices().translate(x, y);
         drawContext.getMatrices().scale(panel.scale(), panel.scale());
 
-        int localRight = panel.width();
-        int localBottom = panel.height();
         int contentTop = HUD_PANEL_HEADER_HEIGHT + HUD_PANEL_VERTICAL_PADDING;
         int contentLeft = HUD_PANEL_HORIZONTAL_PADDING;
-        int contentRight = localRight - HUD_PANEL_HORIZONTAL_PADDING;
+        int contentRight = panel.width() - HUD_PANEL_HORIZONTAL_PADDING;
+        boolean staticRows = cacheStaticRows && hasStaticHudRows(panel.widgetId());
+
+        HudPanelLayers layers = hudPanelLayers.get(panel);
+        if (layers == null) {
+            HudPanelBatch recorder = hudPanelRecorder;
+            drawHudPanelChrome(recorder, textRenderer, panel, editorMode);
+            HudPanelBatch.Layer chrome = recorder.capture();
+            recorder.clear();
+            HudPanelBatch.Layer rows = null;
+            if (staticRows) {
+                drawHudWidgetRows(
+                        recorder, textRenderer, panel, contentLeft, contentTop, contentRight, now);
+                rows = recorder.capture();
+                recorder.clear();
+            }
+            layers = new HudPanelLayers(chrome, rows);
+            hudPanelLayers.put(panel, layers);
+        }
+
+        HudPanelBatch batch = hudPanelBatch;
+        batch.replay(layers.chrome());
+        if (CompanionConfig.HUD_WIDGET_SATCHELS_ID.equals(panel.widgetId())) {
+            drawSatchelFullPulses(batch, panel, contentLeft, contentTop, contentRight);
+        }
+        if (layers.rows() != null) {
+            batch.replay(layers.rows());
+        } else {
+            drawHudWidgetRows(
+                    batch, textRenderer, panel, contentLeft, contentTop, contentRight, now);
+        }
 
-        drawContext.fill(
-                0, 0, localRight, localBottom, withAlpha(0x0B111A, editorMode ? 188 : 210));
-        drawContext.fill(0, 0, localRight, HUD_PANEL_HEADER_HEIGHT, withAlpha(0x111A2A, 228));
-        drawContext.fill(1, 1, localRight - 1, HUD_PANEL_HEADER_HEIGHT - 1, withAlpha(accent, 48));
-        drawContext.fill(0, 0, localRight, 1, withAlpha(accent, 255));
-        drawContext.fill(0, localBottom - 1, localRight, localBottom, withAlpha(0x2D3A4F, 255));
-        drawContext.fill(0, 0, 1, localBottom, withAlpha(0x2D3A4F, 255));
-        drawContext.fill(localRight - 1, 0, localRight, localBottom, withAlpha(0x2D3A4F, 255));
+        int drawCalls = batch.flush(drawContext, textRenderer) + 1;
+        drawContext.getMatrices().popMatrix();
+        return drawCalls;
+    }
+
+    /** Returns whether a widget's rows change only when a new snapshot or layout arrives. */
+    private static boolean hasStaticHudRows(String widgetId) {
+        return !CompanionConfig.HUD_WIDGET_COOLDOWNS_ID.equals(widgetId)
+                && !CompanionConfig.HUD_WIDGET_EVENTS_ID.equals(widgetId);
+    }
+
+    /** Draws the background, header, borders, title and editor hint of a panel in local space. */
+    private static void drawHudPanelChrome(
+            HudPanelBatch batch,
+            TextRenderer textRenderer,
+            HudWidgetPanel panel,
+            boolean editorMode) {
+        int localRight = panel.width();
+        int localBottom = panel.height();
+        int accent = panel.accentColor();
+
+        batch.fill(0, 0, localRight, localBottom, withAlpha(0x0B111A, editorMode ? 188 : 210));
+        batch.fill(0, 0, localRight, HUD_PANEL_HEADER_HEIGHT, withAlpha(0x111A2A, 228));
+        batch.fill(1, 1, localRight - 1, HUD_PANEL_HEADER_HEIGHT - 1, withAlpha(accent, 48));
+        batch.fill(0, 0, localRight, 1, withAlpha(accent, 255));
+        batch.fill(0, localBottom - 1, localRight, localBottom, withAlpha(0x2D3A4F, 255));
+        batch.fill(0, 0, 1, localBottom, withAlpha(0x2D3A4F, 255));
+        batch.fill(localRight - 1, 0, localRight, localBottom, withAlpha(0x2D3A4F, 255));
 
         Text panelTitle = Text.translatable(panel.titleTranslationKey());
         if (CompanionConfig.HUD_WIDGET_GANG_ID.equals(panel.widgetId())
                 && !panel.lines().isEmpty()) {
-            String gangTitle = panel.lines().get(0);
+            String gangTitle = panel.lines().get(0).text();
             if (gangTitle != null && !gangTitle.isBlank()) {
                 panelTitle = Text.literal(gangTitle.trim());
             }
@@ -2042,102 +2259,108 @@ public final class CompanionClientRuntime {
                                 HUD_PANEL_HORIZONTAL_PADDING,
                                 (localRight - textRenderer.getWidth(panelTitle)) / 2)
                         : HUD_PANEL_HORIZONTAL_PADDING;
-        drawContext.drawTextWithShadow(textRenderer, panelTitle, titleX, 2, 0xFFFFFFFF);
+        batch.drawTextWithShadow(panelTitle, titleX, 2, 0xFFFFFFFF);
 
+        if (editorMode) {
+            batch.drawTextWithShadow(
+                    Text.translatable("text.cosmicprisonsmod.hud.editor.drag_hint"),
+                    localRight - 30,
+                    2,
+                    withAlpha(0xFFFFFF, 225));
+        }
+    }
+
+    private void drawHudWidgetRows(
+            HudPanelBatch batch,
+            TextRenderer textRenderer,
+            HudWidgetPanel panel,
+            int contentLeft,
+            int contentTop,
+            int contentRight,
+            long now) {
         if (CompanionConfig.HUD_WIDGET_COOLDOWNS_ID.equals(panel.widgetId())) {
             drawCooldownRows(
-                    drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                    batch, textRenderer, panel, contentLeft, contentTop, contentRight, now);
         } else if (CompanionConfig.HUD_WIDGET_EVENTS_ID.equals(panel.widgetId())) {
             if (panel.compactMode()) {
                 drawEventRowsCompact(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                        batch, textRenderer, panel, contentLeft, contentTop, contentRight, now);
             } else {
                 drawEventRows(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                        batch, textRenderer, panel, contentLeft, contentTop, contentRight, now);
             }
         } else if (CompanionConfig.HUD_WIDGET_SATCHELS_ID.equals(panel.widgetId())) {
             if (panel.compactMode()) {
                 drawSatchelRowsCompact(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                        batch, textRenderer, panel, contentLeft, contentTop, contentRight);
             } else {
-                drawSatchelRows(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                drawSatchelRows(batch, textRenderer, panel, contentLeft, contentTop, contentRight);
             }
         } else if (CompanionConfig.HUD_WIDGET_GANG_ID.equals(panel.widgetId())) {
-            drawGangRows(drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+            drawGangRows(batch, textRenderer, panel, contentLeft, contentTop, contentRight);
         } else if (CompanionConfig.HUD_WIDGET_LEADERBOARD_CYCLE_ID.equals(panel.widgetId())
                 || HudWidgetCatalog.isLeaderboardWidget(panel.widgetId())) {
             if (panel.compactMode()) {
                 drawLeaderboardRowsCompact(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                        batch, textRenderer, panel, contentLeft, contentTop, contentRight);
             } else {
                 drawLeaderboardRows(
-                        drawContext, textRenderer, panel, contentLeft, contentTop, contentRight);
+                        batch, textRenderer, panel, contentLeft, contentTop, contentRight);
             }
         } else {
             int lineY = contentTop;
-            for (String line : panel.lines()) {
-                drawContext.drawTextWithShadow(textRenderer, line, contentLeft, lineY, 0xFFE8EDF8);
+            for (HudWidgetCatalog.WidgetLine line : panel.lines()) {
+                batch.drawTextWithShadow(line.text(), contentLeft, lineY, 0xFFE8EDF8);
                 lineY += panel.lineHeight();
             }
         }
-
-        if (editorMode) {
-            drawContext.drawTextWithShadow(
-                    textRenderer,
-                    Text.translatable("text.cosmicprisonsmod.hud.editor.drag_hint"),
-                    localRight - 30,
-                    2,
-                    withAlpha(0xFFFFFF, 225));
-        }
-
-        drawContext.getMatrices().popMatrix();
     }
 
     private void drawCooldownRows(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
-            int contentRight) {
-        Set<String> seenKeys = new HashSet<>();
+            int contentRight,
+            long now) {
+        Set<String> seenKeys = seenProgressKeys;
+        seenKeys.clear();
         int rowY = contentTop;
-        for (String line : panel.lines()) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
-            OptionalLong remaining = HudWidgetCatalog.parseDurationSeconds(parsedLine.value());
-            String progressKey = normalizeCooldownProgressKey(parsedLine.label());
-            if (!progressKey.isBlank()) {
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            OptionalLong remaining = parsedLine.remainingSeconds(now);
+            String progressKey = parsedLine.progressKey();
+            if (!progressKey.isEmpty()) {
                 seenKeys.add(progressKey);
             }
-            float progress = cooldownProgressForLine(progressKey, parsedLine.value(), remaining);
-            int statusColor = statusColor(parsedLine.value(), remaining);
+            float progress =
+                    cooldownProgressForLine(progressKey, parsedLine.progressHint(now), remaining);
+            int statusColor = statusColor(parsedLine.statusCategory(), remaining);
             int iconLeft = contentLeft;
             int iconTop = centeredItemTop(rowY, panel.lineHeight());
-            ItemStack iconStack = cooldownIcon(parsedLine.label()).getDefaultStack();
-            drawContext.drawItem(iconStack, iconLeft, iconTop);
+            batch.drawItem(rowIconStack(parsedLine.icon()), iconLeft, iconTop);
 
-            String labelText = compactCooldownLabel(parsedLine.label());
-            String valueText = compactStatusText(parsedLine.value(), true);
+            String labelText = parsedLine.displayLabel();
+            String valueText = statusDisplayText(parsedLine, now);
             int valueSlotWidth = Math.max(36, Math.min(52, contentRight - contentLeft - 62));
             int valueAreaLeft = Math.max(contentLeft + 66, contentRight - valueSlotWidth);
-            int valueWidth = textRenderer.getWidth(valueText);
+            int valueWidth = textWidth(textRenderer, valueText);
             int valueX = valueAreaLeft + Math.max(0, valueSlotWidth - valueWidth);
             int labelX = iconLeft + 22;
             int labelMaxWidth = Math.max(12, valueAreaLeft - labelX - 4);
-            labelText = textRenderer.trimToWidth(labelText, labelMaxWidth);
+            labelText = trimText(textRenderer, labelText, labelMaxWidth);
 
             int textY = rowY + 2;
-            drawContext.drawTextWithShadow(textRenderer, labelText, labelX, textY, 0xFFE6EEFC);
-            drawContext.drawTextWithShadow(textRenderer, valueText, valueX, textY, statusColor);
+            batch.drawTextWithShadow(labelText, labelX, textY, 0xFFE6EEFC);
+            batch.drawTextWithShadow(valueText, valueX, textY, statusColor);
 
             int barX = labelX;
             int barY = textY + textRenderer.fontHeight + 1;
             int barWidth = Math.max(8, valueAreaLeft - barX - 4);
-            drawContext.fill(barX, barY, barX + barWidth, barY + 2, withAlpha(0x31415C, 190));
+            batch.fill(barX, barY, barX + barWidth, barY + 2, withAlpha(0x31415C, 190));
             int filled = Math.max(0, Math.min(barWidth, Math.round(barWidth * progress)));
             if (filled > 0) {
-                drawContext.fill(barX, barY, barX + filled, barY + 2, withAlpha(statusColor, 240));
+                batch.fill(barX, barY, barX + filled, barY + 2, withAlpha(statusColor, 240));
             }
 
             rowY += panel.lineHeight();
@@ -2149,55 +2372,54 @@ public final class CompanionClientRuntime {
     }
 
     private void drawEventRows(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
-            int contentRight) {
-        Set<String> seenKeys = new HashSet<>();
+            int contentRight,
+            long now) {
+        Set<String> seenKeys = seenProgressKeys;
+        seenKeys.clear();
         int rowY = contentTop;
-        for (String line : panel.lines()) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
-            var descriptor = HudWidgetCatalog.findEventByLabel(parsedLine.label());
-            String eventKey = descriptor.map(HudWidgetCatalog.EventDescriptor::key).orElse("");
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            HudWidgetCatalog.EventDescriptor descriptor = parsedLine.event();
+            String eventKey = descriptor == null ? "" : descriptor.key();
             int rowAccent = eventAccentColor(eventKey, panel.accentColor());
-            OptionalLong remaining = HudWidgetCatalog.parseDurationSeconds(parsedLine.value());
-            int statusColor = statusColor(parsedLine.value(), remaining);
-            String progressKey =
-                    eventKey.isBlank()
-                            ? normalizeEventProgressKey(parsedLine.label())
-                            : normalizeEventProgressKey(eventKey);
-            if (!progressKey.isBlank()) {
+            OptionalLong remaining = parsedLine.remainingSeconds(now);
+            int statusColor = statusColor(parsedLine.statusCategory(), remaining);
+            String progressKey = parsedLine.progressKey();
+            if (!progressKey.isEmpty()) {
                 seenKeys.add(progressKey);
             }
-            float progress = eventProgressForLine(progressKey, parsedLine.value(), remaining);
+            float progress =
+                    eventProgressForLine(progressKey, parsedLine.progressHint(now), remaining);
 
             int iconLeft = contentLeft;
             int iconTop = centeredItemTop(rowY, panel.lineHeight());
-            drawContext.drawItem(eventIcon(eventKey).getDefaultStack(), iconLeft, iconTop);
+            batch.drawItem(rowIconStack(parsedLine.icon()), iconLeft, iconTop);
 
-            String labelText = compactEventLabel(parsedLine.label());
-            String valueText = compactStatusText(parsedLine.value(), false);
+            String labelText = parsedLine.displayLabel();
+            String valueText = statusDisplayText(parsedLine, now);
             int valueSlotWidth = Math.max(36, Math.min(52, contentRight - contentLeft - 62));
             int valueAreaLeft = Math.max(contentLeft + 58, contentRight - valueSlotWidth);
-            int valueWidth = textRenderer.getWidth(valueText);
+            int valueWidth = textWidth(textRenderer, valueText);
             int valueX = valueAreaLeft + Math.max(0, valueSlotWidth - valueWidth);
             int labelX = iconLeft + 18;
             int labelMaxWidth = Math.max(12, valueAreaLeft - labelX - 4);
-            labelText = textRenderer.trimToWidth(labelText, labelMaxWidth);
+            labelText = trimText(textRenderer, labelText, labelMaxWidth);
 
             int textY = rowY + 1;
-            drawContext.drawTextWithShadow(textRenderer, labelText, labelX, textY, 0xFFE4EDF8);
-            drawContext.drawTextWithShadow(textRenderer, valueText, valueX, textY, statusColor);
+            batch.drawTextWithShadow(labelText, labelX, textY, 0xFFE4EDF8);
+            batch.drawTextWithShadow(valueText, valueX, textY, statusColor);
 
             int barX = labelX;
             int barY = rowY + panel.lineHeight() - 3;
             int barWidth = Math.max(8, valueAreaLeft - barX - 4);
-            drawContext.fill(barX, barY, barX + barWidth, barY + 2, withAlpha(0x31415C, 190));
+            batch.fill(barX, barY, barX + barWidth, barY + 2, withAlpha(0x31415C, 190));
             int filled = Math.max(0, Math.min(barWidth, Math.round(barWidth * progress)));
             if (filled > 0) {
-                drawContext.fill(barX, barY, barX + filled, barY + 2, withAlpha(rowAccent, 240));
+                batch.fill(barX, barY, barX + filled, barY + 2, withAlpha(rowAccent, 240));
             }
 
             rowY += panel.lineHeight();
@@ -2209,138 +2431,144 @@ public final class CompanionClientRuntime {
     }
 
     private static void drawEventRowsCompact(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
-            int contentRight) {
+            int contentRight,
+            long now) {
         int rowY = contentTop;
-        for (String line : panel.lines()) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
-            var descriptor = HudWidgetCatalog.findEventByLabel(parsedLine.label());
-            String eventKey = descriptor.map(HudWidgetCatalog.EventDescriptor::key).orElse("");
-            String tag =
-                    descriptor
-                            .map(HudWidgetCatalog.EventDescriptor::iconTag)
-                            .orElse(compactEventTag(parsedLine.label()));
-            String tagText = "[" + tag + "]";
-            String valueText = compactStatusText(parsedLine.value(), false);
-            OptionalLong remaining = HudWidgetCatalog.parseDurationSeconds(parsedLine.value());
-            int valueWidth = textRenderer.getWidth(valueText);
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            HudWidgetCatalog.EventDescriptor descriptor = parsedLine.event();
+            String eventKey = descriptor == null ? "" : descriptor.key();
+            String tagText = parsedLine.tag();
+            OptionalLong remaining = parsedLine.remainingSeconds(now);
+            String valueText = statusDisplayText(parsedLine, now);
+            int valueWidth = textWidth(textRenderer, valueText);
             int valueX = Math.max(contentLeft + 48, contentRight - valueWidth);
             int tagColor = eventAccentColor(eventKey, panel.accentColor());
             int tagMaxWidth = Math.max(12, valueX - contentLeft - 3);
-            String clampedTag = textRenderer.trimToWidth(tagText, tagMaxWidth);
+            String clampedTag = trimText(textRenderer, tagText, tagMaxWidth);
 
-            drawContext.drawTextWithShadow(textRenderer, clampedTag, contentLeft, rowY, tagColor);
-            drawContext.drawTextWithShadow(
-                    textRenderer,
-                    valueText,
-                    valueX,
-                    rowY,
-                    statusColor(parsedLine.value(), remaining));
+            batch.drawTextWithShadow(clampedTag, contentLeft, rowY, tagColor);
+            batch.drawTextWithShadow(
+                    valueText, valueX, rowY, statusColor(parsedLine.statusCategory(), remaining));
             rowY += panel.lineHeight();
         }
     }
 
     private static void drawSatchelRows(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
             int contentRight) {
         int rowY = contentTop;
-        for (String line : panel.lines()) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
-            float progress = parseSatchelProgress(parsedLine.value());
-            boolean satchelFull = isSatchelFull(parsedLine.value(), progress);
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            float progress = parsedLine.satchelProgress();
+            boolean satchelFull = parsedLine.satchelFull();
             String valueText = satchelFull ? "FULL!" : compactSatchelValue(parsedLine.value());
             String label = parsedLine.label();
             int iconLeft = contentLeft;
             int iconTop = centeredItemTop(rowY, panel.lineHeight());
             int valueSlotWidth = Math.max(40, Math.min(58, contentRight - contentLeft - 62));
             int valueAreaLeft = Math.max(contentLeft + 58, contentRight - valueSlotWidth);
-            int valueWidth = textRenderer.getWidth(valueText);
+            int valueWidth = textWidth(textRenderer, valueText);
             int valueX = valueAreaLeft + Math.max(0, valueSlotWidth - valueWidth);
-            if (satchelFull) {
-                int pulseAlpha = satchelFullPulseAlpha();
-                drawContext.fill(
-                        iconLeft + 17,
-                        rowY - 1,
-                        contentRight,
-                        rowY + panel.lineHeight() - 2,
-                        withAlpha(0x8F1A1A, pulseAlpha));
-            }
-            drawContext.drawItem(satchelIcon(label).getDefaultStack(), iconLeft, iconTop);
+            batch.drawItem(rowIconStack(parsedLine.icon()), iconLeft, iconTop);
 
             int labelX = iconLeft + 18;
             int labelMaxWidth = Math.max(12, valueAreaLeft - labelX - 4);
             String labelText =
-                    textRenderer.trimToWidth(satchelFull ? label + " !" : label, labelMaxWidth);
+                    trimText(textRenderer, satchelFull ? label + " !" : label, labelMaxWidth);
             int labelColor = satchelFull ? 0xFFFFC1C1 : 0xFFE5F4EA;
             int valueColor = satchelFull ? 0xFFFF5D5D : 0xFF9EF0BC;
             int textY = rowY + 1;
-            drawContext.drawTextWithShadow(textRenderer, labelText, labelX, textY, labelColor);
-            drawContext.drawTextWithShadow(textRenderer, valueText, valueX, textY, valueColor);
+            batch.drawTextWithShadow(labelText, labelX, textY, labelColor);
+            batch.drawTextWithShadow(valueText, valueX, textY, valueColor);
 
             int barX = labelX;
             int barY = rowY + panel.lineHeight() - 3;
             int barWidth = Math.max(8, valueAreaLeft - barX - 4);
             int trackColor = satchelFull ? withAlpha(0x5D2020, 212) : withAlpha(0x33503F, 185);
             int fillColor = satchelFull ? withAlpha(0xFF5555, 245) : withAlpha(0x66D89A, 235);
-            drawContext.fill(barX, barY, barX + barWidth, barY + 2, trackColor);
+            batch.fill(barX, barY, barX + barWidth, barY + 2, trackColor);
             int filled = Math.max(0, Math.min(barWidth, Math.round(barWidth * progress)));
             if (filled > 0) {
-                drawContext.fill(barX, barY, barX + filled, barY + 2, fillColor);
+                batch.fill(barX, barY, barX + filled, barY + 2, fillColor);
             }
 
             rowY += panel.lineHeight();
         }
     }
 
+    /**
+     * Draws the pulsing highlight behind full satchels. It animates every frame, so it is drawn
+     * between the recorded chrome and rows instead of being recorded with them.
+     */
+    private static void drawSatchelFullPulses(
+            HudPanelBatch batch,
+            HudWidgetPanel panel,
+            int contentLeft,
+            int contentTop,
+            int contentRight) {
+        int pulseColor = withAlpha(0x8F1A1A, satchelFullPulseAlpha());
+        int rowY = contentTop;
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            if (parsedLine.satchelFull()) {
+                if (panel.compactMode()) {
+                    batch.fill(
+                            contentLeft,
+                            rowY - 1,
+                            contentRight,
+                            rowY + panel.lineHeight() - 1,
+                            pulseColor);
+                } else {
+                    batch.fill(
+                            contentLeft + 17,
+                            rowY - 1,
+                            contentRight,
+                            rowY + panel.lineHeight() - 2,
+                            pulseColor);
+                }
+            }
+            rowY += panel.lineHeight();
+        }
+    }
+
     private static void drawSatchelRowsCompact(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
             int contentRight) {
         int rowY = contentTop;
-        for (String line : panel.lines()) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
-            float progress = parseSatchelProgress(parsedLine.value());
-            boolean satchelFull = isSatchelFull(parsedLine.value(), progress);
+        for (HudWidgetCatalog.WidgetLine parsedLine : panel.lines()) {
+            float progress = parsedLine.satchelProgress();
+            boolean satchelFull = parsedLine.satchelFull();
             String tag =
                     satchelFull
                             ? "[" + compactSatchelTag(parsedLine.label()) + "!]"
-                            : "[" + compactSatchelTag(parsedLine.label()) + "]";
-            String valueText = satchelFull ? "FULL!" : compactSatchelValue(parsedLine.value());
-            int valueWidth = textRenderer.getWidth(valueText);
-            int valueX = Math.max(contentLeft + 44, contentRight - valueWidth);
-            int tagMaxWidth = Math.max(12, valueX - contentLeft - 3);
-            String clampedTag = textRenderer.trimToWidth(tag, tagMaxWidth);
-
-            if (satchelFull) {
-                drawContext.fill(
-                        contentLeft,
-                        rowY - 1,
-                        contentRight,
-                        rowY + panel.lineHeight() - 1,
-                        withAlpha(0x8F1A1A, satchelFullPulseAlpha()));
-            }
+                            : "[" + compactSatchelTag(parsedLine.label()) + "]";
+            String valueText = satchelFull ? "FULL!" : compactSatchelValue(parsedLine.value());
+            int valueWidth = textWidth(textRenderer, valueText);
+            int valueX = Math.max(contentLeft + 44, contentRight - valueWidth);
+            int tagMaxWidth = Math.max(12, valueX - contentLeft - 3);
+            String clampedTag = trimText(textRenderer, tag, tagMaxWidth);
 
             int tagColor = satchelFull ? 0xFFFFC1C1 : 0xFFAAF3CC;
             int valueColor = satchelFull ? 0xFFFF5D5D : 0xFF9EF0BC;
-            drawContext.drawTextWithShadow(textRenderer, clampedTag, contentLeft, rowY, tagColor);
-            drawContext.drawTextWithShadow(textRenderer, valueText, valueX, rowY, valueColor);
+            batch.drawTextWithShadow(clampedTag, contentLeft, rowY, tagColor);
+            batch.drawTextWithShadow(valueText, valueX, rowY, valueColor);
             rowY += panel.lineHeight();
         }
     }
 
-    private static void drawGangRows(
-            DrawContext drawContext,
+    private void drawGangRows(
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
@@ -2352,7 +2580,12 @@ public final class CompanionClientRuntime {
 
         int totalRows = Math.max(1, panel.lines().size() - 1);
         int lineHeight = panel.lineHeight();
-        GangLayout gangLayout = buildGangLayout(panel.lines());
+        // Cached panels keep their row list until the widget changes, so identity is enough here.
+        if (gangLayout == null || gangLayoutRows != panel.lines()) {
+            gangLayoutRows = panel.lines();
+            gangLayout = buildGangLayout(gangLayoutRows);
+        }
+        GangLayout gangLayout = this.gangLayout;
         int metadataRows = Math.min(totalRows, gangLayout.metadataLines().size());
         int primaryRowsAvailable = Math.max(0, totalRows - metadataRows);
 
@@ -2368,24 +2601,24 @@ public final class CompanionClientRuntime {
             GangPrimaryLine line = primaryLines.get(index);
             int rowY = contentTop + (index * lineHeight);
             renderGangPrimaryLine(
-                    drawContext, textRenderer, line, rowY, lineHeight, contentLeft, contentRight);
+                    batch, textRenderer, line, rowY, lineHeight, contentLeft, contentRight);
         }
 
         if (needsOverflow) {
             int hidden = Math.max(1, primaryLines.size() - primaryRowsAvailable + 1);
             int rowY = contentTop + (visiblePrimaryCount * lineHeight);
             String overflowText =
-                    textRenderer.trimToWidth(
+                    trimText(
+                            textRenderer,
                             "... +" + hidden + " more",
                             Math.max(8, contentRight - contentLeft - 6));
-            drawContext.drawTextWithShadow(
-                    textRenderer, overflowText, contentLeft + 4, rowY, 0xFF9CB0C8);
+            batch.drawTextWithShadow(overflowText, contentLeft + 4, rowY, 0xFF9CB0C8);
         }
 
         int metadataStartRow = primaryRowsAvailable;
         if (metadataRows > 0) {
             int metadataTopY = contentTop + (metadataStartRow * lineHeight);
-            drawContext.fill(
+            batch.fill(
                     contentLeft,
                     metadataTopY - 1,
                     contentRight,
@@ -2397,58 +2630,37 @@ public final class CompanionClientRuntime {
             String metadataText = gangLayout.metadataLines().get(index);
             int rowY = contentTop + ((metadataStartRow + index) * lineHeight);
             renderGangMetadataLine(
-                    drawContext,
-                    textRenderer,
-                    metadataText,
-                    rowY,
-                    lineHeight,
-                    contentLeft,
-                    contentRight);
+                    batch, textRenderer, metadataText, rowY, lineHeight, contentLeft, contentRight);
         }
     }
 
     private static void drawLeaderboardRows(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
             int contentRight) {
-        boolean allowBillionSuffix = !isBlocksLeaderboardPanel(panel);
         double topValue = 0.0D;
-        for (int index = 0; index < panel.lines().size(); index++) {
-            String line = panel.lines().get(index);
-            if (line == null || line.isBlank()) {
-                continue;
-            }
-            LeaderboardEntry entry = parseLeaderboardEntry(line.trim());
-            if (entry == null) {
-                continue;
-            }
-            OptionalDouble parsedValue = parseLeaderboardValue(entry.value(), allowBillionSuffix);
+        for (HudWidgetCatalog.WidgetLine line : panel.lines()) {
+            OptionalDouble parsedValue = line.leaderboardValue();
             if (parsedValue.isPresent()) {
                 topValue = Math.max(topValue, parsedValue.orElse(0.0D));
             }
         }
 
         int rowY = contentTop;
-        for (int index = 0; index < panel.lines().size(); index++) {
-            String line = panel.lines().get(index);
-            if (line == null || line.isBlank()) {
-                rowY += panel.lineHeight();
-                continue;
-            }
-
-            String trimmed = line.trim();
-            LeaderboardEntry entry = parseLeaderboardEntry(trimmed);
+        for (HudWidgetCatalog.WidgetLine line : panel.lines()) {
+            String trimmed = line.text();
+            HudWidgetCatalog.LeaderboardEntry entry = line.leaderboardEntry();
             int lineColor = entry == null ? 0xFFD6E2F3 : leaderboardRankColor(entry.rank());
             String displayLine =
-                    textRenderer.trimToWidth(trimmed, Math.max(8, contentRight - contentLeft - 1));
+                    trimText(textRenderer, trimmed, Math.max(8, contentRight - contentLeft - 1));
             int textY = rowY + 2;
             if (entry != null) {
                 boolean selfEntry = isLocalPlayerEntry(entry.name());
                 if (selfEntry) {
-                    drawContext.fill(
+                    batch.fill(
                             contentLeft,
                             rowY + 1,
                             contentRight,
@@ -2458,37 +2670,32 @@ public final class CompanionClientRuntime {
                 int valueSlotWidth = Math.max(34, Math.min(58, contentRight - contentLeft - 68));
                 int rankBadgeWidth = 18;
                 int rankX = contentLeft;
-                int valueWidth = textRenderer.getWidth(entry.value());
+                int valueWidth = textWidth(textRenderer, entry.value());
                 int valueAreaLeft =
                         Math.max(contentLeft + rankBadgeWidth + 14, contentRight - valueSlotWidth);
                 int valueX = valueAreaLeft + Math.max(0, valueSlotWidth - valueWidth);
                 int nameX = contentLeft + rankBadgeWidth;
                 int nameMaxWidth = Math.max(10, valueX - nameX - 3);
                 String rankText = "#" + entry.rank();
-                String nameText = textRenderer.trimToWidth(entry.name(), nameMaxWidth);
-                drawContext.fill(
+                String nameText = trimText(textRenderer, entry.name(), nameMaxWidth);
+                batch.fill(
                         rankX,
                         rowY + 2,
                         rankX + rankBadgeWidth - 3,
                         rowY + panel.lineHeight() - 5,
                         withAlpha(lineColor, 38));
-                drawContext.drawTextWithShadow(textRenderer, rankText, rankX + 1, textY, lineColor);
-                drawContext.drawTextWithShadow(
-                        textRenderer, nameText, nameX, textY, selfEntry ? 0xFFFFFFFF : 0xFFE5EDF9);
-                drawContext.drawTextWithShadow(
-                        textRenderer,
-                        entry.value(),
-                        valueX,
-                        textY,
-                        selfEntry ? 0xFFE9F2FF : 0xFFD2E6FF);
+                batch.drawTextWithShadow(rankText, rankX + 1, textY, lineColor);
+                batch.drawTextWithShadow(
+                        nameText, nameX, textY, selfEntry ? 0xFFFFFFFF : 0xFFE5EDF9);
+                batch.drawTextWithShadow(
+                        entry.value(), valueX, textY, selfEntry ? 0xFFE9F2FF : 0xFFD2E6FF);
 
                 int barLeft = nameX;
                 int barRight = Math.max(barLeft + 8, valueAreaLeft - 3);
                 int barY = rowY + panel.lineHeight() - 3;
-                drawContext.fill(barLeft, barY, barRight, barY + 2, withAlpha(0x2E3F57, 188));
+                batch.fill(barLeft, barY, barRight, barY + 2, withAlpha(0x2E3F57, 188));
                 if (topValue > 0.0D) {
-                    OptionalDouble parsedValue =
-                            parseLeaderboardValue(entry.value(), allowBillionSuffix);
+                    OptionalDouble parsedValue = line.leaderboardValue();
                     if (parsedValue.isPresent()) {
                         double ratio = parsedValue.orElse(0.0D) / topValue;
                         float clampedRatio = (float) Math.max(0.0D, Math.min(1.0D, ratio));
@@ -2497,7 +2704,7 @@ public final class CompanionClientRuntime {
                                         clampedRatio > 0.0F ? 1 : 0,
                                         Math.round((barRight - barLeft) * clampedRatio));
                         if (filledWidth > 0) {
-                            drawContext.fill(
+                            batch.fill(
                                     barLeft,
                                     barY,
                                     barLeft + filledWidth,
@@ -2507,35 +2714,27 @@ public final class CompanionClientRuntime {
                     }
                 }
             } else {
-                drawContext.drawTextWithShadow(
-                        textRenderer, displayLine, contentLeft, textY, lineColor);
+                batch.drawTextWithShadow(displayLine, contentLeft, textY, lineColor);
             }
             rowY += panel.lineHeight();
         }
     }
 
     private static void drawLeaderboardRowsCompact(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             HudWidgetPanel panel,
             int contentLeft,
             int contentTop,
             int contentRight) {
         int rowY = contentTop;
-        for (int index = 0; index < panel.lines().size(); index++) {
-            String line = panel.lines().get(index);
-            if (line == null || line.isBlank()) {
-                rowY += panel.lineHeight();
-                continue;
-            }
-
-            String trimmed = line.trim();
-            LeaderboardEntry entry = parseLeaderboardEntry(trimmed);
+        for (HudWidgetCatalog.WidgetLine line : panel.lines()) {
+            String trimmed = line.text();
+            HudWidgetCatalog.LeaderboardEntry entry = line.leaderboardEntry();
             if (entry == null) {
-                drawContext.drawTextWithShadow(
-                        textRenderer,
-                        textRenderer.trimToWidth(
-                                trimmed, Math.max(8, contentRight - contentLeft - 1)),
+                batch.drawTextWithShadow(
+                        trimText(
+                                textRenderer, trimmed, Math.max(8, contentRight - contentLeft - 1)),
                         contentLeft,
                         rowY,
                         0xFFD6E2F3);
@@ -2547,16 +2746,16 @@ public final class CompanionClientRuntime {
             String rankText = "#" + entry.rank();
             String tagText = "[" + compactLeaderboardTag(entry.name()) + "]";
             String valueText = entry.value();
-            int valueWidth = textRenderer.getWidth(valueText);
+            int valueWidth = textWidth(textRenderer, valueText);
             int valueX = Math.max(contentLeft + 45, contentRight - valueWidth);
             int rankX = contentLeft;
-            int tagX = rankX + Math.max(13, textRenderer.getWidth(rankText) + 3);
+            int tagX = rankX + Math.max(13, textWidth(textRenderer, rankText) + 3);
             int tagMaxWidth = Math.max(8, valueX - tagX - 2);
-            String clampedTag = textRenderer.trimToWidth(tagText, tagMaxWidth);
+            String clampedTag = trimText(textRenderer, tagText, tagMaxWidth);
             boolean selfEntry = isLocalPlayerEntry(entry.name());
 
             if (selfEntry) {
-                drawContext.fill(
+                batch.fill(
                         contentLeft,
                         rowY - 1,
                         contentRight,
@@ -2564,11 +2763,9 @@ public final class CompanionClientRuntime {
                         withAlpha(0x1E5AA8, 120));
             }
 
-            drawContext.drawTextWithShadow(textRenderer, rankText, rankX, rowY, rankColor);
-            drawContext.drawTextWithShadow(
-                    textRenderer, clampedTag, tagX, rowY, selfEntry ? 0xFFFFFFFF : 0xFFCEE1FF);
-            drawContext.drawTextWithShadow(
-                    textRenderer, valueText, valueX, rowY, selfEntry ? 0xFFE9F2FF : 0xFFD2E6FF);
+            batch.drawTextWithShadow(rankText, rankX, rowY, rankColor);
+            batch.drawTextWithShadow(clampedTag, tagX, rowY, selfEntry ? 0xFFFFFFFF : 0xFFCEE1FF);
+            batch.drawTextWithShadow(valueText, valueX, rowY, selfEntry ? 0xFFE9F2FF : 0xFFD2E6FF);
             rowY += panel.lineHeight();
         }
     }
@@ -2663,27 +2860,25 @@ public final class CompanionClientRuntime {
     }
 
     private static int measureWidgetLineWidth(
-            String widgetId, List<String> lines, TextRenderer textRenderer, boolean compactEvents) {
+            String widgetId,
+            List<HudWidgetCatalog.WidgetLine> lines,
+            TextRenderer textRenderer,
+            boolean compactEvents,
+            long now) {
         int max = 0;
-        for (String line : lines) {
-            HudWidgetCatalog.ParsedLine parsedLine = HudWidgetCatalog.splitLine(line);
+        for (HudWidgetCatalog.WidgetLine parsedLine : lines) {
+            String line = parsedLine.text();
             if (CompanionConfig.HUD_WIDGET_EVENTS_ID.equals(widgetId)) {
                 int width;
                 if (compactEvents) {
-                    String tag =
-                            HudWidgetCatalog.findEventByLabel(parsedLine.label())
-                                    .map(HudWidgetCatalog.EventDescriptor::iconTag)
-                                    .orElse(compactEventTag(parsedLine.label()));
                     width =
-                            textRenderer.getWidth("[" + tag + "]")
-                                    + textRenderer.getWidth(
-                                            compactStatusText(parsedLine.value(), false))
+                            textWidth(textRenderer, parsedLine.tag())
+                                    + textWidth(textRenderer, statusDisplayText(parsedLine, now))
                                     + 18;
                 } else {
                     width =
-                            textRenderer.getWidth(compactEventLabel(parsedLine.label()))
-                                    + textRenderer.getWidth(
-                                            compactStatusText(parsedLine.value(), false))
+                            textWidth(textRenderer, parsedLine.displayLabel())
+                                    + textWidth(textRenderer, statusDisplayText(parsedLine, now))
                                     + 36;
                 }
                 max = Math.max(max, width);
@@ -2691,8 +2886,8 @@ public final class CompanionClientRuntime {
             }
 
             if (CompanionConfig.HUD_WIDGET_COOLDOWNS_ID.equals(widgetId)) {
-                int labelWidth = textRenderer.getWidth(compactCooldownLabel(parsedLine.label()));
-                int valueWidth = textRenderer.getWidth(compactStatusText(parsedLine.value(), true));
+                int labelWidth = textWidth(textRenderer, parsedLine.displayLabel());
+                int valueWidth = textWidth(textRenderer, statusDisplayText(parsedLine, now));
                 int width = Math.max(labelWidth, valueWidth) + 30;
                 max = Math.max(max, width);
                 continue;
@@ -2702,13 +2897,15 @@ public final class CompanionClientRuntime {
                 int width;
                 if (compactEvents) {
                     width =
-                            textRenderer.getWidth("[" + compactSatchelTag(parsedLine.label()) + "]")
-                                    + textRenderer.getWidth(compactSatchelValue(parsedLine.value()))
+                            textWidth(textRenderer, "[", compactSatchelTag(parsedLine.label()), "]")
+                                    + textWidth(
+                                            textRenderer, compactSatchelValue(parsedLine.value()))
                                     + 14;
                 } else {
                     width =
-                            textRenderer.getWidth(parsedLine.label())
-                                    + textRenderer.getWidth(compactSatchelValue(parsedLine.value()))
+                            textWidth(textRenderer, parsedLine.label())
+                                    + textWidth(
+                                            textRenderer, compactSatchelValue(parsedLine.value()))
                                     + 36;
                 }
                 max = Math.max(max, width);
@@ -2716,7 +2913,7 @@ public final class CompanionClientRuntime {
             }
 
             if (CompanionConfig.HUD_WIDGET_GANG_ID.equals(widgetId)) {
-                int lineWidth = Math.min(128, textRenderer.getWidth(line));
+                int lineWidth = Math.min(128, textWidth(textRenderer, line));
                 max = Math.max(max, lineWidth + 16);
                 continue;
             }
@@ -2724,27 +2921,29 @@ public final class CompanionClientRuntime {
             if (CompanionConfig.HUD_WIDGET_LEADERBOARD_CYCLE_ID.equals(widgetId)
                     || HudWidgetCatalog.isLeaderboardWidget(widgetId)) {
                 int width;
+                HudWidgetCatalog.LeaderboardEntry entry = parsedLine.leaderboardEntry();
                 if (compactEvents) {
-                    LeaderboardEntry entry = parseLeaderboardEntry(line);
                     if (entry == null) {
-                        width = textRenderer.getWidth(line);
+                        width = textWidth(textRenderer, line);
                     } else {
                         width =
-                                textRenderer.getWidth("#" + entry.rank())
-                                        + textRenderer.getWidth(
-                                                "[" + compactLeaderboardTag(entry.name()) + "]")
-                                        + textRenderer.getWidth(entry.value())
+                                rankWidth(textRenderer, entry.rank())
+                                        + textWidth(
+                                                textRenderer,
+                                                "[",
+                                                compactLeaderboardTag(entry.name()),
+                                                "]")
+                                        + textWidth(textRenderer, entry.value())
                                         + 18;
                     }
                 } else {
-                    LeaderboardEntry entry = parseLeaderboardEntry(line);
                     if (entry == null) {
-                        width = textRenderer.getWidth(line) + 18;
+                        width = textWidth(textRenderer, line) + 18;
                     } else {
                         width =
-                                textRenderer.getWidth("#" + entry.rank())
-                                        + textRenderer.getWidth(entry.name())
-                                        + textRenderer.getWidth(entry.value())
+                                rankWidth(textRenderer, entry.rank())
+                                        + textWidth(textRenderer, entry.name())
+                                        + textWidth(textRenderer, entry.value())
                                         + 24;
                     }
                 }
@@ -2752,20 +2951,19 @@ public final class CompanionClientRuntime {
                 continue;
             }
 
-            max = Math.max(max, textRenderer.getWidth(line));
+            max = Math.max(max, textWidth(textRenderer, line));
         }
 
         return max + (HUD_PANEL_HORIZONTAL_PADDING * 2);
     }
 
-    private static int statusColor(String statusText, OptionalLong remaining) {
-        String normalized = normalizeStatusToken(primaryStatusSegment(statusText));
-
-        if ("now".equals(normalized) || "live".equals(normalized) || "active".equals(normalized)) {
+    private static int statusColor(
+            HudWidgetCatalog.StatusCategory statusCategory, OptionalLong remaining) {
+        if (statusCategory == HudWidgetCatalog.StatusCategory.LIVE) {
             return 0xFF7CF2A0;
         }
 
-        if (isUnavailableStatus(normalized)) {
+        if (statusCategory == HudWidgetCatalog.StatusCategory.UNAVAILABLE) {
             return 0xFF8A95AB;
         }
 
@@ -2787,12 +2985,11 @@ public final class CompanionClientRuntime {
     }
 
     private float eventProgressForLine(
-            String progressKey, String rawValue, OptionalLong remaining) {
+            String progressKey, OptionalDouble explicitProgress, OptionalLong remaining) {
         if (progressKey == null || progressKey.isBlank()) {
             return 0.0F;
         }
 
-        OptionalDouble explicitProgress = parseExplicitProgressHint(rawValue, remaining);
         if (explicitProgress.isPresent()) {
             eventProgressBaselineSeconds.remove(progressKey);
             return clamp01((float) explicitProgress.orElse(0.0D));
@@ -2823,12 +3020,11 @@ public final class CompanionClientRuntime {
     }
 
     private float cooldownProgressForLine(
-            String progressKey, String rawValue, OptionalLong remaining) {
+            String progressKey, OptionalDouble explicitProgress, OptionalLong remaining) {
         if (progressKey == null || progressKey.isBlank()) {
             return 0.0F;
         }
 
-        OptionalDouble explicitProgress = parseExplicitProgressHint(rawValue, remaining);
         if (explicitProgress.isPresent()) {
             cooldownProgressBaselineSeconds.remove(progressKey);
             return clamp01((float) explicitProgress.orElse(0.0D));
@@ -2858,82 +3054,6 @@ public final class CompanionClientRuntime {
         return clamp01(1.0F - (remainingSeconds / (float) baseline));
     }
 
-    private static OptionalDouble parseExplicitProgressHint(
-            String rawValue, OptionalLong remaining) {
-        if (rawValue == null || rawValue.isBlank()) {
-            return OptionalDouble.empty();
-        }
-
-        Matcher ratioMatcher = PROGRESS_RATIO_HINT_PATTERN.matcher(rawValue);
-        if (ratioMatcher.find()) {
-            try {
-                double numerator = Double.parseDouble(ratioMatcher.group(1));
-                double denominator = Double.parseDouble(ratioMatcher.group(2));
-                if (denominator > 0.0D) {
-                    return OptionalDouble.of(clamp01((float) (numerator / denominator)));
-                }
-            } catch (NumberFormatException ignored) {
-                // fall through to other hint types
-            }
-        }
-
-        Matcher percentMatcher = PROGRESS_PERCENT_HINT_PATTERN.matcher(rawValue);
-        if (percentMatcher.find()) {
-            try {
-                double rawPercent = Double.parseDouble(percentMatcher.group(1));
-                String matchedToken = percentMatcher.group(0);
-                boolean markedAsPercent = matchedToken != null && matchedToken.contains("%");
-                double normalized =
-                        (markedAsPercent || rawPercent > 1.0D) ? (rawPercent / 100.0D) : rawPercent;
-                return OptionalDouble.of(clamp01((float) normalized));
-            } catch (NumberFormatException ignored) {
-                // fall through to duration hints
-            }
-        }
-
-        OptionalLong totalSeconds =
-                parseProgressDurationHint(rawValue, PROGRESS_TOTAL_HINT_PATTERN);
-        if (totalSeconds.isPresent() && totalSeconds.orElse(0L) > 0L) {
-            OptionalLong elapsedSeconds =
-                    parseProgressDurationHint(rawValue, PROGRESS_ELAPSED_HINT_PATTERN);
-            if (elapsedSeconds.isPresent()) {
-                return OptionalDouble.of(
-                        clamp01(
-                                (float)
-                                        (elapsedSeconds.orElse(0L)
-                                                / (double) totalSeconds.orElse(1L))));
-            }
-            if (remaining.isPresent()) {
-                double ratio = 1.0D - (remaining.orElse(0L) / (double) totalSeconds.orElse(1L));
-                return OptionalDouble.of(clamp01((float) ratio));
-            }
-        }
-
-        return OptionalDouble.empty();
-    }
-
-    private static OptionalLong parseProgressDurationHint(String rawValue, Pattern hintPattern) {
-        Matcher matcher = hintPattern.matcher(rawValue);
-        if (!matcher.find()) {
-            return OptionalLong.empty();
-        }
-        return HudWidgetCatalog.parseDurationSeconds(matcher.group(1));
-    }
-
-    private static String normalizeEventProgressKey(String value) {
-        if (value == null || value.isBlank()) {
-            return "";
-        }
-        return value.trim().toLowerCase(java.util.Locale.ROOT);
-    }
-
-    private static String normalizeCooldownProgressKey(String label) {
-        if (label == null || label.isBlank()) {
-            return "";
-        }
-        return compactCooldownLabel(label).trim().toLowerCase(java.util.Locale.ROOT);
-    }
-
     private static int eventAccentColor(String eventKey, int defaultAccent) {
         return switch (eventKey) {
             case CompanionConfig.HUD_EVENT_METEORITE -> 0xFFF4AB56;
@@ -2950,105 +3070,52 @@ public final class CompanionClientRuntime {
         };
     }
 
-    private static Item eventIcon(String eventKey) {
-        return switch (eventKey) {
-            case CompanionConfig.HUD_EVENT_METEORITE -> Items.MAGMA_BLOCK;
-            case CompanionConfig.HUD_EVENT_METEOR -> Items.FIRE_CHARGE;
-            case CompanionConfig.HUD_EVENT_ALTAR_SPAWN -> Items.ENCHANTING_TABLE;
-            case CompanionConfig.HUD_EVENT_KOTH -> Items.NETHER_STAR;
-            case CompanionConfig.HUD_EVENT_CREDIT_SHOP_RESET -> Items.EMERALD;
-            case CompanionConfig.HUD_EVENT_JACKPOT -> Items.GOLD_INGOT;
-            case CompanionConfig.HUD_EVENT_FLASH_SALE -> Items.PAPER;
-            case CompanionConfig.HUD_EVENT_MERCHANT -> Items.VILLAGER_SPAWN_EGG;
-            case CompanionConfig.HUD_EVENT_NEXT_REBOOT -> Items.REDSTONE;
-            case CompanionConfig.HUD_EVENT_NEXT_LEVEL_CAP_UNLOCK -> Items.EXPERIENCE_BOTTLE;
-            default -> Items.CLOCK;
+    private static ItemStack rowIconStack(HudWidgetCatalog.RowIcon icon) {
+        return RowIconStacks.STACKS[icon.ordinal()];
+    }
+
+    private static Item rowIconItem(HudWidgetCatalog.RowIcon icon) {
+        return switch (icon) {
+            case CLOCK -> Items.CLOCK;
+            case BEACON -> Items.BEACON;
+            case CHEST -> Items.CHEST;
+            case NETHERITE_CHESTPLATE -> Items.NETHERITE_CHESTPLATE;
+            case IRON_SWORD -> Items.IRON_SWORD;
+            case SHIELD -> Items.SHIELD;
+            case COMPASS -> Items.COMPASS;
+            case ENDER_CHEST -> Items.ENDER_CHEST;
+            case EMERALD -> Items.EMERALD;
+            case AMETHYST_SHARD -> Items.AMETHYST_SHARD;
+            case MAGMA_BLOCK -> Items.MAGMA_BLOCK;
+            case FIRE_CHARGE -> Items.FIRE_CHARGE;
+            case ENCHANTING_TABLE -> Items.ENCHANTING_TABLE;
+            case NETHER_STAR -> Items.NETHER_STAR;
+            case GOLD_INGOT -> Items.GOLD_INGOT;
+            case PAPER -> Items.PAPER;
+            case VILLAGER_SPAWN_EGG -> Items.VILLAGER_SPAWN_EGG;
+            case REDSTONE -> Items.REDSTONE;
+            case EXPERIENCE_BOTTLE -> Items.EXPERIENCE_BOTTLE;
+            case COAL -> Items.COAL;
+            case LAPIS_LAZULI -> Items.LAPIS_LAZULI;
+            case RAW_IRON -> Items.RAW_IRON;
+            case RAW_GOLD -> Items.RAW_GOLD;
+            case DIAMOND -> Items.DIAMOND;
+            case QUARTZ -> Items.QUARTZ;
+            case OBSIDIAN -> Items.OBSIDIAN;
+            case BUNDLE -> Items.BUNDLE;
         };
     }
 
-    private static Item cooldownIcon(String label) {
-        String normalized = normalizeStatusToken(label);
-        if (normalized.contains("ping")) {
-            return Items.BEACON;
-        }
-        if (normalized.contains("rank kit") || normalized.contains("kit ")) {
-            return Items.CHEST;
-        }
-        if (normalized.contains("gkit") || normalized.contains("god kit")) {
-            return Items.NETHERITE_CHESTPLATE;
-        }
-        if (normalized.contains("gang")) {
-            return Items.IRON_SWORD;
-        }
-        if (normalized.contains("truce")) {
-            return Items.SHIELD;
-        }
-        if (normalized.contains("warp")
-                || normalized.contains("home")
-                || normalized.contains("tp")) {
-            return Items.COMPASS;
-        }
-        if (normalized.contains("pv") || normalized.contains("vault")) {
-            return Items.ENDER_CHEST;
-        }
-        if (normalized.contains("shop")) {
-            return Items.EMERALD;
-        }
-        if (normalized.contains("crystal")) {
-            return Items.AMETHYST_SHARD;
-        }
-        return Items.CLOCK;
-    }
-
-    private static Item satchelIcon(String label) {
-        String normalized = normalizeStatusToken(label);
-        if (normalized.contains("coal")) {
-            return Items.COAL;
-        }
-        if (normalized.contains("lapis")) {
-            return Items.LAPIS_LAZULI;
-        }
-        if (normalized.contains("redstone")) {
-            return Items.REDSTONE;
-        }
-        if (normalized.contains("iron")) {
-            return Items.RAW_IRON;
-        }
-        if (normalized.contains("gold")) {
-            return Items.RAW_GOLD;
-        }
-        if (normalized.contains("diamond")) {
-            return Items.DIAMOND;
-        }
-        if (normalized.contains("emerald")) {
-            return Items.EMERALD;
-        }
-        if (normalized.contains("quartz")) {
-            return Items.QUARTZ;
-        }
-        if (normalized.contains("obsidian")) {
-            return Items.OBSIDIAN;
-        }
-        if (normalized.contains("amethyst")) {
-            return Items.AMETHYST_SHARD;
-        }
-        return Items.BUNDLE;
-    }
-
     private static int centeredItemTop(int rowY, int rowHeight) {
         return rowY + Math.max(0, (rowHeight - 16) / 2) + 1;
     }
 
-    private static GangLayout buildGangLayout(List<String> lines) {
+    private static GangLayout buildGangLayout(List<HudWidgetCatalog.WidgetLine> lines) {
         List<GangPrimaryLine> primary = new ArrayList<>();
         List<String> metadata = new ArrayList<>();
         List<String> cleaned = new ArrayList<>();
         for (int i = 1; i < lines.size(); i++) {
-            String line = lines.get(i);
-            if (line == null || line.isBlank()) {
-                continue;
-            }
-            cleaned.add(line.trim());
+            cleaned.add(lines.get(i).text());
         }
 
         int onlineIndex = -1;
@@ -3162,7 +3229,7 @@ public final class CompanionClientRuntime {
     }
 
     private static void renderGangPrimaryLine(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             GangPrimaryLine line,
             int rowY,
@@ -3180,14 +3247,14 @@ public final class CompanionClientRuntime {
             int headerColor = line.section() > 0 ? 0x1F4A33 : 0x2E3848;
             int headerText = line.section() > 0 ? 0xFFA7F1C2 : 0xFFC6D3E7;
             int textMaxWidth = Math.max(8, contentRight - textX - 1);
-            String display = textRenderer.trimToWidth(text, textMaxWidth);
-            drawContext.fill(
+            String display = trimText(textRenderer, text, textMaxWidth);
+            batch.fill(
                     contentLeft,
                     rowY + 1,
                     contentRight,
                     rowY + lineHeight - 2,
                     withAlpha(headerColor, 170));
-            drawContext.drawTextWithShadow(textRenderer, display, textX, textY, headerText);
+            batch.drawTextWithShadow(display, textX, textY, headerText);
             return;
         }
 
@@ -3201,12 +3268,11 @@ public final class CompanionClientRuntime {
 
         int contentMaxRight = contentRight - 1;
         if (!suffixText.isBlank()) {
-            String suffixDisplay = textRenderer.trimToWidth("(" + suffixText + ")", 48);
-            int suffixWidth = textRenderer.getWidth(suffixDisplay);
+            String suffixDisplay = trimText(textRenderer, "(" + suffixText + ")", 48);
+            int suffixWidth = textWidth(textRenderer, suffixDisplay);
             if (suffixWidth + 24 <= (contentRight - textX)) {
                 int suffixX = contentRight - suffixWidth;
-                drawContext.drawTextWithShadow(
-                        textRenderer, suffixDisplay, suffixX, textY, 0xFFA6B8CF);
+                batch.drawTextWithShadow(suffixDisplay, suffixX, textY, 0xFFA6B8CF);
                 contentMaxRight = suffixX - 3;
             }
         }
@@ -3216,8 +3282,8 @@ public final class CompanionClientRuntime {
                 line.section() > 0 ? 0xFFDDF8E7 : line.section() < 0 ? 0xFFBCC8D8 : 0xFFE4ECF8;
         Matcher memberMatcher = GANG_MEMBER_LINE_PATTERN.matcher(mainText);
         if (!memberMatcher.matches()) {
-            String display = textRenderer.trimToWidth(mainText, textMaxWidth);
-            drawContext.drawTextWithShadow(textRenderer, display, textX, textY, textColor);
+            String display = trimText(textRenderer, mainText, textMaxWidth);
+            batch.drawTextWithShadow(display, textX, textY, textColor);
             return;
         }
 
@@ -3226,32 +3292,28 @@ public final class CompanionClientRuntime {
         String nameToken = memberMatcher.group(3) == null ? "" : memberMatcher.group(3).trim();
         int drawX = textX;
 
-        String rankDisplay = textRenderer.trimToWidth(rankToken, Math.max(8, textMaxWidth));
-        drawContext.drawTextWithShadow(
-                textRenderer,
-                rankDisplay,
-                drawX,
-                textY,
-                line.section() > 0 ? 0xFF9DE9C0 : 0xFF9FB5D0);
-        drawX += textRenderer.getWidth(rankDisplay) + 2;
+        String rankDisplay = trimText(textRenderer, rankToken, Math.max(8, textMaxWidth));
+        batch.drawTextWithShadow(
+                rankDisplay, drawX, textY, line.section() > 0 ? 0xFF9DE9C0 : 0xFF9FB5D0);
+        drawX += textWidth(textRenderer, rankDisplay) + 2;
 
         if (gangTagToken != null && !gangTagToken.isBlank() && drawX < contentMaxRight - 6) {
             int tagWidth =
-                    Math.min(textRenderer.getWidth(gangTagToken), contentMaxRight - drawX - 4);
+                    Math.min(textWidth(textRenderer, gangTagToken), contentMaxRight - drawX - 4);
             if (tagWidth > 0) {
-                String tagDisplay = textRenderer.trimToWidth(gangTagToken, tagWidth);
-                drawContext.drawTextWithShadow(textRenderer, tagDisplay, drawX, textY, 0xFF7FCBFF);
-                drawX += textRenderer.getWidth(tagDisplay) + 2;
+                String tagDisplay = trimText(textRenderer, gangTagToken, tagWidth);
+                batch.drawTextWithShadow(tagDisplay, drawX, textY, 0xFF7FCBFF);
+                drawX += textWidth(textRenderer, tagDisplay) + 2;
             }
         }
 
         int nameWidth = Math.max(8, contentMaxRight - drawX);
-        String nameDisplay = textRenderer.trimToWidth(nameToken, nameWidth);
-        drawContext.drawTextWithShadow(textRenderer, nameDisplay, drawX, textY, textColor);
+        String nameDisplay = trimText(textRenderer, nameToken, nameWidth);
+        batch.drawTextWithShadow(nameDisplay, drawX, textY, textColor);
     }
 
     private static void renderGangMetadataLine(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             String rawText,
             int rowY,
@@ -3263,7 +3325,7 @@ public final class CompanionClientRuntime {
         }
 
         if (renderGangPointsBankLine(
-                drawContext, textRenderer, rawText, rowY, rowHeight, contentLeft, contentRight)) {
+                batch, textRenderer, rawText, rowY, rowHeight, contentLeft, contentRight)) {
             return;
         }
 
@@ -3276,18 +3338,11 @@ public final class CompanionClientRuntime {
         }
 
         drawScaledGangMetadataLine(
-                drawContext,
-                textRenderer,
-                rawText,
-                rowY,
-                rowHeight,
-                contentLeft,
-                contentRight,
-                color);
+                batch, textRenderer, rawText, rowY, rowHeight, contentLeft, contentRight, color);
     }
 
     private static boolean renderGangPointsBankLine(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             String rawText,
             int rowY,
@@ -3330,31 +3385,29 @@ public final class CompanionClientRuntime {
         int rowTop = rowY + 1;
         int rowBottom = rowY + rowHeight - 1;
 
-        drawContext.fill(
+        batch.fill(
                 leftSegmentX,
                 rowTop,
                 leftSegmentX + segmentWidth,
                 rowBottom,
                 withAlpha(0x35522F, 150));
-        drawContext.fill(
+        batch.fill(
                 rightSegmentX,
                 rowTop,
                 rightSegmentX + segmentWidth,
                 rowBottom,
                 withAlpha(0x584732, 150));
 
-        drawMiniItem(drawContext, Items.NETHER_STAR, leftSegmentX + 2, rowY + 2);
-        drawMiniItem(drawContext, Items.GOLD_INGOT, rightSegmentX + 2, rowY + 2);
+        drawMiniItem(batch, Items.NETHER_STAR, leftSegmentX + 2, rowY + 2);
+        drawMiniItem(batch, Items.GOLD_INGOT, rightSegmentX + 2, rowY + 2);
 
         String formattedPoints = formatGangMetricValue(pointsValue, false);
         String formattedBank = formatGangMetricValue(bankValue, true);
-        String leftText = textRenderer.trimToWidth(formattedPoints, Math.max(8, segmentWidth - 16));
+        String leftText = trimText(textRenderer, formattedPoints, Math.max(8, segmentWidth - 16));
         String rightText =
-                textRenderer.trimToWidth("Bank " + formattedBank, Math.max(8, segmentWidth - 16));
-        drawContext.drawTextWithShadow(
-                textRenderer, leftText, leftSegmentX + 14, rowY + 2, 0xFFD6F4C8);
-        drawContext.drawTextWithShadow(
-                textRenderer, rightText, rightSegmentX + 14, rowY + 2, 0xFFF7D8A8);
+                trimText(textRenderer, "Bank " + formattedBank, Math.max(8, segmentWidth - 16));
+        batch.drawTextWithShadow(leftText, leftSegmentX + 14, rowY + 2, 0xFFD6F4C8);
+        batch.drawTextWithShadow(rightText, rightSegmentX + 14, rowY + 2, 0xFFF7D8A8);
         return true;
     }
 
@@ -3375,7 +3428,7 @@ public final class CompanionClientRuntime {
 
         boolean hasDollarPrefix = cleaned.startsWith("$");
         String numericCandidate = hasDollarPrefix ? cleaned.substring(1).trim() : cleaned;
-        OptionalDouble parsedValue = parseLeaderboardValue(numericCandidate, true);
+        OptionalDouble parsedValue = HudWidgetCatalog.parseLeaderboardValue(numericCandidate, true);
         if (parsedValue.isEmpty()) {
             return rawValue.trim();
         }
@@ -3391,19 +3444,15 @@ public final class CompanionClientRuntime {
         return grouped;
     }
 
-    private static void drawMiniItem(DrawContext drawContext, Item item, int x, int y) {
+    private static void drawMiniItem(HudPanelBatch batch, Item item, int x, int y) {
         if (item == null) {
             return;
         }
-        drawContext.getMatrices().pushMatrix();
-        drawContext.getMatrices().translate(x, y);
-        drawContext.getMatrices().scale(0.5F, 0.5F);
-        drawContext.drawItem(item.getDefaultStack(), 0, 0);
-        drawContext.getMatrices().popMatrix();
+        batch.drawItem(item.getDefaultStack(), x, y, 0.5F);
     }
 
     private static void drawScaledGangMetadataLine(
-            DrawContext drawContext,
+            HudPanelBatch batch,
             TextRenderer textRenderer,
             String rawText,
             int rowY,
@@ -3418,88 +3467,14 @@ public final class CompanionClientRuntime {
         float scale = 0.82F;
         int availableWidth = Math.max(8, contentRight - contentLeft - 1);
         String display =
-                textRenderer.trimToWidth(
-                        rawText.trim(), Math.max(8, Math.round(availableWidth / scale)));
+                trimText(
+                        textRenderer,
+                        rawText.trim(),
+                        Math.max(8, Math.round(availableWidth / scale)));
         int scaledTextHeight = Math.max(1, Math.round(textRenderer.fontHeight * scale));
         int textY = rowY + Math.max(0, (rowHeight - scaledTextHeight) / 2);
 
-        drawContext.getMatrices().pushMatrix();
-        drawContext.getMatrices().translate(contentLeft, textY);
-        drawContext.getMatrices().scale(scale, scale);
-        drawContext.drawTextWithShadow(textRenderer, display, 0, 0, color);
-        drawContext.getMatrices().popMatrix();
-    }
-
-    private static LeaderboardEntry parseLeaderboardEntry(String line) {
-        if (line == null || line.isBlank()) {
-            return null;
-        }
-
-        Matcher matcher = LEADERBOARD_ENTRY_PATTERN.matcher(line.trim());
-        if (!matcher.matches()) {
-            return null;
-        }
-
-        int rank;
-        try {
-            rank = Integer.parseInt(matcher.group(1));
-        } catch (NumberFormatException ignored) {
-            return null;
-        }
-
-        return new LeaderboardEntry(rank, matcher.group(2).trim(), matcher.group(3).trim());
-    }
-
-    private static OptionalDouble parseLeaderboardValue(
-            String valueText, boolean allowBillionSuffix) {
-        if (valueText == null || valueText.isBlank()) {
-            return OptionalDouble.empty();
-        }
-
-        String normalized = valueText.replace(",", "").trim();
-        Matcher matcher = LEADERBOARD_VALUE_PATTERN.matcher(normalized);
-        if (!matcher.find()) {
-            return OptionalDouble.empty();
-        }
-
-        double numeric;
-        try {
-            numeric = Double.parseDouble(matcher.group(1));
-        } catch (NumberFormatException ignored) {
-            return OptionalDouble.empty();
-        }
-
-        double multiplier = 1.0D;
-        String suffixText = matcher.group(2);
-        if (suffixText != null && !suffixText.isBlank()) {
-            char suffix = Character.toLowerCase(suffixText.charAt(0));
-            multiplier =
-                    switch (suffix) {
-                        case 'k' -> 1_000.0D;
-                        case 'm' -> 1_000_000.0D;
-                        case 'b' -> allowBillionSuffix ? 1_000_000_000.0D : 1.0D;
-                        case 't' -> 1_000_000_000_000.0D;
-                        default -> 1.0D;
-                    };
-        }
-
-        double value = Math.max(0.0D, numeric * multiplier);
-        return OptionalDouble.of(value);
-    }
-
-    private static boolean isBlocksLeaderboardPanel(HudWidgetPanel panel) {
-        if (panel == null) {
-            return false;
-        }
-        if (CompanionConfig.HUD_WIDGET_LEADERBOARD_BLOCKS_ID.equals(panel.widgetId())) {
-            return true;
-        }
-        if (!CompanionConfig.HUD_WIDGET_LEADERBOARD_CYCLE_ID.equals(panel.widgetId())) {
-            return false;
-        }
-        String titleKey = panel.titleTranslationKey();
-        return titleKey != null
-                && titleKey.contains(CompanionConfig.HUD_WIDGET_LEADERBOARD_BLOCKS_ID);
+        batch.drawTextWithShadow(display, contentLeft, textY, color, scale);
     }
 
     private static boolean isLocalPlayerEntry(String entryName) {
@@ -3570,28 +3545,6 @@ public final class CompanionClientRuntime {
         return "TOP";
     }
 
-    private static String compactEventLabel(String label) {
-        String normalized = normalizeStatusToken(label);
-        return switch (normalized) {
-            case "next level cap day unlock" -> "Lvl Cap Unlock";
-            case "credit shop reset" -> "Credit Reset";
-            case "altar spawn" -> "Altar";
-            case "next reboot" -> "Reboot";
-            default -> label;
-        };
-    }
-
-    private static String compactEventTag(String label) {
-        if (label == null || label.isBlank()) {
-            return "EVT";
-        }
-        String normalized = label.trim().replaceAll("[^A-Za-z0-9]", "");
-        if (normalized.length() >= 3) {
-            return normalized.substring(0, 3).toUpperCase(java.util.Locale.ROOT);
-        }
-        return normalized.toUpperCase(java.util.Locale.ROOT);
-    }
-
     private static String compactSatchelTag(String label) {
         if (label == null || label.isBlank()) {
             return "SAT";
@@ -3603,36 +3556,6 @@ public final class CompanionClientRuntime {
         return normalized.toUpperCase(java.util.Locale.ROOT);
     }
 
-    private static String compactCooldownLabel(String label) {
-        if (label == null || label.isBlank()) {
-            return "Cooldown";
-        }
-        String trimmed = label.trim();
-        String normalized = normalizeStatusToken(trimmed);
-        if (normalized.contains("ping")) {
-            return "Ping";
-        }
-        if (normalized.startsWith("rank kit ")) {
-            return "Kit " + trimmed.substring("Rank Kit ".length());
-        }
-        if (normalized.startsWith("cooldown ")) {
-            trimmed = trimmed.substring("Cooldown ".length()).trim();
-            normalized = normalizeStatusToken(trimmed);
-        }
-        if (normalized.startsWith("perk ")) {
-            while (normalized.startsWith("perk ")) {
-                normalized = normalized.substring("perk ".length()).trim();
-            }
-            if (!normalized.isBlank()) {
-                String command = normalized.split("\\s+")[0];
-                if (!command.isBlank()) {
-                    return "/" + command.toLowerCase(java.util.Locale.ROOT);
-                }
-            }
-        }
-        return trimmed;
-    }
-
     private static String compactSatchelValue(String value) {
         String trimmed = value == null ? "" : value.trim();
         if (trimmed.isEmpty()) {
@@ -3641,78 +3564,34 @@ public final class CompanionClientRuntime {
         return trimmed;
     }
 
-    private static String compactStatusText(String statusText, boolean cooldownMode) {
-        String trimmed = primaryStatusSegment(statusText);
-        if (trimmed.isEmpty()) {
-            return "--";
-        }
-
-        String normalized = normalizeStatusToken(trimmed);
-        if (normalized.startsWith("check in ")) {
-            return trimmed.substring(9).trim();
-        }
-        if ("unavailable".equals(normalized)) {
-            return cooldownMode ? "--" : "N/A";
-        }
-        if ("not scheduled".equals(normalized)) {
-            return "Not Scheduled";
-        }
-        if ("max day".equals(normalized)) {
-            return "MAX";
-        }
-        if ("now".equals(normalized)) {
-            return "LIVE";
-        }
-        return trimmed;
+    /**
+     * Shows the server's text until a pure countdown has ticked to a different value, then the
+     * ticked value in the server's units.
+     */
+    private static String statusDisplayText(HudWidgetCatalog.WidgetLine row, long now) {
+        String ticked = row.tickedCountdownText(now);
+        return ticked != null ? ticked : row.statusText();
     }
 
-    private static float parseSatchelProgress(String valueText) {
-        if (valueText == null || valueText.isBlank()) {
-            return 0.0F;
-        }
-
-        String trimmed = valueText.trim();
-        int split = trimmed.indexOf(' ');
-        String ratio = split > 0 ? trimmed.substring(0, split) : trimmed;
-        int slashIndex = ratio.indexOf('/');
-        if (slashIndex <= 0 || slashIndex >= ratio.length() - 1) {
-            return 0.0F;
-        }
-
-        long stored = parseCompactAmount(ratio.substring(0, slashIndex));
-        long capacity = parseCompactAmount(ratio.substring(slashIndex + 1));
-        if (stored < 0L || capacity <= 0L) {
-            return 0.0F;
-        }
-
-        return clamp01((float) stored / (float) capacity);
+    private static int textWidth(TextRenderer textRenderer, String text) {
+        return HUD_TEXT_METRICS.getWidth(textRenderer, text);
     }
 
-    private static boolean isSatchelFull(String valueText, float progress) {
-        if (progress >= 0.999F) {
-            return true;
-        }
-
-        if (valueText == null || valueText.isBlank()) {
-            return false;
-        }
+    private static int textWidth(TextRenderer textRenderer, String prefix, String text) {
+        return HUD_TEXT_METRICS.getWidth(textRenderer, prefix, text);
+    }
 
-        String normalized = normalizeStatusToken(valueText);
-        if (normalized.contains("full") || normalized.contains("max")) {
-            return true;
-        }
+    private static int rankWidth(TextRenderer textRenderer, int rank) {
+        return HUD_TEXT_METRICS.getRankWidth(textRenderer, rank);
+    }
 
-        String trimmed = valueText.trim();
-        int split = trimmed.indexOf(' ');
-        String ratio = split > 0 ? trimmed.substring(0, split) : trimmed;
-        int slashIndex = ratio.indexOf('/');
-        if (slashIndex <= 0 || slashIndex >= ratio.length() - 1) {
-            return false;
-        }
+    private static int textWidth(
+            TextRenderer textRenderer, String prefix, String text, String suffix) {
+        return HUD_TEXT_METRICS.getWidth(textRenderer, prefix, text, suffix);
+    }
 
-        long stored = parseCompactAmount(ratio.substring(0, slashIndex));
-        long capacity = parseCompactAmount(ratio.substring(slashIndex + 1));
-        return stored >= 0L && capacity > 0L && stored >= capacity;
+    private static String trimText(TextRenderer textRenderer, String text, int maxWidth) {
+        return HUD_TEXT_METRICS.trimToWidth(textRenderer, text, maxWidth);
     }
 
     private static int satchelFullPulseAlpha() {
@@ -3722,41 +3601,6 @@ public final class CompanionClientRuntime {
         return 96 + (int) Math.round(wave * 90.0D);
     }
 
-    private static long parseCompactAmount(String value) {
-        if (value == null || value.isBlank()) {
-            return -1L;
-        }
-
-        String trimmed = value.trim().toUpperCase(java.util.Locale.ROOT).replace(",", "");
-        if (trimmed.isEmpty()) {
-            return -1L;
-        }
-
-        long multiplier = 1L;
-        char suffix = trimmed.charAt(trimmed.length() - 1);
-        if (suffix == 'K' || suffix == 'M' || suffix == 'B' || suffix == 'T') {
-            trimmed = trimmed.substring(0, trimmed.length() - 1);
-            multiplier =
-                    switch (suffix) {
-                        case 'K' -> 1_000L;
-                        case 'M' -> 1_000_000L;
-                        case 'B' -> 1_000_000_000L;
-                        case 'T' -> 1_000_000_000_000L;
-                        default -> 1L;
-                    };
-        }
-
-        try {
-            double parsed = Double.parseDouble(trimmed);
-            if (parsed < 0.0D) {
-                return -1L;
-            }
-            return Math.round(parsed * multiplier);
-        } catch (NumberFormatException ignored) {
-            return -1L;
-        }
-    }
-
     private static String normalizeStatusToken(String value) {
         if (value == null) {
             return "";
@@ -3764,22 +3608,6 @@ public final class CompanionClientRuntime {
         return value.trim().toLowerCase(java.util.Locale.ROOT);
     }
 
-    private static String primaryStatusSegment(String value) {
-        if (value == null || value.isBlank()) {
-            return "";
-        }
-        int metadataSeparator = value.indexOf('|');
-        String primary = metadataSeparator >= 0 ? value.substring(0, metadataSeparator) : value;
-        return primary.trim();
-    }
-
-    private static boolean isUnavailableStatus(String normalized) {
-        return "unavailable".equals(normalized)
-                || "not scheduled".equals(normalized)
-                || "max day".equals(normalized)
-                || "n/a".equals(normalized);
-    }
-
     private static float clamp01(float value) {
         return Math.max(0.0F, Math.min(1.0F, value));
     }
@@ -3861,7 +3689,7 @@ public final class CompanionClientRuntime {
                 client.world, truceVisualIds, ParticleTypes.FLAME, ParticleTypes.SMALL_FLAME);
     }
 
-    private synchronized void onWorldRenderEndMain(WorldRenderContext context) {
+    private void onWorldRenderEndMain(WorldRenderContext context) {
         renderPingBeaconBeams(MinecraftClient.getInstance(), context);
     }
 
@@ -4276,8 +4104,10 @@ public final class CompanionClientRuntime {
             return false;
         }
 
-        byte[] bytes = protocolCodec.encode(message);
-        ClientPlayNetworking.send(new CompanionRawPayload(bytes));
+        c2sFrameWriter.reset();
+        protocolCodec.encode(message, c2sFrameWriter);
+        ClientPlayNetworking.send(
+                CompanionRawPayload.copyOf(c2sFrameWriter.buffer(), c2sFrameWriter.size()));
         return true;
     }
 
@@ -4357,6 +4187,39 @@ public final class CompanionClientRuntime {
         return normalized;
     }
 
+    private void logHudRenderMetrics() {
+        if (LOGGER.isDebugEnabled() && hudRenderFrames > 0L) {
+            LOGGER.debug(
+                    "Companion HUD: frames={}, avgMicros={}, maxMicros={}, avgDrawCalls={},"
+                            + " textCacheHits={}, textCacheMisses={}",
+                    hudRenderFrames,
+                    (hudRenderNanos / hudRenderFrames) / 1_000L,
+                    maxHudRenderNanos / 1_000L,
+                    hudRenderDrawCalls / hudRenderFrames,
+                    HUD_TEXT_METRICS.hits(),
+                    HUD_TEXT_METRICS.misses());
+        }
+
+        HUD_TEXT_METRICS.resetCounters();
+        hudRenderFrames = 0L;
+        hudRenderNanos = 0L;
+        maxHudRenderNanos = 0L;
+        hudRenderDrawCalls = 0L;
+    }
+
+    private void logPayloadDecodeMetrics() {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug(
+                    "Companion decode: peakQueueDepth={}, coalesced={}, malformed={}, stats={}",
+                    payloadDecodePipeline.peakQueueDepth(),
+                    payloadDecodePipeline.coalescedFrames(),
+                    payloadDecodePipeline.malformedFrames(),
+                    payloadDecodePipeline.decodeStats());
+        }
+
+        payloadDecodePipeline.resetMetrics();
+    }
+
     private synchronized void logMalformedOncePerConnection(BinaryDecodingException ex) {
         CompanionConfig currentConfig = getConfig();
 
@@ -4372,7 +4235,7 @@ public final class CompanionClientRuntime {
     }
 
     private synchronized void ensureFeatureDefaultsPersisted() {
-        CompanionConfig currentConfig = getConfig();
+        CompanionConfig currentConfig = getConfig().copy();
         boolean changed = false;
 
         for (ClientFeatureDefinition feature : ClientFeatures.all()) {
@@ -4383,11 +4246,16 @@ public final class CompanionClientRuntime {
         }
 
         if (changed) {
-            configManager.save(currentConfig);
-            config = currentConfig;
+            publishConfig(currentConfig);
         }
     }
 
+    private void publishConfig(CompanionConfig updatedConfig) {
+        configManager.save(updatedConfig);
+        config = updatedConfig;
+        configVersion++;
+    }
+
     private void initializePingKeybinds() {
         if (gangPingKeyBinding == null) {
             gangPingKeyBinding =
@@ -4565,44 +4433,32 @@ public final class CompanionClientRuntime {
             int slotX,
             int slotY,
             ConnectionSessionState.ItemOverlayEntry overlayEntry) {
-        if (overlayEntry.displayText() == null || overlayEntry.displayText().isEmpty()) {
-            return;
-        }
-
         TextRenderer textRenderer = MinecraftClient.getInstance().textRenderer;
 
         if (textRenderer == null) {
             return;
         }
 
-        String displayText = overlayEntry.displayText();
-        int textWidth = textRenderer.getWidth(displayText);
+        ItemOverlayLayout layout = layoutOverlayText(textRenderer, overlayEntry);
 
-        if (textWidth <= 0) {
-            return;
+        if (layout != null) {
+            layout.draw(drawContext, textRenderer, slotX, slotY);
         }
+    }
 
-        float baseScale = 0.68F;
-        float fittedScale = Math.min(baseScale, 15.0F / textWidth);
-        float textScale = Math.max(0.35F, fittedScale);
-        int scaledTextWidth = Math.max(1, Math.round(textWidth * textScale));
-        int scaledTextHeight = Math.max(1, Math.round(textRenderer.fontHeight * textScale));
-        int textX = Math.max(slotX + 1, slotX + 16 - scaledTextWidth - 1);
-        int textY = Math.max(slotY + 1, slotY + 16 - scaledTextHeight - 1);
-        int textColor = colorForOverlayType(overlayEntry.overlayType());
-        int backgroundColor = backgroundColorForOverlayType(overlayEntry.overlayType());
-        int backgroundLeft = Math.max(slotX, textX - 1);
-        int backgroundTop = Math.max(slotY, textY - 1);
-        int backgroundRight = Math.min(slotX + 16, textX + scaledTextWidth + 1);
-        int backgroundBottom = Math.min(slotY + 16, textY + scaledTextHeight + 1);
+    private static ItemOverlayLayout layoutOverlayText(
+            TextRenderer textRenderer, ConnectionSessionState.ItemOverlayEntry overlayEntry) {
+        return ITEM_OVERLAY_LAYOUTS.get(
+                textRenderer, overlayEntry, CompanionClientRuntime::createOverlayLayout);
+    }
 
-        drawContext.fill(
-                backgroundLeft, backgroundTop, backgroundRight, backgroundBottom, backgroundColor);
-        drawContext.getMatrices().pushMatrix();
-        drawContext.getMatrices().translate(textX, textY);
-        drawContext.getMatrices().scale(textScale, textScale);
-        drawContext.drawTextWithShadow(textRenderer, displayText, 0, 0, textColor);
-        drawContext.getMatrices().popMatrix();
+    private static ItemOverlayLayout createOverlayLayout(
+            TextRenderer textRenderer, ConnectionSessionState.ItemOverlayEntry overlayEntry) {
+        return ItemOverlayLayout.of(
+                textRenderer,
+                overlayEntry,
+                colorForOverlayType(overlayEntry.overlayType()),
+                backgroundColorForOverlayType(overlayEntry.overlayType()));
     }
 
     private static int colorForOverlayType(int overlayType) {
@@ -5034,9 +4890,8 @@ public final class CompanionClientRuntime {
     private record GangPrimaryLine(String text, int section, boolean header) {}
 
     private record LeaderboardCandidate(
-            HudWidgetCatalog.WidgetDescriptor descriptor, List<String> lines) {}
-
-    private record LeaderboardEntry(int rank, String name, String value) {}
+            HudWidgetCatalog.WidgetDescriptor descriptor,
+            List<HudWidgetCatalog.WidgetLine> lines) {}
 
     /** Immutable geometry snapshot for a renderable HUD widget panel. */
     public record HudWidgetPanel(
@@ -5050,7 +4905,7 @@ public final class CompanionClientRuntime {
             int lineHeight,
             float scale,
             boolean compactMode,
-            List<String> lines) {
+            List<HudWidgetCatalog.WidgetLine> lines) {
         public HudWidgetPanel {
             scale =
                     (float)
@@ -5070,6 +4925,81 @@ public final class CompanionClientRuntime {
         }
     }
 
-    private record KnownOverlayStack(
-            ItemStack stack, ConnectionSessionState.ItemOverlayEntry overlayEntry) {}
+    /** Every input of a HUD layout that is not time dependent. */
+    private record HudPanelLayoutKey(
+            long hudWidgetsVersion,
+            long configVersion,
+            long renderEpoch,
+            boolean gateEnabled,
+            boolean hudWidgetsSupported,
+            int serverFeatureFlags,
+            int screenWidth,
+            int screenHeight,
+            TextRenderer textRenderer,
+            Map<String, CompanionConfig.HudWidgetPosition> positionOverrides,
+            Map<String, Double> scaleOverrides,
+            Map<String, Double> widthMultiplierOverrides) {
+        // Editor screens mutate their override maps between frames, so stored keys own a copy.
+        private HudPanelLayoutKey withCopiedOverrides() {
+            Map<String, CompanionConfig.HudWidgetPosition> copiedPositions = new HashMap<>();
+            for (Map.Entry<String, CompanionConfig.HudWidgetPosition> entry :
+                    positionOverrides.entrySet()) {
+                CompanionConfig.HudWidgetPosition position = entry.getValue();
+                copiedPositions.put(
+                        entry.getKey(),
+                        position == null
+                                ? null
+                                : new CompanionConfig.HudWidgetPosition(position.x, position.y));
+            }
+
+            return new HudPanelLayoutKey(
+                    hudWidgetsVersion,
+                    configVersion,
+                    renderEpoch,
+                    gateEnabled,
+                    hudWidgetsSupported,
+                    serverFeatureFlags,
+                    screenWidth,
+                    screenHeight,
+                    textRenderer,
+                    copiedPositions,
+                    new HashMap<>(scaleOverrides),
+                    new HashMap<>(widthMultiplierOverrides));
+        }
+    }
+
+    /** Last computed HUD layout, reused until its key changes or its time inputs roll over. */
+    private static final class HudPanelLayoutCache {
+        private HudPanelLayoutKey key;
+        private List<HudWidgetPanel> panels = List.of();
+        private long validUntilMillis;
+
+        private boolean matches(HudPanelLayoutKey candidate, long now) {
+            return now < validUntilMillis && candidate.equals(key);
+        }
+
+        private void store(
+                HudPanelLayoutKey key, List<HudWidgetPanel> panels, long validUntilMillis) {
+            this.key = key;
+            this.panels = panels;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+
+    /** Recorded chrome of a panel, plus its rows when they only change with the layout. */
+    private record HudPanelLayers(HudPanelBatch.Layer chrome, HudPanelBatch.Layer rows) {}
+
+    /** One shared stack per row icon, created on first draw once items are registered. */
+    private static final class RowIconStacks {
+        private static final ItemStack[] STACKS = createStacks();
+
+        private static ItemStack[] createStacks() {
+            HudWidgetCatalog.RowIcon[] icons = HudWidgetCatalog.RowIcon.values();
+            ItemStack[] stacks = new ItemStack[icons.length];
+            for (HudWidgetCatalog.RowIcon icon : icons) {
+                stacks[icon.ordinal()] = rowIconItem(icon).getDefaultStack();
+            }
+            return stacks;
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package me.landon.client.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+import me.landon.companion.config.CompanionConfig;
+import me.landon.companion.protocol.BinaryDecodingException;
+import me.landon.companion.protocol.ProtocolCodec;
+import me.landon.companion.protocol.ProtocolMessage;
+import me.landon.companion.protocol.ProtocolStringTable;
+import me.landon.companion.session.ConnectionGateState;
+
+/**
+ * Decode-thread side of a companion connection: resolves string references and applies string
+ * table frames in arrival order.
+ *
+ * <p>The client thread gates messages only after they are decoded, which is too late for table
+ * definitions that later frames are decoded against. This decoder keeps its own {@link
+ * ConnectionGateState}, fed the same server hellos in the same order, and applies a table frame
+ * only once that gate is open. Resets run through {@link PayloadDecodePipeline#submitMarker} so
+ * they are ordered with the frames around them.
+ */
+final class CompanionFrameDecoder implements PayloadDecodePipeline.FrameDecoder {
+    private final ProtocolCodec protocolCodec;
+    private final ProtocolStringTable stringTable;
+    private final Supplier<CompanionConfig> configSupplier;
+    private final ConnectionGateState.SignatureCheck signatureCheck;
+    private final ConnectionGateState gateState = new ConnectionGateState();
+
+    CompanionFrameDecoder(
+            ProtocolCodec protocolCodec,
+            ProtocolStringTable stringTable,
+            Supplier<CompanionConfig> configSupplier,
+            ConnectionGateState.SignatureCheck signatureCheck) {
+        this.protocolCodec = protocolCodec;
+        this.stringTable = stringTable;
+        this.configSupplier = configSupplier;
+        this.signatureCheck = signatureCheck;
+    }
+
+    @Override
+    public ProtocolCodec.DecodedFrame decode(ByteBuffer payload) throws BinaryDecodingException {
+        ProtocolCodec.DecodedFrame frame = protocolCodec.decodeResolving(payload, stringTable);
+
+        switch (frame.message()) {
+            case ProtocolMessage.ServerHelloS2C serverHello ->
+                    gateState.tryEnable(
+                            frame.protocolVersion(),
+                            serverHello,
+                            configSupplier.get(),
+                            signatureCheck);
+            case ProtocolMessage.StringTableS2C stringTableFrame -> {
+                if (gateState.isEnabled()) {
+                    stringTable.apply(stringTableFrame);
+                }
+            }
+            default -> {}
+        }
+
+        return frame;
+    }
+
+    /** Closes the gate until the next accepted hello; the table stays for the same connection. */
+    void resetHandshake() {
+        gateState.reset();
+    }
+
+    /** Closes the gate and drops every definition, for a new or closed connection. */
+    void resetConnection() {
+        gateState.reset();
+        stringTable.clear();
+    }
+}
@@ -1,5 +1,6 @@
 package me.landon.client.runtime;
 
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.ints.IntSets;
@@ -11,6 +12,7 @@ import java.util.Locale;
 import java.util.Map;
 import me.landon.companion.protocol.ProtocolConstants;
 import me.landon.companion.protocol.ProtocolMessage;
+import me.landon.companion.protocol.ProtocolStringTable;
 import me.landon.companion.session.ConnectionGateState;
 
 /**
@@ -20,23 +22,86 @@ import me.landon.companion.session.ConnectionGateState;
  * item overlays, marker ids, and handshake tracking.
  */
 public final class ConnectionSessionState {
+    /** Number of player storage slots (hotbar 0-8, main inventory 9-35) that can carry overlays. */
+    public static final int INVENTORY_OVERLAY_SLOT_COUNT = 36;
+
     /** Lightweight overlay snapshot for a single inventory slot. */
     public record ItemOverlayEntry(int overlayType, String displayText) {}
 
-    /** Snapshot of one HUD widget payload as received from the server. */
-    public record HudWidgetEntry(List<String> lines, int ttlSeconds, long receivedAtEpochMillis) {
+    /**
+     * Snapshot of one HUD widget payload as received from the server.
+     *
+     * <p>{@code rows} holds the non-blank {@code lines} already parsed, so the HUD does not
+     * re-parse text each frame. Each row keeps the time it was received as the baseline for its
+     * locally ticking countdown.
+     */
+    public record HudWidgetEntry(
+            List<String> lines,
+            List<HudWidgetCatalog.WidgetLine> rows,
+            int ttlSeconds,
+            long receivedAtEpochMillis) {
         public HudWidgetEntry {
             lines = List.copyOf(lines);
+            rows = List.copyOf(rows);
+        }
+
+        static HudWidgetEntry parse(
+                String widgetId, List<String> lines, int ttlSeconds, long receivedAtEpochMillis) {
+            return new HudWidgetEntry(
+                    lines,
+                    HudWidgetCatalog.parseWidgetLines(widgetId, lines, receivedAtEpochMillis),
+                    ttlSeconds,
+                    receivedAtEpochMillis);
+        }
+
+        /**
+         * Applies patched {@code lines}, keeping rows whose text did not change so their countdown
+         * baseline is not reset to the patch time.
+         */
+        HudWidgetEntry patch(String widgetId, List<String> lines, long receivedAtEpochMillis) {
+            List<HudWidgetCatalog.WidgetLine> patchedRows = new ArrayList<>(lines.size());
+            int previousRow = 0;
+
+            for (int index = 0; index < lines.size(); index++) {
+                String previousLine = index < this.lines.size() ? this.lines.get(index) : null;
+                HudWidgetCatalog.WidgetLine previous = null;
+                if (previousLine != null && !previousLine.isBlank()) {
+                    previous = rows.get(previousRow++);
+                }
+
+                String line = lines.get(index);
+                if (line == null || line.isBlank()) {
+                    continue;
+                }
+
+                patchedRows.add(
+                        line.equals(previousLine)
+                                ? previous
+                                : HudWidgetCatalog.parseWidgetLine(
+                                        widgetId, line, receivedAtEpochMillis));
+            }
+
+            return new HudWidgetEntry(lines, patchedRows, ttlSeconds, receivedAtEpochMillis);
         }
     }
 
     private final ConnectionGateState gateState = new ConnectionGateState();
-    private final Map<Integer, ItemOverlayEntry> inventoryItemOverlays = new LinkedHashMap<>();
+    private final ProtocolStringTable stringTable = new ProtocolStringTable();
     private final Map<String, HudWidgetEntry> hudWidgets = new LinkedHashMap<>();
     private final IntSet peacefulMiningPassThroughIds = new IntOpenHashSet();
     private final IntSet gangPingBeaconIds = new IntOpenHashSet();
     private final IntSet trucePingBeaconIds = new IntOpenHashSet();
 
+    // Immutable views republished after each mutation. Writers stay on the client thread; readers
+    // on any thread get the same instance until a payload changes the state again.
+    private volatile ItemOverlayEntry[] inventoryItemOverlays = NO_INVENTORY_ITEM_OVERLAYS;
+    private volatile Map<String, HudWidgetEntry> hudWidgetsSnapshot = Collections.emptyMap();
+    private volatile IntSet peacefulMiningPassThroughIdsSnapshot = IntSets.EMPTY_SET;
+    private volatile IntSet gangPingBeaconIdsSnapshot = IntSets.EMPTY_SET;
+    private volatile IntSet trucePingBeaconIdsSnapshot = IntSets.EMPTY_SET;
+    private volatile long inventoryItemOverlaysVersion;
+    private volatile long hudWidgetsVersion;
+
     private String serverId = "";
     private String serverPluginVersion = "";
     private int serverFeatureFlags;
@@ -51,6 +116,17 @@ public final class ConnectionSessionState {
         return gateState;
     }
 
+    /**
+     * Returns the string dictionary the server defined for this connection.
+     *
+     * <p>It is filled while frames are decoded, so it is safe to share with the decode thread.
+     * {@link #reset()} leaves it alone; the decode thread clears it in order with the frames that
+     * reference it.
+     */
+    public ProtocolStringTable stringTable() {
+        return stringTable;
+    }
+
     /** Clears all handshake/session fields and payload snapshots for a new connection. */
     public void reset() {
         gateState.reset();
@@ -109,7 +185,8 @@ public final class ConnectionSessionState {
      * <p>Invalid slots are ignored.
      */
     public void replaceInventoryItemOverlays(List<ProtocolMessage.InventoryItemOverlay> overlays) {
-        inventoryItemOverlays.clear();
+        ItemOverlayEntry[] replacement = new ItemOverlayEntry[INVENTORY_OVERLAY_SLOT_COUNT];
+        boolean empty = true;
 
         for (ProtocolMessage.InventoryItemOverlay overlay : overlays) {
             int normalizedSlot = normalizePlayerStorageSlot(overlay.slot());
@@ -119,14 +196,25 @@ public final class ConnectionSessionState {
                 continue;
             }
 
-            inventoryItemOverlays.put(
-                    normalizedSlot,
-                    new ItemOverlayEntry(overlay.overlayType(), overlay.displayText()));
+            replacement[normalizedSlot] =
+                    new ItemOverlayEntry(overlay.overlayType(), overlay.displayText());
+            empty = false;
         }
+
+        publishInventoryItemOverlays(empty ? NO_INVENTORY_ITEM_OVERLAYS : replacement);
     }
 
     public void clearInventoryItemOverlays() {
-        inventoryItemOverlays.clear();
+        if (!hasInventoryItemOverlays()) {
+            return;
+        }
+
+        publishInventoryItemOverlays(NO_INVENTORY_ITEM_OVERLAYS);
+    }
+
+    /** Returns a generation counter that changes whenever the overlay table is replaced. */
+    public long inventoryItemOverlaysVersion() {
+        return inventoryItemOverlaysVersion;
     }
 
     /**
@@ -139,30 +227,99 @@ public final class ConnectionSessionState {
         long receivedAt = System.currentTimeMillis();
 
         for (ProtocolMessage.HudWidget widget : widgets) {
-            if (widget == null) {
-                continue;
-            }
+            putHudWidget(widget, receivedAt);
+        }
 
-            String widgetId = normalizeWidgetId(widget.widgetId());
-            if (widgetId.isEmpty()) {
+        publishHudWidgets();
+    }
+
+    /**
+     * Applies an incremental HUD update on top of the current widget snapshot.
+     *
+     * <p>Removals run first, then whole-widget upserts, then line patches. Patches for unknown
+     * widgets or indexes past the end of a widget are ignored; a patched widget's TTL restarts.
+     */
+    public void applyHudWidgetDelta(ProtocolMessage.HudWidgetDeltaS2C delta) {
+        long receivedAt = System.currentTimeMillis();
+
+        for (String widgetId : delta.removedWidgetIds()) {
+            hudWidgets.remove(normalizeWidgetId(widgetId));
+        }
+
+        for (ProtocolMessage.HudWidget widget : delta.upserts()) {
+            putHudWidget(widget, receivedAt);
+        }
+
+        if (delta.linePatches().isEmpty()) {
+            publishHudWidgets();
+            return;
+        }
+
+        // Patches are staged per widget so each touched entry is rebuilt once.
+        Map<String, List<String>> patchedLines = new LinkedHashMap<>();
+        for (ProtocolMessage.HudWidgetLinePatch patch : delta.linePatches()) {
+            String widgetId = normalizeWidgetId(patch.widgetId());
+            HudWidgetEntry entry = hudWidgets.get(widgetId);
+            if (entry == null) {
                 continue;
             }
 
-            List<String> lines = new ArrayList<>(widget.lines().size());
-            for (String line : widget.lines()) {
-                lines.add(line == null ? "" : line);
-                if (lines.size() >= ProtocolConstants.MAX_WIDGET_LINES) {
-                    break;
-                }
+            List<String> lines =
+                    patchedLines.computeIfAbsent(
+                            widgetId, ignored -> new ArrayList<>(entry.lines()));
+            int lineIndex = patch.lineIndex();
+            if (lineIndex < lines.size()) {
+                lines.set(lineIndex, patch.line());
+            } else if (lineIndex == lines.size()
+                    && lines.size() < ProtocolConstants.MAX_WIDGET_LINES) {
+                lines.add(patch.line());
             }
+        }
 
-            int ttlSeconds = Math.max(0, widget.ttlSeconds());
-            hudWidgets.put(widgetId, new HudWidgetEntry(lines, ttlSeconds, receivedAt));
+        for (Map.Entry<String, List<String>> patched : patchedLines.entrySet()) {
+            HudWidgetEntry entry = hudWidgets.get(patched.getKey());
+            hudWidgets.put(
+                    patched.getKey(),
+                    entry.patch(patched.getKey(), patched.getValue(), receivedAt));
         }
+
+        publishHudWidgets();
     }
 
     public void clearHudWidgets() {
+        if (hudWidgets.isEmpty()) {
+            return;
+        }
+
         hudWidgets.clear();
+        publishHudWidgets();
+    }
+
+    /** Returns a counter that changes whenever the HUD widget snapshot is republished. */
+    public long hudWidgetsVersion() {
+        return hudWidgetsVersion;
+    }
+
+    private void putHudWidget(ProtocolMessage.HudWidget widget, long receivedAt) {
+        if (widget == null) {
+            return;
+        }
+
+        String widgetId = normalizeWidgetId(widget.widgetId());
+        if (widgetId.isEmpty()) {
+            return;
+        }
+
+        List<String> lines = new ArrayList<>(widget.lines().size());
+        for (String line : widget.lines()) {
+            lines.add(line == null ? "" : line);
+            if (lines.size() >= ProtocolConstants.MAX_WIDGET_LINES) {
+                break;
+            }
+        }
+
+        int ttlSeconds = Math.max(0, widget.ttlSeconds());
+        hudWidgets.put(widgetId, HudWidgetEntry.parse(widgetId, lines, ttlSeconds, receivedAt));
     }
 
     public HudWidgetEntry getHudWidget(String widgetId) {
@@ -170,79 +327,82 @@ public final class ConnectionSessionState {
             return null;
         }
 
-        return hudWidgets.get(normalizeWidgetId(widgetId));
+        return hudWidgetsSnapshot.get(normalizeWidgetId(widgetId));
     }
 
     public Map<String, HudWidgetEntry> hudWidgetsSnapshot() {
-        return Collections.unmodifiableMap(new LinkedHashMap<>(hudWidgets));
+        return hudWidgetsSnapshot;
     }
 
     /** Applies an add/remove delta for peaceful-mining pass-through entity markers. */
-    public void applyPeacefulMiningPassThroughDelta(
-            List<Integer> addEntityIds, List<Integer> removeEntityIds) {
-        for (int entityId : addEntityIds) {
-            if (entityId < 0) {
-                continue;
-            }
-
-            peacefulMiningPassThroughIds.add(entityId);
-        }
-
-        for (int entityId : removeEntityIds) {
-            if (entityId < 0) {
-                continue;
-            }
-
-            peacefulMiningPassThroughIds.remove(entityId);
+    public void applyPeacefulMiningPassThroughDelta(IntList addEntityIds, IntList removeEntityIds) {
+        if (applyEntityIdDelta(peacefulMiningPassThroughIds, addEntityIds, removeEntityIds)) {
+            peacefulMiningPassThroughIdsSnapshot = immutableCopy(peacefulMiningPassThroughIds);
         }
     }
 
     public boolean isPeacefulMiningPassThroughEntity(int entityId) {
-        return entityId >= 0 && peacefulMiningPassThroughIds.contains(entityId);
+        return entityId >= 0 && peacefulMiningPassThroughIdsSnapshot.contains(entityId);
     }
 
     public IntSet peacefulMiningPassThroughIdsSnapshot() {
-        return IntSets.unmodifiable(new IntOpenHashSet(peacefulMiningPassThroughIds));
+        return peacefulMiningPassThroughIdsSnapshot;
     }
 
     public void clearPeacefulMiningPassThroughIds() {
         peacefulMiningPassThroughIds.clear();
+        peacefulMiningPassThroughIdsSnapshot = IntSets.EMPTY_SET;
     }
 
     /** Applies an add/remove delta for gang ping beacon entities. */
-    public void applyGangPingBeaconDelta(
-            List<Integer> addEntityIds, List<Integer> removeEntityIds) {
-        applyEntityIdDelta(gangPingBeaconIds, addEntityIds, removeEntityIds);
+    public void applyGangPingBeaconDelta(IntList addEntityIds, IntList removeEntityIds) {
+        if (applyEntityIdDelta(gangPingBeaconIds, addEntityIds, removeEntityIds)) {
+            gangPingBeaconIdsSnapshot = immutableCopy(gangPingBeaconIds);
+        }
     }
 
     /** Applies an add/remove delta for truce ping beacon entities. */
-    public void applyTrucePingBeaconDelta(
-            List<Integer> addEntityIds, List<Integer> removeEntityIds) {
-        applyEntityIdDelta(trucePingBeaconIds, addEntityIds, removeEntityIds);
+    public void applyTrucePingBeaconDelta(IntList addEntityIds, IntList removeEntityIds) {
+        if (applyEntityIdDelta(trucePingBeaconIds, addEntityIds, removeEntityIds)) {
+            trucePingBeaconIdsSnapshot = immutableCopy(trucePingBeaconIds);
+        }
     }
 
     public IntSet gangPingBeaconIdsSnapshot() {
-        return IntSets.unmodifiable(new IntOpenHashSet(gangPingBeaconIds));
+        return gangPingBeaconIdsSnapshot;
     }
 
     public IntSet trucePingBeaconIdsSnapshot() {
-        return IntSets.unmodifiable(new IntOpenHashSet(trucePingBeaconIds));
+        return trucePingBeaconIdsSnapshot;
     }
 
     public void clearGangPingBeaconIds() {
         gangPingBeaconIds.clear();
+        gangPingBeaconIdsSnapshot = IntSets.EMPTY_SET;
     }
 
     public void clearTrucePingBeaconIds() {
         trucePingBeaconIds.clear();
+        trucePingBeaconIdsSnapshot = IntSets.EMPTY_SET;
     }
 
+    /**
+     * Returns the overlay for one player storage slot, or {@code null} when there is none.
+     *
+     * <p>Callers iterate by looping over {@code 0..INVENTORY_OVERLAY_SLOT_COUNT - 1}; the lookup is
+     * a plain array read and never allocates.
+     */
     public ItemOverlayEntry getInventoryItemOverlay(int slot) {
-        return inventoryItemOverlays.get(slot);
+        if (slot < PLAYER_STORAGE_MIN_SLOT || slot > PLAYER_STORAGE_MAX_SLOT) {
+            return null;
+        }
+
+        return inventoryItemOverlays[slot];
     }
 
-    public Map<Integer, ItemOverlayEntry> inventoryItemOverlaysSnapshot() {
-        return Collections.unmodifiableMap(new LinkedHashMap<>(inventoryItemOverlays));
+    /** Returns whether any slot currently carries an overlay, so callers can skip slot loops. */
+    public boolean hasInventoryItemOverlays() {
+        return inventoryItemOverlays != NO_INVENTORY_ITEM_OVERLAYS;
     }
 
     public boolean helloSent() {
@@ -286,25 +446,53 @@ public final class ConnectionSessionState {
         return widgetId.trim().toLowerCase(Locale.ROOT);
     }
 
-    private static void applyEntityIdDelta(
-            IntSet target, List<Integer> addEntityIds, List<Integer> removeEntityIds) {
-        for (int entityId : addEntityIds) {
+    // Tables are never written after publication, so readers on any thread may index them freely.
+    private void publishInventoryItemOverlays(ItemOverlayEntry[] replacement) {
+        inventoryItemOverlays = replacement;
+        inventoryItemOverlaysVersion++;
+    }
+
+    private void publishHudWidgets() {
+        hudWidgetsSnapshot = Collections.unmodifiableMap(new LinkedHashMap<>(hudWidgets));
+        hudWidgetsVersion++;
+    }
+
+    private static IntSet immutableCopy(IntSet source) {
+        return source.isEmpty()
+                ? IntSets.EMPTY_SET
+                : IntSets.unmodifiable(new IntOpenHashSet(source));
+    }
+
+    /** Returns whether the delta changed {@code target}. */
+    private static boolean applyEntityIdDelta(
+            IntSet target, IntList addEntityIds, IntList removeEntityIds) {
+        boolean changed = false;
+
+        for (int index = 0; index < addEntityIds.size(); index++) {
+            int entityId = addEntityIds.getInt(index);
+
             if (entityId < 0) {
                 continue;
             }
 
-            target.add(entityId);
+            changed |= target.add(entityId);
         }
 
-        for (int entityId : removeEntityIds) {
+        for (int index = 0; index < removeEntityIds.size(); index++) {
+            int entityId = removeEntityIds.getInt(index);
+
             if (entityId < 0) {
                 continue;
             }
 
-            target.remove(entityId);
+            changed |= target.remove(entityId);
         }
+
+        return changed;
     }
 
     private static final int PLAYER_STORAGE_MIN_SLOT = 0;
-    private static final int PLAYER_STORAGE_MAX_SLOT = 35;
+    private static final int PLAYER_STORAGE_MAX_SLOT = INVENTORY_OVERLAY_SLOT_COUNT - 1;
+    private static final ItemOverlayEntry[] NO_INVENTORY_ITEM_OVERLAYS =
+            new ItemOverlayEntry[INVENTORY_OVERLAY_SLOT_COUNT];
 }
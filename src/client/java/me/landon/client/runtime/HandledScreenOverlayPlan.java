@@ -0,0 +1,80 @@
+package me.landon.client.runtime;
+
+import java.util.Arrays;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
+
+/**
+ * Overlay layouts of the slots of one open screen, indexed by slot id.
+ *
+ * <p>Each slot is resolved the first time it is drawn and read back on later frames as long as it
+ * still holds the same stack instance. The whole plan is dropped when the screen handler, its
+ * revision, the overlay snapshot, the known overlay stacks or the text renderer change, and by
+ * the resource reload listener.
+ */
+final class HandledScreenOverlayPlan {
+    private ScreenHandler handler;
+    private int revision;
+    private long overlaysVersion;
+    private long knownStacksVersion;
+    private TextRenderer textRenderer;
+    private ItemStack[] plannedStacks = new ItemStack[0];
+    private ItemOverlayLayout[] layouts = new ItemOverlayLayout[0];
+
+    /** Drops the plan unless it was built for exactly these inputs. */
+    void ensureCurrent(
+            ScreenHandler handler,
+            long overlaysVersion,
+            long knownStacksVersion,
+            TextRenderer textRenderer) {
+        if (this.handler == handler
+                && revision == handler.getRevision()
+                && this.overlaysVersion == overlaysVersion
+                && this.knownStacksVersion == knownStacksVersion
+                && this.textRenderer == textRenderer) {
+            return;
+        }
+
+        this.handler = handler;
+        this.revision = handler.getRevision();
+        this.overlaysVersion = overlaysVersion;
+        this.knownStacksVersion = knownStacksVersion;
+        this.textRenderer = textRenderer;
+
+        int slotCount = handler.slots.size();
+        if (plannedStacks.length < slotCount) {
+            plannedStacks = new ItemStack[slotCount];
+            layouts = new ItemOverlayLayout[slotCount];
+        } else {
+            Arrays.fill(plannedStacks, null);
+            Arrays.fill(layouts, null);
+        }
+    }
+
+    /** Returns whether the slot was already resolved for this stack instance. */
+    boolean isPlanned(int slotId, ItemStack stack) {
+        return slotId >= 0 && slotId < plannedStacks.length && plannedStacks[slotId] == stack;
+    }
+
+    /** Returns the planned layout of a slot, or {@code null} when it has no overlay. */
+    ItemOverlayLayout layout(int slotId) {
+        return layouts[slotId];
+    }
+
+    void plan(int slotId, ItemStack stack, ItemOverlayLayout layout) {
+        if (slotId < 0 || slotId >= plannedStacks.length) {
+            return;
+        }
+
+        plannedStacks[slotId] = stack;
+        layouts[slotId] = layout;
+    }
+
+    void clear() {
+        handler = null;
+        textRenderer = null;
+        Arrays.fill(plannedStacks, null);
+        Arrays.fill(layouts, null);
+    }
+}
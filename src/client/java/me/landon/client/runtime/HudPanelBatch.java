@@ -0,0 +1,273 @@
+package me.landon.client.runtime;
+
+import java.util.Arrays;
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.item.ItemStack;
+import net.minecraft.text.Text;
+
+/**
+ * Collects the draw calls of one HUD panel so they can be submitted geometry first.
+ *
+ * <p>Row renderers interleave fills, items and text per row. {@link #flush} replays every fill in
+ * one pass, then every item, then every text run, which is the order the GUI renderer draws them
+ * in anyway, so each panel's quads reach the render state back to back. Fills, items and text
+ * runs are packed into arrays that are reused across panels and frames, so steady-state rendering
+ * neither grows them nor allocates per draw call. Text is drawn with the renderer passed to
+ * {@link #flush}.
+ *
+ * <p>{@link #capture()} snapshots what has been queued so far as a {@link Layer}, which later
+ * frames {@link #replay(Layer) replay} instead of laying the same content out again.
+ */
+final class HudPanelBatch {
+    /** Left, top, right, bottom and ARGB color of each queued fill. */
+    static final int QUAD_STRIDE = 5;
+    /** X and y of each queued item. */
+    private static final int ITEM_STRIDE = 2;
+    /** X, y and ARGB color of each queued text run. */
+    private static final int TEXT_STRIDE = 3;
+
+    private int[] quads = new int[QUAD_STRIDE * 64];
+    private int quadCount;
+    private ItemStack[] itemStacks = new ItemStack[16];
+    private int[] itemPositions = new int[ITEM_STRIDE * 16];
+    private float[] itemScales = new float[16];
+    private int itemCount;
+    // Each text run is either a literal or a Text, the other slot is null.
+    private String[] textLiterals = new String[32];
+    private Text[] textComponents = new Text[32];
+    private int[] textPlacements = new int[TEXT_STRIDE * 32];
+    private float[] textScales = new float[32];
+    private int textCount;
+
+    /** Queues a fill, dropping empty or fully transparent quads. */
+    void fill(int left, int top, int right, int bottom, int color) {
+        if (left == right || top == bottom || (color >>> 24) == 0) {
+            return;
+        }
+
+        int offset = quadCount * QUAD_STRIDE;
+        if (offset + QUAD_STRIDE > quads.length) {
+            quads = Arrays.copyOf(quads, quads.length * 2);
+        }
+        quads[offset] = left;
+        quads[offset + 1] = top;
+        quads[offset + 2] = right;
+        quads[offset + 3] = bottom;
+        quads[offset + 4] = color;
+        quadCount++;
+    }
+
+    void drawItem(ItemStack stack, int x, int y) {
+        drawItem(stack, x, y, 1.0F);
+    }
+
+    void drawItem(ItemStack stack, int x, int y, float scale) {
+        ensureItemCapacity(itemCount + 1);
+        itemStacks[itemCount] = stack;
+        itemPositions[itemCount * ITEM_STRIDE] = x;
+        itemPositions[(itemCount * ITEM_STRIDE) + 1] = y;
+        itemScales[itemCount] = scale;
+        itemCount++;
+    }
+
+    /** Queues a text run; it is drawn with the renderer later passed to {@link #flush}. */
+    void drawTextWithShadow(String text, int x, int y, int color) {
+        drawTextWithShadow(text, x, y, color, 1.0F);
+    }
+
+    /** Queues a text run; it is drawn with the renderer later passed to {@link #flush}. */
+    void drawTextWithShadow(Text text, int x, int y, int color) {
+        queueText(null, text, x, y, color, 1.0F);
+    }
+
+    void drawTextWithShadow(String text, int x, int y, int color, float scale) {
+        queueText(text, null, x, y, color, scale);
+    }
+
+    int quadCount() {
+        return quadCount;
+    }
+
+    /** Returns an immutable copy of everything queued since the last flush. */
+    Layer capture() {
+        return new Layer(
+                Arrays.copyOf(quads, quadCount * QUAD_STRIDE),
+                Arrays.copyOf(itemStacks, itemCount),
+                Arrays.copyOf(itemPositions, itemCount * ITEM_STRIDE),
+                Arrays.copyOf(itemScales, itemCount),
+                Arrays.copyOf(textLiterals, textCount),
+                Arrays.copyOf(textComponents, textCount),
+                Arrays.copyOf(textPlacements, textCount * TEXT_STRIDE),
+                Arrays.copyOf(textScales, textCount));
+    }
+
+    /** Queues a captured layer as if its draw calls had been issued again. */
+    void replay(Layer layer) {
+        int needed = (quadCount * QUAD_STRIDE) + layer.quads.length;
+        if (needed > quads.length) {
+            quads = Arrays.copyOf(quads, Math.max(needed, quads.length * 2));
+        }
+        System.arraycopy(layer.quads, 0, quads, quadCount * QUAD_STRIDE, layer.quads.length);
+        quadCount += layer.quads.length / QUAD_STRIDE;
+
+        int items = layer.itemStacks.length;
+        ensureItemCapacity(itemCount + items);
+        System.arraycopy(layer.itemStacks, 0, itemStacks, itemCount, items);
+        System.arraycopy(
+                layer.itemPositions,
+                0,
+                itemPositions,
+                itemCount * ITEM_STRIDE,
+                items * ITEM_STRIDE);
+        System.arraycopy(layer.itemScales, 0, itemScales, itemCount, items);
+        itemCount += items;
+
+        int texts = layer.textLiterals.length;
+        ensureTextCapacity(textCount + texts);
+        System.arraycopy(layer.textLiterals, 0, textLiterals, textCount, texts);
+        System.arraycopy(layer.textComponents, 0, textComponents, textCount, texts);
+        System.arraycopy(
+                layer.textPlacements,
+                0,
+                textPlacements,
+                textCount * TEXT_STRIDE,
+                texts * TEXT_STRIDE);
+        System.arraycopy(layer.textScales, 0, textScales, textCount, texts);
+        textCount += texts;
+    }
+
+    /**
+     * Submits everything queued since the last flush and clears the batch.
+     *
+     * @return the number of draw calls submitted
+     */
+    int flush(DrawContext drawContext, TextRenderer textRenderer) {
+        int submitted = quadCount + itemCount + textCount;
+
+        for (int offset = 0; offset < quadCount * QUAD_STRIDE; offset += QUAD_STRIDE) {
+            drawContext.fill(
+                    quads[offset],
+                    quads[offset + 1],
+                    quads[offset + 2],
+                    quads[offset + 3],
+                    quads[offset + 4]);
+        }
+
+        for (int index = 0; index < itemCount; index++) {
+            ItemStack stack = itemStacks[index];
+            int x = itemPositions[index * ITEM_STRIDE];
+            int y = itemPositions[(index * ITEM_STRIDE) + 1];
+            float scale = itemScales[index];
+            if (scale == 1.0F) {
+                drawContext.drawItem(stack, x, y);
+                continue;
+            }
+            drawContext.getMatrices().pushMatrix();
+            drawContext.getMatrices().translate(x, y);
+            drawContext.getMatrices().scale(scale, scale);
+            drawContext.drawItem(stack, 0, 0);
+            drawContext.getMatrices().popMatrix();
+        }
+
+        for (int index = 0; index < textCount; index++) {
+            String literal = textLiterals[index];
+            Text component = textComponents[index];
+            int x = textPlacements[index * TEXT_STRIDE];
+            int y = textPlacements[(index * TEXT_STRIDE) + 1];
+            int color = textPlacements[(index * TEXT_STRIDE) + 2];
+            float scale = textScales[index];
+            if (scale == 1.0F) {
+                if (component != null) {
+                    drawContext.drawTextWithShadow(textRenderer, component, x, y, color);
+                } else {
+                    drawContext.drawTextWithShadow(textRenderer, literal, x, y, color);
+                }
+                continue;
+            }
+            drawContext.getMatrices().pushMatrix();
+            drawContext.getMatrices().translate(x, y);
+            drawContext.getMatrices().scale(scale, scale);
+            drawContext.drawTextWithShadow(textRenderer, literal, 0, 0, color);
+            drawContext.getMatrices().popMatrix();
+        }
+
+        clear();
+        return submitted;
+    }
+
+    /** Drops everything queued since the last flush without submitting it. */
+    void clear() {
+        quadCount = 0;
+        // Release stack and text references so the reused arrays do not pin them.
+        Arrays.fill(itemStacks, 0, itemCount, null);
+        itemCount = 0;
+        Arrays.fill(textLiterals, 0, textCount, null);
+        Arrays.fill(textComponents, 0, textCount, null);
+        textCount = 0;
+    }
+
+    private void queueText(String literal, Text component, int x, int y, int color, float scale) {
+        ensureTextCapacity(textCount + 1);
+        textLiterals[textCount] = literal;
+        textComponents[textCount] = component;
+        int offset = textCount * TEXT_STRIDE;
+        textPlacements[offset] = x;
+        textPlacements[offset + 1] = y;
+        textPlacements[offset + 2] = color;
+        textScales[textCount] = scale;
+        textCount++;
+    }
+
+    private void ensureItemCapacity(int needed) {
+        if (needed <= itemStacks.length) {
+            return;
+        }
+        int capacity = Math.max(needed, itemStacks.length * 2);
+        itemStacks = Arrays.copyOf(itemStacks, capacity);
+        itemPositions = Arrays.copyOf(itemPositions, capacity * ITEM_STRIDE);
+        itemScales = Arrays.copyOf(itemScales, capacity);
+    }
+
+    private void ensureTextCapacity(int needed) {
+        if (needed <= textLiterals.length) {
+            return;
+        }
+        int capacity = Math.max(needed, textLiterals.length * 2);
+        textLiterals = Arrays.copyOf(textLiterals, capacity);
+        textComponents = Arrays.copyOf(textComponents, capacity);
+        textPlacements = Arrays.copyOf(textPlacements, capacity * TEXT_STRIDE);
+        textScales = Arrays.copyOf(textScales, capacity);
+    }
+
+    /** Draw calls captured from a batch, replayable on later frames. */
+    static final class Layer {
+        private final int[] quads;
+        private final ItemStack[] itemStacks;
+        private final int[] itemPositions;
+        private final float[] itemScales;
+        private final String[] textLiterals;
+        private final Text[] textComponents;
+        private final int[] textPlacements;
+        private final float[] textScales;
+
+        private Layer(
+                int[] quads,
+                ItemStack[] itemStacks,
+                int[] itemPositions,
+                float[] itemScales,
+                String[] textLiterals,
+                Text[] textComponents,
+                int[] textPlacements,
+                float[] textScales) {
+            this.quads = quads;
+            this.itemStacks = itemStacks;
+            this.itemPositions = itemPositions;
+            this.itemScales = itemScales;
+            this.textLiterals = textLiterals;
+            this.textComponents = textComponents;
+            this.textPlacements = textPlacements;
+            this.textScales = textScales;
+        }
+    }
+}
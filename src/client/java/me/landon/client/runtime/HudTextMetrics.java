@@ -0,0 +1,165 @@
+package me.landon.client.runtime;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+import net.minecraft.client.font.TextRenderer;
+
+/**
+ * Bounded memo of HUD text widths and trims for the current {@link TextRenderer}.
+ *
+ * <p>HUD rows measure and trim the same labels, values and badges frame after frame. Both maps
+ * evict least recently used entries beyond their capacity, and everything is dropped when the
+ * renderer changes or client resources reload, since either can change glyph advances.
+ */
+final class HudTextMetrics {
+    static final int DEFAULT_CAPACITY = 1024;
+    /** Leaderboard ranks below this have their "#rank" width cached by value. */
+    static final int CACHED_RANKS = 128;
+    private static final char FORMATTING_CODE_PREFIX = '\u00A7';
+    private static final String RANK_PREFIX = "#";
+
+    private final Map<String, Integer> widths;
+    private final Map<TrimKey, String> trims;
+    private final int[] rankWidths = new int[CACHED_RANKS];
+    private TextRenderer textRenderer;
+    private long hits;
+    private long misses;
+
+    HudTextMetrics(int capacity) {
+        this.widths = new BoundedLruMap<>(capacity);
+        this.trims = new BoundedLruMap<>(capacity);
+        Arrays.fill(rankWidths, -1);
+    }
+
+    int getWidth(TextRenderer textRenderer, String text) {
+        bind(textRenderer);
+        return width(text, textRenderer::getWidth);
+    }
+
+    /** Returns the width of {@code prefix + text}; see the three-part overload. */
+    int getWidth(TextRenderer textRenderer, String prefix, String text) {
+        if (hasFormattingCode(text)) {
+            return getWidth(textRenderer, prefix + text);
+        }
+        return getWidth(textRenderer, prefix) + getWidth(textRenderer, text);
+    }
+
+    /**
+     * Returns the width of {@code prefix + text + suffix} without building the joined string.
+     *
+     * <p>Plain text widths are additive, so the parts are measured and cached separately. Text
+     * with formatting codes can restyle the parts after it and is measured joined.
+     */
+    int getWidth(TextRenderer textRenderer, String prefix, String text, String suffix) {
+        if (hasFormattingCode(text)) {
+            return getWidth(textRenderer, prefix + text + suffix);
+        }
+        return getWidth(textRenderer, prefix)
+                + getWidth(textRenderer, text)
+                + getWidth(textRenderer, suffix);
+    }
+
+    /** Returns the width of a "#rank" badge without building its text once the rank is cached. */
+    int getRankWidth(TextRenderer textRenderer, int rank) {
+        bind(textRenderer);
+        return rankWidth(rank, digits -> getWidth(textRenderer, RANK_PREFIX, digits));
+    }
+
+    String trimToWidth(TextRenderer textRenderer, String text, int maxWidth) {
+        bind(textRenderer);
+        return trim(text, maxWidth, textRenderer::trimToWidth);
+    }
+
+    /** Drops every cached entry. */
+    void invalidate() {
+        widths.clear();
+        trims.clear();
+        Arrays.fill(rankWidths, -1);
+    }
+
+    long hits() {
+        return hits;
+    }
+
+    long misses() {
+        return misses;
+    }
+
+    void resetCounters() {
+        hits = 0L;
+        misses = 0L;
+    }
+
+    int width(String text, ToIntFunction<String> measure) {
+        if (text == null) {
+            return measure.applyAsInt(null);
+        }
+
+        Integer cached = widths.get(text);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        int width = measure.applyAsInt(text);
+        widths.put(text, width);
+        return width;
+    }
+
+    int rankWidth(int rank, ToIntFunction<String> measureDigits) {
+        if (rank < 0 || rank >= CACHED_RANKS) {
+            return measureDigits.applyAsInt(Integer.toString(rank));
+        }
+
+        int cached = rankWidths[rank];
+        if (cached >= 0) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        int width = measureDigits.applyAsInt(Integer.toString(rank));
+        rankWidths[rank] = width;
+        return width;
+    }
+
+    String trim(String text, int maxWidth, Trimmer trimmer) {
+        if (text == null) {
+            return trimmer.trimToWidth(null, maxWidth);
+        }
+
+        TrimKey key = new TrimKey(text, maxWidth);
+        String cached = trims.get(key);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+
+        misses++;
+        String trimmed = trimmer.trimToWidth(text, maxWidth);
+        if (trimmed != null) {
+            trims.put(key, trimmed);
+        }
+        return trimmed;
+    }
+
+    private void bind(TextRenderer textRenderer) {
+        if (this.textRenderer != textRenderer) {
+            this.textRenderer = textRenderer;
+            invalidate();
+        }
+    }
+
+    private static boolean hasFormattingCode(String text) {
+        return text != null && text.indexOf(FORMATTING_CODE_PREFIX) >= 0;
+    }
+
+    @FunctionalInterface
+    interface Trimmer {
+        String trimToWidth(String text, int maxWidth);
+    }
+
+    private record TrimKey(String text, int maxWidth) {}
+}
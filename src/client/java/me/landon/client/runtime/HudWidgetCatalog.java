@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalDouble;
 import java.util.OptionalLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -42,8 +43,205 @@ public final class HudWidgetCatalog {
         }
     }
 
-    private static final Pattern DURATION_PART_PATTERN =
-            Pattern.compile("(\\d+)\\s*([dhms])", Pattern.CASE_INSENSITIVE);
+    /** Parsed "#rank name - value" leaderboard row. */
+    public record LeaderboardEntry(int rank, String name, String value) {}
+
+    /** How a status value is colored: fixed for live and unavailable, otherwise by time left. */
+    public enum StatusCategory {
+        LIVE,
+        UNAVAILABLE,
+        OTHER
+    }
+
+    /** Item drawn beside a cooldown, event or satchel row, named after that item. */
+    public enum RowIcon {
+        CLOCK,
+        BEACON,
+        CHEST,
+        NETHERITE_CHESTPLATE,
+        IRON_SWORD,
+        SHIELD,
+        COMPASS,
+        ENDER_CHEST,
+        EMERALD,
+        AMETHYST_SHARD,
+        MAGMA_BLOCK,
+        FIRE_CHARGE,
+        ENCHANTING_TABLE,
+        NETHER_STAR,
+        GOLD_INGOT,
+        PAPER,
+        VILLAGER_SPAWN_EGG,
+        REDSTONE,
+        EXPERIENCE_BOTTLE,
+        COAL,
+        LAPIS_LAZULI,
+        RAW_IRON,
+        RAW_GOLD,
+        DIAMOND,
+        QUARTZ,
+        OBSIDIAN,
+        BUNDLE
+    }
+
+    /**
+     * One widget line parsed when its snapshot is applied.
+     *
+     * <p>Measurement and drawing read these fields instead of re-parsing the raw text every frame.
+     * {@code event} and {@code leaderboardEntry} are {@code null} when the line is not of that
+     * shape.
+     *
+     * <p>{@code displayLabel}, {@code statusText}, {@code tag} (the bracketed compact event tag),
+     * {@code progressKey} and {@code icon} are the row's presentation in the widget it was parsed
+     * for; {@code tag} and {@code progressKey} are empty and {@code icon} is {@code null} where
+     * that widget does not use them.
+     *
+     * <p>{@code durationSeconds} and a timed {@code progressHint} are as of {@code
+     * receivedAtEpochMillis}; the {@code (long)} accessors count them forward locally so the
+     * server does not have to resend a snapshot every second. Lines parsed with a receive time of
+     * {@code 0} (editor previews) never tick. {@code countdownUnitSeconds} is set for values that
+     * are nothing but a duration, such as "3m 14s", and holds the smallest unit the server wrote,
+     * so {@link #tickedCountdownText(long)} keeps the server's precision.
+     */
+    public record WidgetLine(
+            String text,
+            ParsedLine parsed,
+            OptionalLong durationSeconds,
+            long countdownUnitSeconds,
+            OptionalDouble progressHint,
+            long progressTotalSeconds,
+            EventDescriptor event,
+            LeaderboardEntry leaderboardEntry,
+            OptionalDouble leaderboardValue,
+            float satchelProgress,
+            boolean satchelFull,
+            String displayLabel,
+            String statusText,
+            String tag,
+            String progressKey,
+            StatusCategory statusCategory,
+            RowIcon icon,
+            long receivedAtEpochMillis) {
+        public String label() {
+            return parsed.label();
+        }
+
+        public String value() {
+            return parsed.value();
+        }
+
+        /** Returns whether the value is nothing but a duration that can be ticked locally. */
+        public boolean countdown() {
+            return countdownUnitSeconds > 0L;
+        }
+
+        /**
+         * Returns the countdown as ticked at {@code nowEpochMillis}, in the units the server wrote,
+         * or {@code null} while it still reads the same as the received text.
+         */
+        public String tickedCountdownText(long nowEpochMillis) {
+            if (!countdown()) {
+                return null;
+            }
+            long received = ceilUnits(durationSeconds.orElse(0L));
+            long remaining = ceilUnits(remainingSeconds(nowEpochMillis).orElse(0L));
+            if (remaining == received) {
+                return null;
+            }
+            return formatDurationSeconds(remaining * countdownUnitSeconds, countdownUnitSeconds);
+        }
+
+        /**
+         * Returns when {@link #tickedCountdownText(long)} next changes after {@code
+         * nowEpochMillis}, or {@link Long#MAX_VALUE} when it never will.
+         */
+        public long nextCountdownTextChangeMillis(long nowEpochMillis) {
+            if (!countdown() || receivedAtEpochMillis <= 0L) {
+                return Long.MAX_VALUE;
+            }
+            long remaining = ceilUnits(remainingSeconds(nowEpochMillis).orElse(0L));
+            if (remaining <= 0L) {
+                return Long.MAX_VALUE;
+            }
+            long elapsedAtChange =
+                    durationSeconds.orElse(0L) - ((remaining - 1L) * countdownUnitSeconds);
+            if (elapsedAtChange > (Long.MAX_VALUE - receivedAtEpochMillis) / 1000L) {
+                return Long.MAX_VALUE;
+            }
+            return receivedAtEpochMillis + (elapsedAtChange * 1000L);
+        }
+
+        private long ceilUnits(long seconds) {
+            return (seconds + countdownUnitSeconds - 1L) / countdownUnitSeconds;
+        }
+
+        /** Returns the duration less the whole seconds elapsed since the line was received. */
+        public OptionalLong remainingSeconds(long nowEpochMillis) {
+            long elapsed = elapsedSeconds(nowEpochMillis);
+            if (durationSeconds.isEmpty() || elapsed == 0L) {
+                return durationSeconds;
+            }
+            return OptionalLong.of(Math.max(0L, durationSeconds.orElse(0L) - elapsed));
+        }
+
+        /** Returns the progress hint, advanced along its total when it is time based. */
+        public OptionalDouble progressHint(long nowEpochMillis) {
+            long elapsed = elapsedSeconds(nowEpochMillis);
+            if (progressHint.isEmpty() || progressTotalSeconds <= 0L || elapsed == 0L) {
+                return progressHint;
+            }
+            double advanced = progressHint.orElse(0.0D) + (elapsed / (double) progressTotalSeconds);
+            return OptionalDouble.of(clamp01((float) advanced));
+        }
+
+        /**
+         * Returns when {@link #remainingSeconds(long)} reaches zero, or {@link Long#MAX_VALUE}
+         * without a duration. Stable over time, so it also orders rows soonest first.
+         */
+        public long countdownEndsAtMillis() {
+            if (durationSeconds.isEmpty()) {
+                return Long.MAX_VALUE;
+            }
+            long seconds = durationSeconds.orElse(0L);
+            if (seconds > (Long.MAX_VALUE - receivedAtEpochMillis) / 1000L) {
+                return Long.MAX_VALUE;
+            }
+            return receivedAtEpochMillis + (seconds * 1000L);
+        }
+
+        private long elapsedSeconds(long nowEpochMillis) {
+            if (receivedAtEpochMillis <= 0L || nowEpochMillis <= receivedAtEpochMillis) {
+                return 0L;
+            }
+            return (nowEpochMillis - receivedAtEpochMillis) / 1000L;
+        }
+    }
+
+    private static final Pattern LEADERBOARD_ENTRY_PATTERN =
+            Pattern.compile("^#(\\d+)\\s+(.+?)\\s+-\\s+(.+)$");
+    private static final Pattern PROGRESS_RATIO_HINT_PATTERN =
+            Pattern.compile(
+                    "(?i)(?:^|\\|)\\s*progress\\s*=\\s*(-?\\d+(?:\\.\\d+)?)\\s*/\\s*(-?\\d+(?:\\.\\d+)?)\\s*(?:\\||$)");
+    private static final Pattern PROGRESS_PERCENT_HINT_PATTERN =
+            Pattern.compile(
+                    "(?i)(?:^|\\|)\\s*(?:p|progress)\\s*=\\s*(-?\\d+(?:\\.\\d+)?)\\s*%?\\s*(?:\\||$)");
+    private static final Pattern PROGRESS_ELAPSED_HINT_PATTERN =
+            Pattern.compile("(?i)(?:^|\\|)\\s*elapsed\\s*=\\s*([^|]+)");
+    private static final Pattern PROGRESS_TOTAL_HINT_PATTERN =
+            Pattern.compile("(?i)(?:^|\\|)\\s*total\\s*=\\s*([^|]+)");
+    private static final String CHECK_IN_PREFIX = "check in ";
+    private static final char[] DURATION_UNITS = {'d', 'h', 'm', 's'};
+    private static final long[] DURATION_UNIT_SECONDS = {86_400L, 3_600L, 60L, 1L};
+    private static final String[] UNAVAILABLE_STATUSES = {
+        "unavailable", "not scheduled", "max day", "n/a"
+    };
+    // Largest digit count whose value fits a double exactly, and the exact powers of ten that can
+    // divide it; within these bounds mantissa / 10^n is the correctly rounded parse.
+    private static final int MAX_EXACT_DIGITS = 15;
+    private static final double[] EXACT_POWERS_OF_TEN = {
+        1.0E0, 1.0E1, 1.0E2, 1.0E3, 1.0E4, 1.0E5, 1.0E6, 1.0E7, 1.0E8, 1.0E9, 1.0E10, 1.0E11,
+        1.0E12, 1.0E13, 1.0E14, 1.0E15
+    };
 
     private static final WidgetDescriptor COOLDOWNS =
             new WidgetDescriptor(
@@ -277,6 +475,103 @@ public final class HudWidgetCatalog {
         return new ParsedLine(label, value);
     }
 
+    /**
+     * Parses every non-blank line of one widget into {@link WidgetLine} rows.
+     *
+     * <p>{@code widgetId} only matters for leaderboard values; see {@link
+     * #parseLeaderboardValue(String, boolean)}. The rows do not tick; see {@link
+     * #parseWidgetLines(String, List, long)}.
+     */
+    public static List<WidgetLine> parseWidgetLines(String widgetId, List<String> lines) {
+        return parseWidgetLines(widgetId, lines, 0L);
+    }
+
+    /** Parses lines received from the server at {@code receivedAtEpochMillis}. */
+    public static List<WidgetLine> parseWidgetLines(
+            String widgetId, List<String> lines, long receivedAtEpochMillis) {
+        List<WidgetLine> rows = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line != null && !line.isBlank()) {
+                rows.add(parseWidgetLine(widgetId, line, receivedAtEpochMillis));
+            }
+        }
+        return rows;
+    }
+
+    /** Parses one raw line; see {@link #parseWidgetLines(String, List)}. */
+    public static WidgetLine parseWidgetLine(String widgetId, String line) {
+        return parseWidgetLine(widgetId, line, 0L);
+    }
+
+    /** Parses one raw line; see {@link #parseWidgetLines(String, List, long)}. */
+    public static WidgetLine parseWidgetLine(
+            String widgetId, String line, long receivedAtEpochMillis) {
+        String text = line == null ? "" : line.trim();
+        ParsedLine parsedLine = splitLine(text);
+        OptionalLong durationSeconds = parseDurationSeconds(parsedLine.value());
+        LeaderboardEntry leaderboardEntry = parseLeaderboardEntry(text);
+        OptionalDouble leaderboardValue =
+                leaderboardEntry == null
+                        ? OptionalDouble.empty()
+                        : parseLeaderboardValue(
+                                leaderboardEntry.value(),
+                                !CompanionConfig.HUD_WIDGET_LEADERBOARD_BLOCKS_ID.equals(
+                                        normalizeToken(widgetId)));
+        float satchelProgress = parseSatchelProgress(parsedLine.value());
+        OptionalDouble progressHint = parseFixedProgressHint(parsedLine.value());
+        long progressTotalSeconds = 0L;
+        if (progressHint.isEmpty()) {
+            progressTotalSeconds =
+                    parseProgressDurationHint(parsedLine.value(), PROGRESS_TOTAL_HINT_PATTERN)
+                            .orElse(0L);
+            progressHint =
+                    parseTimedProgressHint(
+                            parsedLine.value(), progressTotalSeconds, durationSeconds);
+        }
+
+        String widgetKey = normalizeToken(widgetId);
+        boolean cooldownRow = CompanionConfig.HUD_WIDGET_COOLDOWNS_ID.equals(widgetKey);
+        String label = parsedLine.label();
+        EventDescriptor event = findEventByLabel(label).orElse(null);
+        String displayLabel = label;
+        String tag = "";
+        String progressKey = "";
+        RowIcon icon = null;
+        if (cooldownRow) {
+            displayLabel = compactCooldownLabel(label);
+            progressKey = label.isBlank() ? "" : normalizeToken(displayLabel);
+            icon = cooldownIcon(label);
+        } else if (CompanionConfig.HUD_WIDGET_EVENTS_ID.equals(widgetKey)) {
+            String eventKey = event == null ? "" : event.key();
+            displayLabel = compactEventLabel(label);
+            tag = "[" + (event == null ? compactEventTag(label) : event.iconTag()) + "]";
+            progressKey = normalizeToken(eventKey.isBlank() ? label : eventKey);
+            icon = eventIcon(eventKey);
+        } else if (CompanionConfig.HUD_WIDGET_SATCHELS_ID.equals(widgetKey)) {
+            icon = satchelIcon(label);
+        }
+
+        return new WidgetLine(
+                text,
+                parsedLine,
+                durationSeconds,
+                durationSeconds.isPresent() ? countdownUnitSeconds(parsedLine.value()) : 0L,
+                progressHint,
+                progressTotalSeconds,
+                event,
+                leaderboardEntry,
+                leaderboardValue,
+                satchelProgress,
+                isSatchelFull(parsedLine.value(), satchelProgress),
+                displayLabel,
+                compactStatusText(parsedLine.value(), cooldownRow),
+                tag,
+                progressKey,
+                statusCategory(parsedLine.value()),
+                icon,
+                receivedAtEpochMillis);
+    }
+
     /**
      * Parses and sorts event rows by soonest duration first.
      *
@@ -284,34 +579,47 @@ public final class HudWidgetCatalog {
      */
     public static List<ParsedLine> sortEventsClosestFirst(
             List<String> rawLines, Map<String, Boolean> visibilityByEventKey) {
+        List<WidgetLine> rows = new ArrayList<>(rawLines.size());
+        for (String rawLine : rawLines) {
+            rows.add(parseWidgetLine(CompanionConfig.HUD_WIDGET_EVENTS_ID, rawLine));
+        }
+
+        List<WidgetLine> sortedRows = sortEventRowsClosestFirst(rows, visibilityByEventKey);
+        List<ParsedLine> sorted = new ArrayList<>(sortedRows.size());
+        for (WidgetLine row : sortedRows) {
+            sorted.add(row.parsed());
+        }
+        return sorted;
+    }
+
+    /** Row form of {@link #sortEventsClosestFirst(List, Map)}. */
+    public static List<WidgetLine> sortEventRowsClosestFirst(
+            List<WidgetLine> rows, Map<String, Boolean> visibilityByEventKey) {
         List<ParsedEventLine> known = new ArrayList<>();
-        List<ParsedLine> unknown = new ArrayList<>();
+        List<WidgetLine> unknown = new ArrayList<>();
 
-        for (int index = 0; index < rawLines.size(); index++) {
-            ParsedLine parsedLine = splitLine(rawLines.get(index));
-            Optional<EventDescriptor> eventDescriptor = findEventByLabel(parsedLine.label());
+        for (int index = 0; index < rows.size(); index++) {
+            WidgetLine row = rows.get(index);
 
-            if (eventDescriptor.isPresent()) {
-                String eventKey = eventDescriptor.orElseThrow().key();
-                if (Boolean.FALSE.equals(visibilityByEventKey.get(eventKey))) {
+            if (row.event() != null) {
+                if (Boolean.FALSE.equals(visibilityByEventKey.get(row.event().key()))) {
                     continue;
                 }
 
-                long sortSeconds = parseDurationSeconds(parsedLine.value()).orElse(Long.MAX_VALUE);
-                known.add(new ParsedEventLine(parsedLine, sortSeconds, index));
+                known.add(new ParsedEventLine(row, row.countdownEndsAtMillis(), index));
                 continue;
             }
 
-            unknown.add(parsedLine);
+            unknown.add(row);
         }
 
         known.sort(
-                Comparator.comparingLong(ParsedEventLine::sortSeconds)
+                Comparator.comparingLong(ParsedEventLine::endsAtMillis)
                         .thenComparingInt(ParsedEventLine::originalIndex));
 
-        List<ParsedLine> sorted = new ArrayList<>(known.size() + unknown.size());
+        List<WidgetLine> sorted = new ArrayList<>(known.size() + unknown.size());
         for (ParsedEventLine line : known) {
-            sorted.add(line.parsedLine());
+            sorted.add(line.row());
         }
         sorted.addAll(unknown);
         return sorted;
@@ -319,16 +627,24 @@ public final class HudWidgetCatalog {
 
     /** Returns whether a cooldown line should be treated as active/armed. */
     public static boolean isCooldownLineActive(String rawLine) {
-        ParsedLine parsedLine = splitLine(rawLine);
-        String status = normalizeToken(primaryStatusSegment(parsedLine.value()));
+        return isCooldownLineActive(
+                parseWidgetLine(CompanionConfig.HUD_WIDGET_COOLDOWNS_ID, rawLine), 0L);
+    }
+
+    /**
+     * Row form of {@link #isCooldownLineActive(String)}; a countdown that has ticked down to zero
+     * by {@code nowEpochMillis} is no longer active.
+     */
+    public static boolean isCooldownLineActive(WidgetLine row, long nowEpochMillis) {
+        String status = normalizeToken(primaryStatusSegment(row.value()));
 
         if (status.isEmpty()) {
-            return !normalizeToken(parsedLine.label()).isEmpty();
+            return !normalizeToken(row.label()).isEmpty();
         }
 
-        OptionalLong durationSeconds = parseDurationSeconds(status);
-        if (durationSeconds.isPresent()) {
-            return durationSeconds.orElse(0L) > 0L;
+        // parseDurationSeconds() normalizes the same way, so the parsed row value is equivalent.
+        if (row.durationSeconds().isPresent()) {
+            return row.remainingSeconds(nowEpochMillis).orElse(0L) > 0L;
         }
 
         return !isInactiveStatus(status);
@@ -337,6 +653,9 @@ public final class HudWidgetCatalog {
     /**
      * Attempts to parse a duration string into total seconds.
      *
+     * <p>Reads the text before any {@code |} metadata in a single pass without allocating; case is
+     * ignored, "Check in" prefixes are skipped, and a trailing parenthesised duration wins.
+     *
      * @return Parsed seconds or empty when no duration token is present.
      */
     public static OptionalLong parseDurationSeconds(String statusText) {
@@ -344,71 +663,104 @@ public final class HudWidgetCatalog {
             return OptionalLong.empty();
         }
 
-        String normalized = normalizeToken(primaryStatusSegment(statusText));
-        if (normalized.isEmpty()) {
+        int metadataSeparator = statusText.indexOf('|');
+        return scanDurationSeconds(
+                statusText, 0, metadataSeparator >= 0 ? metadataSeparator : statusText.length());
+    }
+
+    private static OptionalLong scanDurationSeconds(String text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end) {
             return OptionalLong.empty();
         }
 
-        if (normalized.startsWith("check in ")) {
-            normalized = normalized.substring("check in ".length()).trim();
+        if (regionStartsWithIgnoreCase(text, start, end, CHECK_IN_PREFIX)) {
+            start += CHECK_IN_PREFIX.length();
+            while (start < end && text.charAt(start) <= ' ') {
+                start++;
+            }
         }
 
-        if (normalized.endsWith(")") && normalized.contains("(")) {
-            int open = normalized.lastIndexOf('(');
-            if (open >= 0) {
-                OptionalLong nested =
-                        parseDurationSeconds(
-                                normalized.substring(open + 1, normalized.length() - 1));
+        if (text.charAt(end - 1) == ')') {
+            int open = text.lastIndexOf('(', end - 1);
+            if (open >= start) {
+                OptionalLong nested = scanDurationSeconds(text, open + 1, end - 1);
                 if (nested.isPresent()) {
                     return nested;
                 }
-                normalized = normalized.substring(0, open).trim();
+                end = open;
+                while (end > start && text.charAt(end - 1) <= ' ') {
+                    end--;
+                }
             }
         }
 
-        if ("now".equals(normalized) || "active".equals(normalized)) {
+        if (regionEqualsIgnoreCase(text, start, end, "now")
+                || regionEqualsIgnoreCase(text, start, end, "active")) {
             return OptionalLong.of(0L);
         }
 
-        if (isUnavailableStatus(normalized)) {
-            return OptionalLong.empty();
+        for (String unavailable : UNAVAILABLE_STATUSES) {
+            if (regionEqualsIgnoreCase(text, start, end, unavailable)) {
+                return OptionalLong.empty();
+            }
         }
 
-        if (normalized.chars().allMatch(Character::isDigit)) {
+        boolean allDigits = true;
+        for (int index = start; index < end && allDigits; index++) {
+            allDigits = Character.isDigit(text.charAt(index));
+        }
+        if (allDigits) {
             try {
-                return OptionalLong.of(Long.parseLong(normalized));
+                return OptionalLong.of(Long.parseLong(text, start, end, 10));
             } catch (NumberFormatException ignored) {
                 return OptionalLong.empty();
             }
         }
 
-        Matcher matcher = DURATION_PART_PATTERN.matcher(normalized);
         long totalSeconds = 0L;
         boolean foundPart = false;
+        int index = start;
 
-        while (matcher.find()) {
-            foundPart = true;
-            long amount;
-            try {
-                amount = Long.parseLong(matcher.group(1));
-            } catch (NumberFormatException ignored) {
-                return OptionalLong.empty();
+        while (index < end) {
+            if (!isAsciiDigit(text.charAt(index))) {
+                index++;
+                continue;
             }
 
-            char unit = Character.toLowerCase(matcher.group(2).charAt(0));
-            long multiplier =
-                    switch (unit) {
-                        case 'd' -> 86_400L;
-                        case 'h' -> 3_600L;
-                        case 'm' -> 60L;
-                        case 's' -> 1L;
-                        default -> 0L;
-                    };
+            int digitsStart = index;
+            while (index < end && isAsciiDigit(text.charAt(index))) {
+                index++;
+            }
+            int digitsEnd = index;
 
+            int unitIndex = index;
+            while (unitIndex < end && isPatternWhitespace(text.charAt(unitIndex))) {
+                unitIndex++;
+            }
+            if (unitIndex == end) {
+                break;
+            }
+
+            long multiplier = durationUnitSeconds(text.charAt(unitIndex));
             if (multiplier <= 0L) {
                 continue;
             }
 
+            foundPart = true;
+            index = unitIndex + 1;
+            long amount;
+            try {
+                amount = Long.parseLong(text, digitsStart, digitsEnd, 10);
+            } catch (NumberFormatException ignored) {
+                return OptionalLong.empty();
+            }
+
             if (amount > Long.MAX_VALUE / multiplier) {
                 return OptionalLong.of(Long.MAX_VALUE);
             }
@@ -428,6 +780,402 @@ public final class HudWidgetCatalog {
         return OptionalLong.of(totalSeconds);
     }
 
+    /**
+     * Formats seconds the way the server writes countdowns, down to {@code unitSeconds} and
+     * skipping zero units, such as "1h 20m 4s" with a one second unit or "16m" with a one minute
+     * unit.
+     */
+    public static String formatDurationSeconds(long seconds, long unitSeconds) {
+        int smallest = DURATION_UNIT_SECONDS.length - 1;
+        while (smallest > 0 && DURATION_UNIT_SECONDS[smallest] < unitSeconds) {
+            smallest--;
+        }
+
+        StringBuilder builder = new StringBuilder(12);
+        long rest = Math.max(0L, seconds);
+        for (int unit = 0; unit <= smallest; unit++) {
+            long amount = rest / DURATION_UNIT_SECONDS[unit];
+            rest %= DURATION_UNIT_SECONDS[unit];
+            if (amount > 0L) {
+                if (!builder.isEmpty()) {
+                    builder.append(' ');
+                }
+                builder.append(amount).append(DURATION_UNITS[unit]);
+            }
+        }
+        return builder.isEmpty() ? "0" + DURATION_UNITS[smallest] : builder.toString();
+    }
+
+    /** Parses a "#rank name - value" leaderboard row, or returns {@code null} for other text. */
+    public static LeaderboardEntry parseLeaderboardEntry(String line) {
+        if (line == null || line.isBlank()) {
+            return null;
+        }
+
+        Matcher matcher = LEADERBOARD_ENTRY_PATTERN.matcher(line.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        int rank;
+        try {
+            rank = Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException ignored) {
+            return null;
+        }
+
+        return new LeaderboardEntry(rank, matcher.group(2).trim(), matcher.group(3).trim());
+    }
+
+    /**
+     * Parses a leaderboard value such as "9.2B" or "1,204" into a plain number.
+     *
+     * <p>Block leaderboards pass {@code allowBillionSuffix = false}, where a trailing B is not a
+     * magnitude.
+     */
+    public static OptionalDouble parseLeaderboardValue(
+            String valueText, boolean allowBillionSuffix) {
+        if (valueText == null || valueText.isBlank()) {
+            return OptionalDouble.empty();
+        }
+
+        // Thousands separators are ignored wherever they appear, as if they had been stripped.
+        int length = valueText.length();
+        int numberStart = -1;
+        for (int index = 0; index < length && numberStart < 0; index++) {
+            char current = valueText.charAt(index);
+            if (isAsciiDigit(current)) {
+                numberStart = index;
+            } else if (current == '-') {
+                int next = skipCommas(valueText, index + 1);
+                if (next < length && isAsciiDigit(valueText.charAt(next))) {
+                    numberStart = index;
+                }
+            }
+        }
+        if (numberStart < 0) {
+            return OptionalDouble.empty();
+        }
+
+        boolean negative = valueText.charAt(numberStart) == '-';
+        int index = negative ? skipCommas(valueText, numberStart + 1) : numberStart;
+        long mantissa = 0L;
+        int digits = 0;
+        int fractionDigits = 0;
+        while (index < length && isAsciiDigit(valueText.charAt(index))) {
+            mantissa = mantissa * 10L + (valueText.charAt(index) - '0');
+            digits++;
+            index = skipCommas(valueText, index + 1);
+        }
+        if (index < length && valueText.charAt(index) == '.') {
+            int fractionStart = skipCommas(valueText, index + 1);
+            if (fractionStart < length && isAsciiDigit(valueText.charAt(fractionStart))) {
+                index = fractionStart;
+                while (index < length && isAsciiDigit(valueText.charAt(index))) {
+                    mantissa = mantissa * 10L + (valueText.charAt(index) - '0');
+                    digits++;
+                    fractionDigits++;
+                    index = skipCommas(valueText, index + 1);
+                }
+            }
+        }
+        int numberEnd = index;
+
+        double numeric;
+        if (digits <= MAX_EXACT_DIGITS) {
+            numeric = mantissa / EXACT_POWERS_OF_TEN[fractionDigits];
+            numeric = negative ? -numeric : numeric;
+        } else {
+            numeric = Double.parseDouble(withoutCommas(valueText, numberStart, numberEnd));
+        }
+
+        while (index < length
+                && (isPatternWhitespace(valueText.charAt(index))
+                        || valueText.charAt(index) == ',')) {
+            index++;
+        }
+        double multiplier = 1.0D;
+        if (index < length) {
+            multiplier =
+                    switch (valueText.charAt(index)) {
+                        case 'k', 'K' -> 1_000.0D;
+                        case 'm', 'M' -> 1_000_000.0D;
+                        case 'b', 'B' -> allowBillionSuffix ? 1_000_000_000.0D : 1.0D;
+                        case 't', 'T' -> 1_000_000_000_000.0D;
+                        default -> 1.0D;
+                    };
+        }
+
+        double value = Math.max(0.0D, numeric * multiplier);
+        return OptionalDouble.of(value);
+    }
+
+    private static OptionalDouble parseFixedProgressHint(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) {
+            return OptionalDouble.empty();
+        }
+
+        Matcher ratioMatcher = PROGRESS_RATIO_HINT_PATTERN.matcher(rawValue);
+        if (ratioMatcher.find()) {
+            try {
+                double numerator = Double.parseDouble(ratioMatcher.group(1));
+                double denominator = Double.parseDouble(ratioMatcher.group(2));
+                if (denominator > 0.0D) {
+                    return OptionalDouble.of(clamp01((float) (numerator / denominator)));
+                }
+            } catch (NumberFormatException ignored) {
+                // fall through to other hint types
+            }
+        }
+
+        Matcher percentMatcher = PROGRESS_PERCENT_HINT_PATTERN.matcher(rawValue);
+        if (percentMatcher.find()) {
+            try {
+                double rawPercent = Double.parseDouble(percentMatcher.group(1));
+                String matchedToken = percentMatcher.group(0);
+                boolean markedAsPercent = matchedToken != null && matchedToken.contains("%");
+                double normalized =
+                        (markedAsPercent || rawPercent > 1.0D) ? (rawPercent / 100.0D) : rawPercent;
+                return OptionalDouble.of(clamp01((float) normalized));
+            } catch (NumberFormatException ignored) {
+                // fall through to duration hints
+            }
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    /** Progress from "elapsed=" or the remaining duration against a "total=" hint. */
+    private static OptionalDouble parseTimedProgressHint(
+            String rawValue, long totalSeconds, OptionalLong remaining) {
+        if (totalSeconds <= 0L) {
+            return OptionalDouble.empty();
+        }
+
+        OptionalLong elapsedSeconds =
+                parseProgressDurationHint(rawValue, PROGRESS_ELAPSED_HINT_PATTERN);
+        if (elapsedSeconds.isPresent()) {
+            return OptionalDouble.of(
+                    clamp01((float) (elapsedSeconds.orElse(0L) / (double) totalSeconds)));
+        }
+        if (remaining.isPresent()) {
+            double ratio = 1.0D - (remaining.orElse(0L) / (double) totalSeconds);
+            return OptionalDouble.of(clamp01((float) ratio));
+        }
+
+        return OptionalDouble.empty();
+    }
+
+    private static OptionalLong parseProgressDurationHint(String rawValue, Pattern hintPattern) {
+        if (rawValue == null) {
+            return OptionalLong.empty();
+        }
+        Matcher matcher = hintPattern.matcher(rawValue);
+        if (!matcher.find()) {
+            return OptionalLong.empty();
+        }
+        return parseDurationSeconds(matcher.group(1));
+    }
+
+    private static float parseSatchelProgress(String valueText) {
+        if (valueText == null || valueText.isBlank()) {
+            return 0.0F;
+        }
+
+        String trimmed = valueText.trim();
+        int split = trimmed.indexOf(' ');
+        String ratio = split > 0 ? trimmed.substring(0, split) : trimmed;
+        int slashIndex = ratio.indexOf('/');
+        if (slashIndex <= 0 || slashIndex >= ratio.length() - 1) {
+            return 0.0F;
+        }
+
+        long stored = parseCompactAmount(ratio.substring(0, slashIndex));
+        long capacity = parseCompactAmount(ratio.substring(slashIndex + 1));
+        if (stored < 0L || capacity <= 0L) {
+            return 0.0F;
+        }
+
+        return clamp01((float) stored / (float) capacity);
+    }
+
+    private static boolean isSatchelFull(String valueText, float progress) {
+        if (progress >= 0.999F) {
+            return true;
+        }
+
+        if (valueText == null || valueText.isBlank()) {
+            return false;
+        }
+
+        String normalized = normalizeToken(valueText);
+        if (normalized.contains("full") || normalized.contains("max")) {
+            return true;
+        }
+
+        String trimmed = valueText.trim();
+        int split = trimmed.indexOf(' ');
+        String ratio = split > 0 ? trimmed.substring(0, split) : trimmed;
+        int slashIndex = ratio.indexOf('/');
+        if (slashIndex <= 0 || slashIndex >= ratio.length() - 1) {
+            return false;
+        }
+
+        long stored = parseCompactAmount(ratio.substring(0, slashIndex));
+        long capacity = parseCompactAmount(ratio.substring(slashIndex + 1));
+        return stored >= 0L && capacity > 0L && stored >= capacity;
+    }
+
+    static long parseCompactAmount(String value) {
+        if (value == null || value.isBlank()) {
+            return -1L;
+        }
+
+        // Whitespace is trimmed before commas are dropped, so "5K ," keeps its blank suffix.
+        int start = 0;
+        int end = value.length();
+        while (start < end && (value.charAt(start) <= ' ' || value.charAt(start) == ',')) {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        while (end > start && value.charAt(end - 1) == ',') {
+            end--;
+        }
+        if (start == end) {
+            return -1L;
+        }
+
+        long multiplier =
+                switch (value.charAt(end - 1)) {
+                    case 'k', 'K' -> 1_000L;
+                    case 'm', 'M' -> 1_000_000L;
+                    case 'b', 'B' -> 1_000_000_000L;
+                    case 't', 'T' -> 1_000_000_000_000L;
+                    default -> 1L;
+                };
+        int numberEnd = multiplier > 1L ? end - 1 : end;
+        while (numberEnd > start
+                && (value.charAt(numberEnd - 1) <= ' ' || value.charAt(numberEnd - 1) == ',')) {
+            numberEnd--;
+        }
+
+        long mantissa = 0L;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (int index = start; index < numberEnd; index++) {
+            char current = value.charAt(index);
+            if (isAsciiDigit(current)) {
+                mantissa = mantissa * 10L + (current - '0');
+                digits++;
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (current == '.' && !seenPoint) {
+                seenPoint = true;
+            } else if (current != ',') {
+                // Signs, exponents and the like are rare enough to leave to Double.parseDouble.
+                return parseCompactAmountSlow(value);
+            }
+        }
+
+        if (digits == 0) {
+            return -1L;
+        }
+        if (digits > MAX_EXACT_DIGITS) {
+            return parseCompactAmountSlow(value);
+        }
+
+        return Math.round(mantissa / EXACT_POWERS_OF_TEN[fractionDigits] * multiplier);
+    }
+
+    private static long parseCompactAmountSlow(String value) {
+        String trimmed = value.trim().toUpperCase(Locale.ROOT).replace(",", "");
+        if (trimmed.isEmpty()) {
+            return -1L;
+        }
+
+        long multiplier = 1L;
+        char suffix = trimmed.charAt(trimmed.length() - 1);
+        if (suffix == 'K' || suffix == 'M' || suffix == 'B' || suffix == 'T') {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+            multiplier =
+                    switch (suffix) {
+                        case 'K' -> 1_000L;
+                        case 'M' -> 1_000_000L;
+                        case 'B' -> 1_000_000_000L;
+                        case 'T' -> 1_000_000_000_000L;
+                        default -> 1L;
+                    };
+        }
+
+        try {
+            double parsed = Double.parseDouble(trimmed);
+            if (parsed < 0.0D) {
+                return -1L;
+            }
+            return Math.round(parsed * multiplier);
+        } catch (NumberFormatException ignored) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns the smallest unit of a status that is only "Check in" and duration parts before any
+     * metadata, or {@code 0} for any other status.
+     */
+    private static long countdownUnitSeconds(String value) {
+        int metadataSeparator = value.indexOf('|');
+        int start = 0;
+        int end = metadataSeparator >= 0 ? metadataSeparator : value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (regionStartsWithIgnoreCase(value, start, end, CHECK_IN_PREFIX)) {
+            start += CHECK_IN_PREFIX.length();
+        }
+
+        long smallestUnit = 0L;
+        int index = start;
+        while (index < end) {
+            if (isPatternWhitespace(value.charAt(index))) {
+                index++;
+                continue;
+            }
+            if (!isAsciiDigit(value.charAt(index))) {
+                return 0L;
+            }
+            while (index < end && isAsciiDigit(value.charAt(index))) {
+                index++;
+            }
+            while (index < end && isPatternWhitespace(value.charAt(index))) {
+                index++;
+            }
+            long unitSeconds = index == end ? 0L : durationUnitSeconds(value.charAt(index));
+            if (unitSeconds == 0L) {
+                return 0L;
+            }
+            smallestUnit = smallestUnit == 0L ? unitSeconds : Math.min(smallestUnit, unitSeconds);
+            index++;
+        }
+        return smallestUnit;
+    }
+
+    private static long durationUnitSeconds(char unit) {
+        return switch (unit) {
+            case 'd', 'D' -> 86_400L;
+            case 'h', 'H' -> 3_600L;
+            case 'm', 'M' -> 60L;
+            case 's', 'S' -> 1L;
+            default -> 0L;
+        };
+    }
+
     private static boolean isInactiveStatus(String status) {
         return "now".equals(status)
                 || "0s".equals(status)
@@ -437,10 +1185,247 @@ public final class HudWidgetCatalog {
     }
 
     private static boolean isUnavailableStatus(String status) {
-        return "unavailable".equals(status)
-                || "not scheduled".equals(status)
-                || "max day".equals(status)
-                || "n/a".equals(status);
+        for (String unavailable : UNAVAILABLE_STATUSES) {
+            if (unavailable.equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAsciiDigit(char value) {
+        return value >= '0' && value <= '9';
+    }
+
+    /** Matches the regex {@code \\s} class the previous pattern-based parsers used. */
+    private static boolean isPatternWhitespace(char value) {
+        return value == ' ' || (value >= '\t' && value <= '\r');
+    }
+
+    private static int skipCommas(String text, int index) {
+        while (index < text.length() && text.charAt(index) == ',') {
+            index++;
+        }
+        return index;
+    }
+
+    private static String withoutCommas(String text, int start, int end) {
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int index = start; index < end; index++) {
+            char current = text.charAt(index);
+            if (current != ',') {
+                builder.append(current);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean regionEqualsIgnoreCase(String text, int start, int end, String lower) {
+        return end - start == lower.length() && regionStartsWithIgnoreCase(text, start, end, lower);
+    }
+
+    /**
+     * Compares against an ASCII lower-case keyword the way {@code toLowerCase(Locale.ROOT)} would,
+     * without allocating a lower-cased copy.
+     */
+    private static boolean regionStartsWithIgnoreCase(
+            String text, int start, int end, String lower) {
+        if (end - start < lower.length()) {
+            return false;
+        }
+        for (int index = 0; index < lower.length(); index++) {
+            char current = text.charAt(start + index);
+            if (current >= 'A' && current <= 'Z') {
+                current = (char) (current + ('a' - 'A'));
+            } else if (current == '\u212A') {
+                // KELVIN SIGN lower-cases to an ASCII 'k'.
+                current = 'k';
+            }
+            if (current != lower.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static float clamp01(float value) {
+        return Math.max(0.0F, Math.min(1.0F, value));
+    }
+
+    private static StatusCategory statusCategory(String statusText) {
+        String normalized = normalizeToken(primaryStatusSegment(statusText));
+        if ("now".equals(normalized) || "live".equals(normalized) || "active".equals(normalized)) {
+            return StatusCategory.LIVE;
+        }
+        if ("unavailable".equals(normalized)
+                || "not scheduled".equals(normalized)
+                || "max day".equals(normalized)
+                || "n/a".equals(normalized)) {
+            return StatusCategory.UNAVAILABLE;
+        }
+        return StatusCategory.OTHER;
+    }
+
+    private static String compactStatusText(String statusText, boolean cooldownMode) {
+        String trimmed = primaryStatusSegment(statusText);
+        if (trimmed.isEmpty()) {
+            return "--";
+        }
+
+        String normalized = normalizeToken(trimmed);
+        if (normalized.startsWith("check in ")) {
+            return trimmed.substring(9).trim();
+        }
+        if ("unavailable".equals(normalized)) {
+            return cooldownMode ? "--" : "N/A";
+        }
+        if ("not scheduled".equals(normalized)) {
+            return "Not Scheduled";
+        }
+        if ("max day".equals(normalized)) {
+            return "MAX";
+        }
+        if ("now".equals(normalized)) {
+            return "LIVE";
+        }
+        return trimmed;
+    }
+
+    private static String compactEventLabel(String label) {
+        String normalized = normalizeToken(label);
+        return switch (normalized) {
+            case "next level cap day unlock" -> "Lvl Cap Unlock";
+            case "credit shop reset" -> "Credit Reset";
+            case "altar spawn" -> "Altar";
+            case "next reboot" -> "Reboot";
+            default -> label;
+        };
+    }
+
+    private static String compactEventTag(String label) {
+        if (label == null || label.isBlank()) {
+            return "EVT";
+        }
+        String normalized = label.trim().replaceAll("[^A-Za-z0-9]", "");
+        if (normalized.length() >= 3) {
+            return normalized.substring(0, 3).toUpperCase(Locale.ROOT);
+        }
+        return normalized.toUpperCase(Locale.ROOT);
+    }
+
+    private static String compactCooldownLabel(String label) {
+        if (label == null || label.isBlank()) {
+            return "Cooldown";
+        }
+        String trimmed = label.trim();
+        String normalized = normalizeToken(trimmed);
+        if (normalized.contains("ping")) {
+            return "Ping";
+        }
+        if (normalized.startsWith("rank kit ")) {
+            return "Kit " + trimmed.substring("Rank Kit ".length());
+        }
+        if (normalized.startsWith("cooldown ")) {
+            trimmed = trimmed.substring("Cooldown ".length()).trim();
+            normalized = normalizeToken(trimmed);
+        }
+        if (normalized.startsWith("perk ")) {
+            while (normalized.startsWith("perk ")) {
+                normalized = normalized.substring("perk ".length()).trim();
+            }
+            if (!normalized.isBlank()) {
+                String command = normalized.split("\\s+")[0];
+                if (!command.isBlank()) {
+                    return "/" + command.toLowerCase(Locale.ROOT);
+                }
+            }
+        }
+        return trimmed;
+    }
+
+    private static RowIcon eventIcon(String eventKey) {
+        return switch (eventKey) {
+            case CompanionConfig.HUD_EVENT_METEORITE -> RowIcon.MAGMA_BLOCK;
+            case CompanionConfig.HUD_EVENT_METEOR -> RowIcon.FIRE_CHARGE;
+            case CompanionConfig.HUD_EVENT_ALTAR_SPAWN -> RowIcon.ENCHANTING_TABLE;
+            case CompanionConfig.HUD_EVENT_KOTH -> RowIcon.NETHER_STAR;
+            case CompanionConfig.HUD_EVENT_CREDIT_SHOP_RESET -> RowIcon.EMERALD;
+            case CompanionConfig.HUD_EVENT_JACKPOT -> RowIcon.GOLD_INGOT;
+            case CompanionConfig.HUD_EVENT_FLASH_SALE -> RowIcon.PAPER;
+            case CompanionConfig.HUD_EVENT_MERCHANT -> RowIcon.VILLAGER_SPAWN_EGG;
+            case CompanionConfig.HUD_EVENT_NEXT_REBOOT -> RowIcon.REDSTONE;
+            case CompanionConfig.HUD_EVENT_NEXT_LEVEL_CAP_UNLOCK -> RowIcon.EXPERIENCE_BOTTLE;
+            default -> RowIcon.CLOCK;
+        };
+    }
+
+    private static RowIcon cooldownIcon(String label) {
+        String normalized = normalizeToken(label);
+        if (normalized.contains("ping")) {
+            return RowIcon.BEACON;
+        }
+        if (normalized.contains("rank kit") || normalized.contains("kit ")) {
+            return RowIcon.CHEST;
+        }
+        if (normalized.contains("gkit") || normalized.contains("god kit")) {
+            return RowIcon.NETHERITE_CHESTPLATE;
+        }
+        if (normalized.contains("gang")) {
+            return RowIcon.IRON_SWORD;
+        }
+        if (normalized.contains("truce")) {
+            return RowIcon.SHIELD;
+        }
+        if (normalized.contains("warp")
+                || normalized.contains("home")
+                || normalized.contains("tp")) {
+            return RowIcon.COMPASS;
+        }
+        if (normalized.contains("pv") || normalized.contains("vault")) {
+            return RowIcon.ENDER_CHEST;
+        }
+        if (normalized.contains("shop")) {
+            return RowIcon.EMERALD;
+        }
+        if (normalized.contains("crystal")) {
+            return RowIcon.AMETHYST_SHARD;
+        }
+        return RowIcon.CLOCK;
+    }
+
+    private static RowIcon satchelIcon(String label) {
+        String normalized = normalizeToken(label);
+        if (normalized.contains("coal")) {
+            return RowIcon.COAL;
+        }
+        if (normalized.contains("lapis")) {
+            return RowIcon.LAPIS_LAZULI;
+        }
+        if (normalized.contains("redstone")) {
+            return RowIcon.REDSTONE;
+        }
+        if (normalized.contains("iron")) {
+            return RowIcon.RAW_IRON;
+        }
+        if (normalized.contains("gold")) {
+            return RowIcon.RAW_GOLD;
+        }
+        if (normalized.contains("diamond")) {
+            return RowIcon.DIAMOND;
+        }
+        if (normalized.contains("emerald")) {
+            return RowIcon.EMERALD;
+        }
+        if (normalized.contains("quartz")) {
+            return RowIcon.QUARTZ;
+        }
+        if (normalized.contains("obsidian")) {
+            return RowIcon.OBSIDIAN;
+        }
+        if (normalized.contains("amethyst")) {
+            return RowIcon.AMETHYST_SHARD;
+        }
+        return RowIcon.BUNDLE;
     }
 
     private static String normalizeToken(String value) {
@@ -483,5 +1468,5 @@ public final class HudWidgetCatalog {
         return Map.copyOf(byLabel);
     }
 
-    private record ParsedEventLine(ParsedLine parsedLine, long sortSeconds, int originalIndex) {}
+    private record ParsedEventLine(WidgetLine row, long endsAtMillis, int originalIndex) {}
 }
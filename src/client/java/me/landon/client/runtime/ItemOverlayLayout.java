@@ -0,0 +1,80 @@
+package me.landon.client.runtime;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+
+/**
+ * Measured placement of one item overlay label, relative to the top-left corner of its slot.
+ *
+ * <p>The label is scaled down to fit the bottom-right corner of the 16x16 item area and drawn over
+ * a tinted background, so a layout only depends on the overlay entry and the text renderer and can
+ * be reused for any slot showing the same entry.
+ */
+record ItemOverlayLayout(
+        String text,
+        int textColor,
+        int backgroundColor,
+        float textScale,
+        int textX,
+        int textY,
+        int backgroundLeft,
+        int backgroundTop,
+        int backgroundRight,
+        int backgroundBottom) {
+    private static final int SLOT_SIZE = 16;
+    private static final float BASE_TEXT_SCALE = 0.68F;
+    private static final float MIN_TEXT_SCALE = 0.35F;
+    private static final float FIT_TEXT_WIDTH = 15.0F;
+
+    /** Lays out an overlay entry, or returns {@code null} when it has nothing to draw. */
+    static ItemOverlayLayout of(
+            TextRenderer textRenderer,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            int textColor,
+            int backgroundColor) {
+        String displayText = overlayEntry.displayText();
+
+        if (displayText == null || displayText.isEmpty()) {
+            return null;
+        }
+
+        int textWidth = textRenderer.getWidth(displayText);
+
+        if (textWidth <= 0) {
+            return null;
+        }
+
+        float fittedScale = Math.min(BASE_TEXT_SCALE, FIT_TEXT_WIDTH / textWidth);
+        float textScale = Math.max(MIN_TEXT_SCALE, fittedScale);
+        int scaledTextWidth = Math.max(1, Math.round(textWidth * textScale));
+        int scaledTextHeight = Math.max(1, Math.round(textRenderer.fontHeight * textScale));
+        int textX = Math.max(1, SLOT_SIZE - scaledTextWidth - 1);
+        int textY = Math.max(1, SLOT_SIZE - scaledTextHeight - 1);
+
+        return new ItemOverlayLayout(
+                displayText,
+                textColor,
+                backgroundColor,
+                textScale,
+                textX,
+                textY,
+                Math.max(0, textX - 1),
+                Math.max(0, textY - 1),
+                Math.min(SLOT_SIZE, textX + scaledTextWidth + 1),
+                Math.min(SLOT_SIZE, textY + scaledTextHeight + 1));
+    }
+
+    void draw(DrawContext drawContext, TextRenderer textRenderer, int slotX, int slotY) {
+        drawContext.fill(
+                slotX + backgroundLeft,
+                slotY + backgroundTop,
+                slotX + backgroundRight,
+                slotY + backgroundBottom,
+                backgroundColor);
+        drawContext.getMatrices().pushMatrix();
+        drawContext.getMatrices().translate(slotX + textX, slotY + textY);
+        drawContext.getMatrices().scale(textScale, textScale);
+        drawContext.drawTextWithShadow(textRenderer, text, 0, 0, textColor);
+        drawContext.getMatrices().popMatrix();
+    }
+}
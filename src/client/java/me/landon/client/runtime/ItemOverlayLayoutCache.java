@@ -0,0 +1,62 @@
+package me.landon.client.runtime;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+import net.minecraft.client.font.TextRenderer;
+
+/**
+ * Bounded memo of item overlay layouts for the current {@link TextRenderer}.
+ *
+ * <p>Overlay labels are short and repeat heavily across the hotbar and open containers, so each
+ * distinct label and overlay type is measured and laid out once. Entries beyond the capacity are
+ * evicted least recently used first, and everything is dropped when the renderer changes or
+ * client resources reload.
+ */
+final class ItemOverlayLayoutCache {
+    static final int DEFAULT_CAPACITY = 256;
+
+    private final Map<ConnectionSessionState.ItemOverlayEntry, ItemOverlayLayout> layouts;
+    private TextRenderer textRenderer;
+
+    ItemOverlayLayoutCache(int capacity) {
+        this.layouts = new BoundedLruMap<>(capacity);
+    }
+
+    ItemOverlayLayout get(
+            TextRenderer textRenderer,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            BiFunction<TextRenderer, ConnectionSessionState.ItemOverlayEntry, ItemOverlayLayout>
+                    layoutFactory) {
+        if (this.textRenderer != textRenderer) {
+            this.textRenderer = textRenderer;
+            invalidate();
+        }
+        return layout(textRenderer, overlayEntry, layoutFactory);
+    }
+
+    /** Drops every cached layout. */
+    void invalidate() {
+        layouts.clear();
+    }
+
+    ItemOverlayLayout layout(
+            TextRenderer textRenderer,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            BiFunction<TextRenderer, ConnectionSessionState.ItemOverlayEntry, ItemOverlayLayout>
+                    layoutFactory) {
+        if (overlayEntry.displayText() == null || overlayEntry.displayText().isEmpty()) {
+            return null;
+        }
+
+        ItemOverlayLayout cached = layouts.get(overlayEntry);
+        if (cached != null) {
+            return cached;
+        }
+
+        ItemOverlayLayout layout = layoutFactory.apply(textRenderer, overlayEntry);
+        if (layout != null) {
+            layouts.put(overlayEntry, layout);
+        }
+        return layout;
+    }
+}
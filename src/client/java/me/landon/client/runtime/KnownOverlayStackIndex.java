@@ -0,0 +1,165 @@
+package me.landon.client.runtime;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectLinkedOpenHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Overlays of stacks seen in the player inventory or on the cursor, keyed by stack fingerprint.
+ *
+ * <p>The fingerprint is {@link ItemStack#hashCode(ItemStack)}, which covers the item and its
+ * components but not the count, so a lookup confirms at most one candidate with a full component
+ * comparison. Entries are kept in least recently used order and evicted beyond the capacity. A
+ * secondary index remembers the most recent entry per item and display name, which container
+ * slots fall back to when no identical stack is known. Stacks seeded from the player inventory
+ * also keep the storage slot they were last seen in, so the cursor can be traced back to a slot
+ * without walking the open screen.
+ */
+final class KnownOverlayStackIndex {
+    private final int capacity;
+    private final Int2ObjectLinkedOpenHashMap<KnownStack> byFingerprint =
+            new Int2ObjectLinkedOpenHashMap<>();
+    private final Map<NameKey, KnownStack> byItemAndName = new HashMap<>();
+    private long version;
+
+    KnownOverlayStackIndex(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Remembers the overlay of a stack. Stacks that are already known only have their overlay
+     * updated and are not copied again.
+     */
+    void remember(ItemStack stack, ConnectionSessionState.ItemOverlayEntry overlayEntry) {
+        remember(stack, overlayEntry, -1);
+    }
+
+    /**
+     * Remembers the overlay of a stack seen in a player storage slot, or in no particular slot
+     * when {@code inventorySlot} is negative, which keeps any slot recorded earlier.
+     */
+    void remember(
+            ItemStack stack,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            int inventorySlot) {
+        if (stack.isEmpty()) {
+            return;
+        }
+
+        int fingerprint = ItemStack.hashCode(stack);
+        KnownStack known = byFingerprint.getAndMoveToLast(fingerprint);
+
+        if (known != null && ItemStack.areItemsAndComponentsEqual(known.stack(), stack)) {
+            if (!overlayEntry.equals(known.overlayEntry())) {
+                known = known.withOverlay(overlayEntry);
+                byFingerprint.put(fingerprint, known);
+                version++;
+            }
+            if (inventorySlot >= 0 && inventorySlot != known.inventorySlot()) {
+                known = known.withInventorySlot(inventorySlot);
+                byFingerprint.put(fingerprint, known);
+            }
+            KnownStack previousByName = byItemAndName.put(known.nameKey(), known);
+            if (previousByName == null
+                    || !previousByName.overlayEntry().equals(known.overlayEntry())) {
+                // Same-named container stacks now resolve to this overlay.
+                version++;
+            }
+            return;
+        }
+
+        if (known != null) {
+            // Fingerprint collision between different stacks; the newer one wins.
+            unlinkName(known);
+        }
+
+        KnownStack added =
+                new KnownStack(
+                        stack.copy(),
+                        new NameKey(stack.getItem(), stack.getName().getString()),
+                        overlayEntry,
+                        inventorySlot);
+        byFingerprint.putAndMoveToLast(fingerprint, added);
+        byItemAndName.put(added.nameKey(), added);
+        version++;
+
+        if (byFingerprint.size() > capacity) {
+            unlinkName(byFingerprint.removeFirst());
+        }
+    }
+
+    /**
+     * Returns the overlay of an identical known stack, otherwise of the most recently remembered
+     * stack with the same item and display name, or {@code null}.
+     */
+    ConnectionSessionState.ItemOverlayEntry find(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return null;
+        }
+
+        KnownStack known = byFingerprint.get(ItemStack.hashCode(stack));
+
+        if (known != null && ItemStack.areItemsAndComponentsEqual(known.stack(), stack)) {
+            return known.overlayEntry();
+        }
+
+        KnownStack sameName =
+                byItemAndName.get(new NameKey(stack.getItem(), stack.getName().getString()));
+        return sameName == null ? null : sameName.overlayEntry();
+    }
+
+    /**
+     * Returns the player storage slot an identical stack was last seen in, or {@code -1} when the
+     * stack is unknown or was never seen in the player inventory.
+     */
+    int findInventorySlot(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return -1;
+        }
+
+        KnownStack known = byFingerprint.get(ItemStack.hashCode(stack));
+
+        if (known == null || !ItemStack.areItemsAndComponentsEqual(known.stack(), stack)) {
+            return -1;
+        }
+
+        return known.inventorySlot();
+    }
+
+    /**
+     * Returns a counter that changes whenever a stack is added, evicted or given a new overlay, or
+     * when an item and display name start resolving to a different overlay. Remembering the most
+     * recent stack of a name again with the same overlay leaves it unchanged.
+     */
+    long version() {
+        return version;
+    }
+
+    void clear() {
+        byFingerprint.clear();
+        byItemAndName.clear();
+        version++;
+    }
+
+    private void unlinkName(KnownStack known) {
+        byItemAndName.remove(known.nameKey(), known);
+    }
+
+    private record NameKey(Item item, String name) {}
+
+    private record KnownStack(
+            ItemStack stack,
+            NameKey nameKey,
+            ConnectionSessionState.ItemOverlayEntry overlayEntry,
+            int inventorySlot) {
+        private KnownStack withOverlay(ConnectionSessionState.ItemOverlayEntry overlayEntry) {
+            return new KnownStack(stack, nameKey, overlayEntry, inventorySlot);
+        }
+
+        private KnownStack withInventorySlot(int inventorySlot) {
+            return new KnownStack(stack, nameKey, overlayEntry, inventorySlot);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package me.landon.client.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import me.landon.companion.protocol.BinaryDecodingException;
+import me.landon.companion.protocol.MessageType;
+import me.landon.companion.protocol.ProtocolCodec;
+
+/**
+ * Decodes companion payloads away from the render thread and hands immutable frames back to it.
+ *
+ * <p>Payloads are decoded in arrival order on the decode executor; only the apply step is
+ * scheduled on the apply executor (the client thread at runtime). Frames in flight and decode
+ * timings per {@link MessageType} are tracked for diagnostics.
+ *
+ * <p>Full-snapshot message types can be coalesced: while a snapshot is still waiting for the apply
+ * executor, a newer snapshot of the same type replaces it instead of queueing behind it. Any frame
+ * that is neither a snapshot nor declared unordered acts as a barrier, so snapshots never jump
+ * ahead of frames they could depend on.
+ */
+public final class PayloadDecodePipeline {
+    /** Decodes one raw payload view into a frame. */
+    @FunctionalInterface
+    public interface FrameDecoder {
+        ProtocolCodec.DecodedFrame decode(ByteBuffer payload) throws BinaryDecodingException;
+    }
+
+    /** Cumulative decode timings for one message type. */
+    public record DecodeStats(
+            MessageType messageType, long frames, long totalNanos, long maxNanos) {
+        public double averageMicros() {
+            return frames == 0L ? 0.0D : totalNanos / (frames * 1_000.0D);
+        }
+    }
+
+    /**
+     * Declares which message types are latest-wins snapshots and which may be reordered freely
+     * around them.
+     */
+    public record CoalescingPolicy(
+            Set<MessageType> snapshotTypes, Set<MessageType> unorderedTypes) {
+        public CoalescingPolicy {
+            snapshotTypes = Set.copyOf(snapshotTypes);
+            unorderedTypes = Set.copyOf(unorderedTypes);
+        }
+
+        public static CoalescingPolicy none() {
+            return new CoalescingPolicy(Set.of(), Set.of());
+        }
+    }
+
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+
+    private final FrameDecoder decoder;
+    private final Executor decodeExecutor;
+    private final Executor applyExecutor;
+    private final Consumer<ProtocolCodec.DecodedFrame> frameSink;
+    private final Consumer<BinaryDecodingException> malformedSink;
+    private final CoalescingPolicy coalescingPolicy;
+    // Only touched from the decode executor.
+    private final SnapshotMailbox[] openMailboxes = new SnapshotMailbox[MESSAGE_TYPES.length];
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private final AtomicLong malformedFrames = new AtomicLong();
+    private final AtomicLong coalescedFrames = new AtomicLong();
+    private final AtomicLongArray decodedFrames = new AtomicLongArray(MESSAGE_TYPES.length);
+    private final AtomicLongArray decodeNanos = new AtomicLongArray(MESSAGE_TYPES.length);
+    private final AtomicLongArray maxDecodeNanos = new AtomicLongArray(MESSAGE_TYPES.length);
+
+    public PayloadDecodePipeline(
+            FrameDecoder decoder,
+            Executor decodeExecutor,
+            Executor applyExecutor,
+            Consumer<ProtocolCodec.DecodedFrame> frameSink,
+            Consumer<BinaryDecodingException> malformedSink,
+            CoalescingPolicy coalescingPolicy) {
+        this.decoder = decoder;
+        this.decodeExecutor = decodeExecutor;
+        this.applyExecutor = applyExecutor;
+        this.frameSink = frameSink;
+        this.malformedSink = malformedSink;
+        this.coalescingPolicy = coalescingPolicy;
+    }
+
+    /** Creates the single daemon thread used to decode payloads in arrival order. */
+    public static ExecutorService newDecodeExecutor() {
+        return Executors.newSingleThreadExecutor(
+                runnable -> {
+                    Thread thread = new Thread(runnable, "cosmicprisons-payload-decode");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /** Queues {@code payload} for decoding; the buffer must not be modified afterwards. */
+    public void submit(ByteBuffer payload) {
+        peakQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+        decodeExecutor.execute(() -> decodeAndDispatch(payload));
+    }
+
+    /**
+     * Runs {@code marker} on the decode executor after every payload submitted before it and
+     * before any payload submitted after it. Snapshots are never coalesced across a marker.
+     */
+    public void submitMarker(Runnable marker) {
+        decodeExecutor.execute(
+                () -> {
+                    Arrays.fill(openMailboxes, null);
+                    marker.run();
+                });
+    }
+
+    /** Returns the number of payloads submitted but not yet applied. */
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    /** Returns the highest queue depth observed since the last {@link #resetMetrics()}. */
+    public int peakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+
+    /** Returns the number of payloads dropped because they failed to decode. */
+    public long malformedFrames() {
+        return malformedFrames.get();
+    }
+
+    /** Returns the number of snapshots dropped because a newer one superseded them. */
+    public long coalescedFrames() {
+        return coalescedFrames.get();
+    }
+
+    /** Returns decode timings for every message type that has been seen at least once. */
+    public List<DecodeStats> decodeStats() {
+        List<DecodeStats> stats = new ArrayList<>();
+
+        for (MessageType messageType : MESSAGE_TYPES) {
+            int index = messageType.ordinal();
+            long frames = decodedFrames.get(index);
+
+            if (frames > 0L) {
+                stats.add(
+                        new DecodeStats(
+                                messageType,
+                                frames,
+                                decodeNanos.get(index),
+                                maxDecodeNanos.get(index)));
+            }
+        }
+
+        return stats;
+    }
+
+    /** Clears timing counters and the peak depth; frames in flight are unaffected. */
+    public void resetMetrics() {
+        peakQueueDepth.set(queueDepth.get());
+        malformedFrames.set(0L);
+        coalescedFrames.set(0L);
+
+        for (int index = 0; index < MESSAGE_TYPES.length; index++) {
+            decodedFrames.set(index, 0L);
+            decodeNanos.set(index, 0L);
+            maxDecodeNanos.set(index, 0L);
+        }
+    }
+
+    private void decodeAndDispatch(ByteBuffer payload) {
+        long startedAt = System.nanoTime();
+        ProtocolCodec.DecodedFrame frame;
+
+        try {
+            frame = decoder.decode(payload);
+        } catch (BinaryDecodingException ex) {
+            malformedFrames.incrementAndGet();
+            applyExecutor.execute(() -> applyMalformed(ex));
+            return;
+        } catch (RuntimeException ex) {
+            queueDepth.decrementAndGet();
+            throw ex;
+        }
+
+        MessageType messageType = frame.message().type();
+        recordDecode(messageType, System.nanoTime() - startedAt);
+
+        if (coalescingPolicy.snapshotTypes().contains(messageType)) {
+            offerSnapshot(messageType, frame);
+            return;
+        }
+
+        if (!coalescingPolicy.unorderedTypes().contains(messageType)) {
+            Arrays.fill(openMailboxes, null);
+        }
+
+        applyExecutor.execute(() -> applyFrame(frame));
+    }
+
+    private void offerSnapshot(MessageType messageType, ProtocolCodec.DecodedFrame frame) {
+        int index = messageType.ordinal();
+        SnapshotMailbox mailbox = openMailboxes[index];
+
+        if (mailbox != null && mailbox.replace(frame)) {
+            coalescedFrames.incrementAndGet();
+            queueDepth.decrementAndGet();
+            return;
+        }
+
+        SnapshotMailbox freshMailbox = new SnapshotMailbox(frame);
+        openMailboxes[index] = freshMailbox;
+        applyExecutor.execute(() -> applyFrame(freshMailbox.take()));
+    }
+
+    private void recordDecode(MessageType messageType, long elapsedNanos) {
+        int index = messageType.ordinal();
+        decodedFrames.incrementAndGet(index);
+        decodeNanos.addAndGet(index, elapsedNanos);
+        maxDecodeNanos.accumulateAndGet(index, elapsedNanos, Math::max);
+    }
+
+    private void applyFrame(ProtocolCodec.DecodedFrame frame) {
+        try {
+            frameSink.accept(frame);
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private void applyMalformed(BinaryDecodingException exception) {
+        try {
+            malformedSink.accept(exception);
+        } finally {
+            queueDepth.decrementAndGet();
+        }
+    }
+
+    private static final class SnapshotMailbox {
+        private final AtomicReference<ProtocolCodec.DecodedFrame> pending;
+
+        private SnapshotMailbox(ProtocolCodec.DecodedFrame frame) {
+            pending = new AtomicReference<>(frame);
+        }
+
+        private boolean replace(ProtocolCodec.DecodedFrame frame) {
+            ProtocolCodec.DecodedFrame current = pending.get();
+
+            while (current != null) {
+                if (pending.compareAndSet(current, frame)) {
+                    return true;
+                }
+
+                current = pending.get();
+            }
+
+            // Already taken by the apply executor; the caller has to queue a new mailbox.
+            return false;
+        }
+
+        private ProtocolCodec.DecodedFrame take() {
+            return pending.getAndSet(null);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.landon.mixin.client;
+
+import me.landon.client.runtime.CompanionClientRuntime;
+import net.minecraft.client.network.ClientPlayNetworkHandler;
+import net.minecraft.network.packet.s2c.play.InventoryS2CPacket;
+import net.minecraft.network.packet.s2c.play.ScreenHandlerSlotUpdateS2CPacket;
+import net.minecraft.network.packet.s2c.play.SetPlayerInventoryS2CPacket;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientPlayNetworkHandler.class)
+public abstract class ClientPlayNetworkHandlerInventoryOverlayMixin {
+    @Inject(method = "onInventory", at = @At("TAIL"))
+    private void cosmicprisonsmod$markInventoryUpdated(
+            InventoryS2CPacket packet, CallbackInfo callbackInfo) {
+        CompanionClientRuntime.getInstance().onPlayerInventoryUpdated();
+    }
+
+    @Inject(method = "onScreenHandlerSlotUpdate", at = @At("TAIL"))
+    private void cosmicprisonsmod$markSlotUpdated(
+            ScreenHandlerSlotUpdateS2CPacket packet, CallbackInfo callbackInfo) {
+        CompanionClientRuntime.getInstance().onPlayerInventoryUpdated();
+    }
+
+    @Inject(method = "onSetPlayerInventory", at = @At("TAIL"))
+    private void cosmicprisonsmod$markPlayerInventorySlotUpdated(
+            SetPlayerInventoryS2CPacket packet, CallbackInfo callbackInfo) {
+        CompanionClientRuntime.getInstance().onPlayerInventoryUpdated();
+    }
+}
@@ -21,7 +21,8 @@ public abstract class HandledScreenItemOverlayMixin<T extends ScreenHandler> {
     @Inject(method = "drawSlot", at = @At("TAIL"))
     private void cosmicprisonsmod$drawInventoryItemOverlay(
             DrawContext drawContext, Slot slot, int mouseX, int mouseY, CallbackInfo callbackInfo) {
-        CompanionClientRuntime.getInstance().renderHandledScreenSlotOverlay(drawContext, slot);
+        CompanionClientRuntime.getInstance()
+                .renderHandledScreenSlotOverlay(drawContext, handler, slot);
     }
 
     @Inject(
@@ -0,0 +1,85 @@
+package me.landon.client.runtime;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Single-pass HUD value scanners against the legacy parsers they replaced, one batch per op. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HudWidgetParserBenchmark {
+    private static final String[] DURATIONS = {
+        "17m",
+        "1h 4m",
+        "3m 14s",
+        "Check in 45m",
+        "Not Scheduled",
+        "Max Day (2d 4h)",
+        "Now",
+        "12m | total=20m"
+    };
+    private static final String[] COMPACT_AMOUNTS = {
+        "412K", "1.2M", "2K", "1,204", "9.25B", "0", "37.5K", "1T"
+    };
+    private static final String[] LEADERBOARD_VALUES = {
+        "9.2B", "$1.45M", "1,204,551", "88K Blocks", "412", "3.1T", "17.5k", "n/a"
+    };
+
+    @Benchmark
+    public void durationScanner(Blackhole blackhole) {
+        for (String duration : DURATIONS) {
+            blackhole.consume(HudWidgetCatalog.parseDurationSeconds(duration));
+        }
+    }
+
+    @Benchmark
+    public void durationLegacy(Blackhole blackhole) {
+        for (String duration : DURATIONS) {
+            blackhole.consume(LegacyHudWidgetParsers.parseDurationSeconds(duration));
+        }
+    }
+
+    @Benchmark
+    public long compactAmountScanner() {
+        long sum = 0L;
+        for (String amount : COMPACT_AMOUNTS) {
+            sum += HudWidgetCatalog.parseCompactAmount(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long compactAmountLegacy() {
+        long sum = 0L;
+        for (String amount : COMPACT_AMOUNTS) {
+            sum += LegacyHudWidgetParsers.parseCompactAmount(amount);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void leaderboardValueScanner(Blackhole blackhole) {
+        for (String value : LEADERBOARD_VALUES) {
+            blackhole.consume(HudWidgetCatalog.parseLeaderboardValue(value, true));
+        }
+    }
+
+    @Benchmark
+    public void leaderboardValueLegacy(Blackhole blackhole) {
+        for (String value : LEADERBOARD_VALUES) {
+            blackhole.consume(LegacyHudWidgetParsers.parseLeaderboardValue(value, true));
+        }
+    }
+}
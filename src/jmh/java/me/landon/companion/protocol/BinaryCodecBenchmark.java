@@ -0,0 +1,111 @@
+package me.landon.companion.protocol;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Primitive read/write throughput; each operation processes one batch of values. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryCodecBenchmark {
+    private static final int VAR_INT_BATCH = 1024;
+    private static final String[] HUD_STRINGS = {
+        "events",
+        "Meteor: 17m",
+        "Next Reboot: Not Scheduled",
+        "Gang Join: 3m 14s",
+        "Coal: 412K/1.2M x2",
+        "Next Level Cap Day Unlock: Max Day"
+    };
+    private static final int STRING_BATCH = 64;
+
+    private final int[] varInts = new int[VAR_INT_BATCH];
+    private final BinaryWriter writer = new BinaryWriter();
+    private ByteBuffer varIntView;
+    private ByteBuffer stringView;
+
+    @Setup
+    public void setUp() {
+        BinaryWriter source = new BinaryWriter();
+
+        // Mixes 1 to 5 byte encodings the way entity ids, counts and ttl values do on the wire.
+        for (int index = 0; index < varInts.length; index++) {
+            varInts[index] =
+                    switch (index % 4) {
+                        case 0 -> index % 128;
+                        case 1 -> 1_000 + index;
+                        case 2 -> 100_000 + index;
+                        default -> Integer.MAX_VALUE - index;
+                    };
+            source.writeVarInt(varInts[index]);
+        }
+
+        varIntView = ByteBuffer.wrap(source.toByteArray()).asReadOnlyBuffer();
+        source.reset();
+
+        for (int index = 0; index < STRING_BATCH; index++) {
+            source.writeString(
+                    HUD_STRINGS[index % HUD_STRINGS.length], ProtocolConstants.MAX_STRING_BYTES);
+        }
+
+        stringView = ByteBuffer.wrap(source.toByteArray()).asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public int readVarInt() throws BinaryDecodingException {
+        BinaryReader reader = BinaryReader.wrap(varIntView);
+        int sum = 0;
+
+        for (int index = 0; index < VAR_INT_BATCH; index++) {
+            sum += reader.readVarInt();
+        }
+
+        return sum;
+    }
+
+    @Benchmark
+    public void readString(Blackhole blackhole) throws BinaryDecodingException {
+        BinaryReader reader = BinaryReader.wrap(stringView);
+
+        for (int index = 0; index < STRING_BATCH; index++) {
+            blackhole.consume(reader.readString(ProtocolConstants.MAX_STRING_BYTES));
+        }
+    }
+
+    @Benchmark
+    public int writeVarInt() {
+        writer.reset();
+
+        for (int value : varInts) {
+            writer.writeVarInt(value);
+        }
+
+        return writer.size();
+    }
+
+    @Benchmark
+    public int writeString() {
+        writer.reset();
+
+        for (int index = 0; index < STRING_BATCH; index++) {
+            writer.writeString(
+                    HUD_STRINGS[index % HUD_STRINGS.length], ProtocolConstants.MAX_STRING_BYTES);
+        }
+
+        return writer.size();
+    }
+}
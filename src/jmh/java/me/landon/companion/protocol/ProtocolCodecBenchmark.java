@@ -0,0 +1,135 @@
+package me.landon.companion.protocol;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Full-frame encode/decode throughput for the largest frames the server sends. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolCodecBenchmark {
+    /** Realistic worst-case frames, each within {@link ProtocolConstants#MAX_PACKET_BYTES}. */
+    public enum FrameMix {
+        HUD_WIDGET_STATE,
+        ENTITY_MARKER_DELTA,
+        INVENTORY_ITEM_OVERLAYS
+    }
+
+    @Param({"HUD_WIDGET_STATE", "ENTITY_MARKER_DELTA", "INVENTORY_ITEM_OVERLAYS"})
+    public FrameMix frame;
+
+    private final ProtocolCodec codec = new ProtocolCodec();
+    private final BinaryWriter writer = new BinaryWriter();
+    private ProtocolMessage message;
+    private byte[] encoded;
+    private ByteBuffer encodedView;
+    private ByteBuffer compressedView;
+
+    @Setup
+    public void setUp() {
+        message =
+                switch (frame) {
+                    case HUD_WIDGET_STATE -> maxHudWidgetState();
+                    case ENTITY_MARKER_DELTA -> maxEntityMarkerDelta();
+                    case INVENTORY_ITEM_OVERLAYS -> maxInventoryItemOverlays();
+                };
+        encoded = codec.encode(message);
+
+        if (encoded.length > ProtocolConstants.MAX_PACKET_BYTES) {
+            throw new IllegalStateException(frame + " frame is too large: " + encoded.length);
+        }
+
+        encodedView = ByteBuffer.wrap(encoded).asReadOnlyBuffer();
+        BinaryWriter compressedWriter = new BinaryWriter();
+        codec.encodeCompressed(message, compressedWriter, null);
+        compressedView = ByteBuffer.wrap(compressedWriter.toByteArray()).asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public byte[] encodeToArray() {
+        return codec.encode(message);
+    }
+
+    @Benchmark
+    public int encodeIntoReusedWriter() {
+        writer.reset();
+        codec.encode(message, writer);
+        return writer.size();
+    }
+
+    @Benchmark
+    public ProtocolCodec.DecodedFrame decodeArray() throws BinaryDecodingException {
+        return codec.decode(encoded);
+    }
+
+    @Benchmark
+    public ProtocolCodec.DecodedFrame decodeReadOnlyView() throws BinaryDecodingException {
+        return codec.decode(encodedView);
+    }
+
+    @Benchmark
+    public ProtocolCodec.DecodedFrame decodeCompressed() throws BinaryDecodingException {
+        return codec.decode(compressedView);
+    }
+
+    private static ProtocolMessage maxHudWidgetState() {
+        String[] lines = {
+            "Meteor: 17m", "KOTH: 45m", "Merchant: 1h 4m", "Gang Join: 3m", "Coal: 412K/1.2M"
+        };
+        List<ProtocolMessage.HudWidget> widgets = new ArrayList<>();
+
+        for (int widget = 0; widget < ProtocolConstants.MAX_WIDGET_COUNT; widget++) {
+            List<String> widgetLines = new ArrayList<>();
+
+            for (int line = 0; line < ProtocolConstants.MAX_WIDGET_LINES; line++) {
+                widgetLines.add(lines[(widget + line) % lines.length]);
+            }
+
+            widgets.add(new ProtocolMessage.HudWidget("widget_" + widget, widgetLines, 30));
+        }
+
+        return new ProtocolMessage.HudWidgetStateS2C(widgets);
+    }
+
+    private static ProtocolMessage maxEntityMarkerDelta() {
+        int[] addIds = new int[ProtocolConstants.MAX_ENTITY_DELTA];
+
+        for (int index = 0; index < addIds.length; index++) {
+            addIds[index] = 100_000 + index * 7;
+        }
+
+        return new ProtocolMessage.EntityMarkerDeltaS2C(
+                ProtocolConstants.MARKER_TYPE_SAME_GANG, IntList.of(addIds), IntList.of());
+    }
+
+    private static ProtocolMessage maxInventoryItemOverlays() {
+        List<ProtocolMessage.InventoryItemOverlay> overlays = new ArrayList<>();
+
+        for (int index = 0; index < ProtocolConstants.MAX_ITEM_OVERLAY_ENTRIES; index++) {
+            overlays.add(
+                    new ProtocolMessage.InventoryItemOverlay(
+                            index % (ProtocolConstants.MAX_INVENTORY_SLOT_INDEX + 1),
+                            ProtocolConstants.OVERLAY_TYPE_MONEY_NOTE,
+                            (index + 1) + ".5K"));
+        }
+
+        return new ProtocolMessage.InventoryItemOverlaysS2C(overlays);
+    }
+}
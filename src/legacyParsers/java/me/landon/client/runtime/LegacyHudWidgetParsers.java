@@ -0,0 +1,205 @@
+package me.landon.client.runtime;
+
+import java.util.Locale;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The regex and {@code toUpperCase} based HUD value parsers that {@code HudWidgetCatalog} used
+ * before its single-pass scanners, kept verbatim as the reference for differential tests and
+ * benchmarks.
+ */
+final class LegacyHudWidgetParsers {
+    private static final Pattern DURATION_PART_PATTERN =
+            Pattern.compile("(\\d+)\\s*([dhms])", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LEADERBOARD_VALUE_PATTERN =
+            Pattern.compile("(-?\\d+(?:\\.\\d+)?)\\s*([kKmMbBtT]?)");
+
+    private LegacyHudWidgetParsers() {}
+
+    static OptionalLong parseDurationSeconds(String statusText) {
+        if (statusText == null) {
+            return OptionalLong.empty();
+        }
+
+        String normalized = normalizeToken(primaryStatusSegment(statusText));
+        if (normalized.isEmpty()) {
+            return OptionalLong.empty();
+        }
+
+        if (normalized.startsWith("check in ")) {
+            normalized = normalized.substring("check in ".length()).trim();
+        }
+
+        if (normalized.endsWith(")") && normalized.contains("(")) {
+            int open = normalized.lastIndexOf('(');
+            if (open >= 0) {
+                OptionalLong nested =
+                        parseDurationSeconds(
+                                normalized.substring(open + 1, normalized.length() - 1));
+                if (nested.isPresent()) {
+                    return nested;
+                }
+                normalized = normalized.substring(0, open).trim();
+            }
+        }
+
+        if ("now".equals(normalized) || "active".equals(normalized)) {
+            return OptionalLong.of(0L);
+        }
+
+        if (isUnavailableStatus(normalized)) {
+            return OptionalLong.empty();
+        }
+
+        if (normalized.chars().allMatch(Character::isDigit)) {
+            try {
+                return OptionalLong.of(Long.parseLong(normalized));
+            } catch (NumberFormatException ignored) {
+                return OptionalLong.empty();
+            }
+        }
+
+        Matcher matcher = DURATION_PART_PATTERN.matcher(normalized);
+        long totalSeconds = 0L;
+        boolean foundPart = false;
+
+        while (matcher.find()) {
+            foundPart = true;
+            long amount;
+            try {
+                amount = Long.parseLong(matcher.group(1));
+            } catch (NumberFormatException ignored) {
+                return OptionalLong.empty();
+            }
+
+            char unit = Character.toLowerCase(matcher.group(2).charAt(0));
+            long multiplier =
+                    switch (unit) {
+                        case 'd' -> 86_400L;
+                        case 'h' -> 3_600L;
+                        case 'm' -> 60L;
+                        case 's' -> 1L;
+                        default -> 0L;
+                    };
+
+            if (multiplier <= 0L) {
+                continue;
+            }
+
+            if (amount > Long.MAX_VALUE / multiplier) {
+                return OptionalLong.of(Long.MAX_VALUE);
+            }
+
+            long seconds = amount * multiplier;
+            if (Long.MAX_VALUE - totalSeconds < seconds) {
+                return OptionalLong.of(Long.MAX_VALUE);
+            }
+
+            totalSeconds += seconds;
+        }
+
+        if (!foundPart) {
+            return OptionalLong.empty();
+        }
+
+        return OptionalLong.of(totalSeconds);
+    }
+
+    static OptionalDouble parseLeaderboardValue(
+            String valueText, boolean allowBillionSuffix) {
+        if (valueText == null || valueText.isBlank()) {
+            return OptionalDouble.empty();
+        }
+
+        String normalized = valueText.replace(",", "").trim();
+        Matcher matcher = LEADERBOARD_VALUE_PATTERN.matcher(normalized);
+        if (!matcher.find()) {
+            return OptionalDouble.empty();
+        }
+
+        double numeric;
+        try {
+            numeric = Double.parseDouble(matcher.group(1));
+        } catch (NumberFormatException ignored) {
+            return OptionalDouble.empty();
+        }
+
+        double multiplier = 1.0D;
+        String suffixText = matcher.group(2);
+        if (suffixText != null && !suffixText.isBlank()) {
+            char suffix = Character.toLowerCase(suffixText.charAt(0));
+            multiplier =
+                    switch (suffix) {
+                        case 'k' -> 1_000.0D;
+                        case 'm' -> 1_000_000.0D;
+                        case 'b' -> allowBillionSuffix ? 1_000_000_000.0D : 1.0D;
+                        case 't' -> 1_000_000_000_000.0D;
+                        default -> 1.0D;
+                    };
+        }
+
+        double value = Math.max(0.0D, numeric * multiplier);
+        return OptionalDouble.of(value);
+    }
+
+    static long parseCompactAmount(String value) {
+        if (value == null || value.isBlank()) {
+            return -1L;
+        }
+
+        String trimmed = value.trim().toUpperCase(Locale.ROOT).replace(",", "");
+        if (trimmed.isEmpty()) {
+            return -1L;
+        }
+
+        long multiplier = 1L;
+        char suffix = trimmed.charAt(trimmed.length() - 1);
+        if (suffix == 'K' || suffix == 'M' || suffix == 'B' || suffix == 'T') {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+            multiplier =
+                    switch (suffix) {
+                        case 'K' -> 1_000L;
+                        case 'M' -> 1_000_000L;
+                        case 'B' -> 1_000_000_000L;
+                        case 'T' -> 1_000_000_000_000L;
+                        default -> 1L;
+                    };
+        }
+
+        try {
+            double parsed = Double.parseDouble(trimmed);
+            if (parsed < 0.0D) {
+                return -1L;
+            }
+            return Math.round(parsed * multiplier);
+        } catch (NumberFormatException ignored) {
+            return -1L;
+        }
+    }
+
+    private static boolean isUnavailableStatus(String status) {
+        return "unavailable".equals(status)
+                || "not scheduled".equals(status)
+                || "max day".equals(status)
+                || "n/a".equals(status);
+    }
+
+    private static String normalizeToken(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String primaryStatusSegment(String value) {
+        if (value == null || value.isBlank()) {
+            return "";
+        }
+        int metadataSeparator = value.indexOf('|');
+        String primary = metadataSeparator >= 0 ? value.substring(0, metadataSeparator) : value;
+        return primary.trim();
+    }
+}
@@ -85,6 +85,7 @@ public final class CompanionConfig {
     public boolean logMalformedOncePerConnection = true;
     public int pingVisualDurationSeconds = PING_VISUAL_DURATION_SECONDS_DEFAULT;
     public boolean pingParticlesEnabled = true;
+    public boolean hudPanelRenderCaching = true;
 
     public static CompanionConfig defaults() {
         CompanionConfig config = new CompanionConfig();
@@ -102,9 +103,41 @@ public final class CompanionConfig {
         config.hudLeaderboardVisibility = defaultHudLeaderboardVisibility();
         config.pingVisualDurationSeconds = PING_VISUAL_DURATION_SECONDS_DEFAULT;
         config.pingParticlesEnabled = true;
+        config.hudPanelRenderCaching = true;
         return config;
     }
 
+    /** Returns a deep copy; callers mutate the copy and publish it instead of editing in place. */
+    public CompanionConfig copy() {
+        CompanionConfig copy = new CompanionConfig();
+        copy.allowedServerIds = new ArrayList<>(allowedServerIds);
+        copy.enablePayloadCodecFallback = enablePayloadCodecFallback;
+        copy.featureToggles = new LinkedHashMap<>(featureToggles);
+        copy.hudWidgetPositions = new LinkedHashMap<>();
+        for (Map.Entry<String, HudWidgetPosition> entry : hudWidgetPositions.entrySet()) {
+            HudWidgetPosition position = entry.getValue();
+            copy.hudWidgetPositions.put(
+                    entry.getKey(),
+                    position == null ? null : new HudWidgetPosition(position.x, position.y));
+        }
+        copy.hudWidgetScales = new LinkedHashMap<>(hudWidgetScales);
+        copy.hudWidgetWidthMultipliers = new LinkedHashMap<>(hudWidgetWidthMultipliers);
+        copy.hudEventsCompactMode = hudEventsCompactMode;
+        copy.hudSatchelsCompactMode = hudSatchelsCompactMode;
+        copy.hudLeaderboardsCompactMode = hudLeaderboardsCompactMode;
+        copy.hudLeaderboardsCycleMode = hudLeaderboardsCycleMode;
+        copy.hudEventVisibility = new LinkedHashMap<>(hudEventVisibility);
+        copy.hudLeaderboardVisibility = new LinkedHashMap<>(hudLeaderboardVisibility);
+        copy.serverSignaturePolicy = serverSignaturePolicy;
+        copy.requireServerSignature = requireServerSignature;
+        copy.serverSignaturePublicKeys = new ArrayList<>(serverSignaturePublicKeys);
+        copy.logMalformedOncePerConnection = logMalformedOncePerConnection;
+        copy.pingVisualDurationSeconds = pingVisualDurationSeconds;
+        copy.pingParticlesEnabled = pingParticlesEnabled;
+        copy.hudPanelRenderCaching = hudPanelRenderCaching;
+        return copy;
+    }
+
     public void sanitize() {
         if (allowedServerIds == null) {
             allowedServerIds = new ArrayList<>();
@@ -282,6 +315,18 @@ public final class CompanionConfig {
             return new HudWidgetPosition(clamp01(x), clamp01(y));
         }
 
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof HudWidgetPosition position
+                    && Double.compare(x, position.x) == 0
+                    && Double.compare(y, position.y) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(x) + Double.hashCode(y);
+        }
+
         private static double clamp01(double value) {
             if (Double.isNaN(value) || Double.isInfinite(value)) {
                 return 0.0D;
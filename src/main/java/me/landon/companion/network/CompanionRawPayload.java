@@ -1,5 +1,6 @@
 package me.landon.companion.network;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Objects;
 import me.landon.companion.protocol.ProtocolConstants;
@@ -16,15 +17,34 @@ public final class CompanionRawPayload implements CustomPayload {
     private final byte[] payloadBytes;
 
     public CompanionRawPayload(byte[] payloadBytes) {
-        this.payloadBytes = Objects.requireNonNull(payloadBytes, "payloadBytes").clone();
+        this(payloadBytes, true);
+    }
+
+    private CompanionRawPayload(byte[] payloadBytes, boolean defensiveCopy) {
+        Objects.requireNonNull(payloadBytes, "payloadBytes");
+        this.payloadBytes = defensiveCopy ? payloadBytes.clone() : payloadBytes;
 
         if (this.payloadBytes.length > ProtocolConstants.MAX_PACKET_BYTES) {
             throw new IllegalArgumentException("Companion payload exceeds maximum allowed bytes");
         }
     }
 
+    /**
+     * Takes ownership of {@code payloadBytes} without copying. The caller must not touch the array
+     * afterwards.
+     */
+    public static CompanionRawPayload ofOwned(byte[] payloadBytes) {
+        return new CompanionRawPayload(payloadBytes, false);
+    }
+
+    /** Copies the first {@code length} bytes of a reused encode buffer into a new payload. */
+    public static CompanionRawPayload copyOf(byte[] source, int length) {
+        return ofOwned(Arrays.copyOf(source, length));
+    }
+
     private static CompanionRawPayload decode(PacketByteBuf buf) {
-        return new CompanionRawPayload(buf.readByteArray(ProtocolConstants.MAX_PACKET_BYTES));
+        // readByteArray already allocates a fresh array for us, so there is nothing to protect.
+        return ofOwned(buf.readByteArray(ProtocolConstants.MAX_PACKET_BYTES));
     }
 
     private static void encode(CompanionRawPayload payload, PacketByteBuf buf) {
@@ -39,4 +59,9 @@ public final class CompanionRawPayload implements CustomPayload {
     public byte[] payloadBytes() {
         return Arrays.copyOf(payloadBytes, payloadBytes.length);
     }
+
+    /** Returns a read-only view over the payload for zero-copy decoding. */
+    public ByteBuffer payloadView() {
+        return ByteBuffer.wrap(payloadBytes).asReadOnlyBuffer();
+    }
 }
@@ -1,15 +1,36 @@
 package me.landon.companion.protocol;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 public final class BinaryReader {
     private static final int VAR_INT_MAX_BYTES = 5;
 
-    private final byte[] data;
-    private int cursor;
+    private final ByteBuffer data;
+    private byte[] stringScratch;
 
     public BinaryReader(byte[] data) {
-        this.data = data.clone();
+        this(ByteBuffer.wrap(data.clone()));
+    }
+
+    private BinaryReader(ByteBuffer data) {
+        this.data = data;
+    }
+
+    /**
+     * Reads {@code data} in place. The caller hands over the array and must not mutate it while
+     * the reader is in use.
+     */
+    public static BinaryReader wrap(byte[] data) {
+        return new BinaryReader(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Reads the remaining bytes of {@code data} in place without moving its position. Read-only
+     * and direct buffers are supported.
+     */
+    public static BinaryReader wrap(ByteBuffer data) {
+        return new BinaryReader(data.slice());
     }
 
     public int readVarInt() throws BinaryDecodingException {
@@ -58,20 +79,27 @@ public final class BinaryReader {
             throw new BinaryDecodingException("Unexpected end of packet");
         }
 
-        return data[cursor++];
+        return data.get();
     }
 
     public byte[] readBytes(int byteCount) throws BinaryDecodingException {
-        if (byteCount < 0 || byteCount > remaining()) {
-            throw new BinaryDecodingException("Requested byte count out of bounds: " + byteCount);
-        }
+        checkByteCount(byteCount);
 
         byte[] out = new byte[byteCount];
-        System.arraycopy(data, cursor, out, 0, byteCount);
-        cursor += byteCount;
+        data.get(out);
         return out;
     }
 
+    /** Returns a view of the next {@code byteCount} bytes and skips past them without copying. */
+    public ByteBuffer readSlice(int byteCount) throws BinaryDecodingException {
+        checkByteCount(byteCount);
+
+        int position = data.position();
+        ByteBuffer slice = data.slice(position, byteCount);
+        data.position(position + byteCount);
+        return slice;
+    }
+
     public String readString(int maxBytes) throws BinaryDecodingException {
         int length = readVarInt();
 
@@ -79,15 +107,45 @@ public final class BinaryReader {
             throw new BinaryDecodingException("String byte length out of bounds: " + length);
         }
 
-        byte[] utf8 = readBytes(length);
-        return new String(utf8, StandardCharsets.UTF_8);
+        return readUtf8(length);
+    }
+
+    /** Decodes {@code byteCount} UTF-8 bytes straight from the backing buffer. */
+    public String readUtf8(int byteCount) throws BinaryDecodingException {
+        checkByteCount(byteCount);
+
+        if (data.hasArray()) {
+            int position = data.position();
+            String value =
+                    new String(
+                            data.array(),
+                            data.arrayOffset() + position,
+                            byteCount,
+                            StandardCharsets.UTF_8);
+            data.position(position + byteCount);
+            return value;
+        }
+
+        // Read-only and direct buffers hide their storage, so stage through one reused array.
+        if (stringScratch == null || stringScratch.length < byteCount) {
+            stringScratch = new byte[Math.max(byteCount, 64)];
+        }
+
+        data.get(stringScratch, 0, byteCount);
+        return new String(stringScratch, 0, byteCount, StandardCharsets.UTF_8);
     }
 
     public int remaining() {
-        return data.length - cursor;
+        return data.remaining();
     }
 
     public boolean hasRemaining() {
-        return cursor < data.length;
+        return data.hasRemaining();
+    }
+
+    private void checkByteCount(int byteCount) throws BinaryDecodingException {
+        if (byteCount < 0 || byteCount > remaining()) {
+            throw new BinaryDecodingException("Requested byte count out of bounds: " + byteCount);
+        }
     }
 }
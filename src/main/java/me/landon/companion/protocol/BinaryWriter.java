@@ -1,49 +1,142 @@
 package me.landon.companion.protocol;
 
-import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public final class BinaryWriter {
-    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    private static final int DEFAULT_INITIAL_CAPACITY = 64;
+    private static final byte UTF8_REPLACEMENT = '?';
+
+    private byte[] buffer;
+    private int size;
+
+    public BinaryWriter() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public BinaryWriter(int initialCapacity) {
+        buffer = new byte[Math.max(initialCapacity, 16)];
+    }
 
     public void writeVarInt(int value) {
+        ensureCapacity(5);
         int current = value;
 
         while ((current & 0xFFFFFF80) != 0) {
-            output.write((current & 0x7F) | 0x80);
+            buffer[size++] = (byte) ((current & 0x7F) | 0x80);
             current >>>= 7;
         }
 
-        output.write(current & 0x7F);
+        buffer[size++] = (byte) (current & 0x7F);
     }
 
     public void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+
         for (int i = Long.BYTES - 1; i >= 0; i--) {
-            output.write((int) (value >>> (i * 8)) & 0xFF);
+            buffer[size++] = (byte) (value >>> (i * 8));
         }
     }
 
     public void writeByte(int value) {
-        output.write(value & 0xFF);
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
     }
 
     public void writeBytes(byte[] data) {
-        output.writeBytes(data);
+        ensureCapacity(data.length);
+        System.arraycopy(data, 0, buffer, size, data.length);
+        size += data.length;
     }
 
     public void writeString(String value, int maxBytes) {
-        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        int utf8Length = utf8Length(value);
 
-        if (utf8.length > maxBytes) {
+        if (utf8Length > maxBytes) {
             throw new IllegalArgumentException(
-                    "String too large for protocol field: " + utf8.length);
+                    "String too large for protocol field: " + utf8Length);
         }
 
-        writeVarInt(utf8.length);
-        writeBytes(utf8);
+        writeVarInt(utf8Length);
+        ensureCapacity(utf8Length);
+        writeUtf8(value);
+    }
+
+    /** Discards the written bytes but keeps the grown buffer for the next frame. */
+    public void reset() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Exposes the internal buffer; only the first {@link #size()} bytes are meaningful. */
+    public byte[] buffer() {
+        return buffer;
     }
 
     public byte[] toByteArray() {
-        return output.toByteArray();
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        int required = size + additionalBytes;
+
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+    }
+
+    // Mirrors String.getBytes(UTF_8), including '?' for unpaired surrogates, without allocating.
+    private static int utf8Length(String value) {
+        int length = 0;
+
+        for (int index = 0; index < value.length(); index++) {
+            char current = value.charAt(index);
+
+            if (current < 0x80) {
+                length++;
+            } else if (current < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(current)
+                    && index + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                length += 4;
+                index++;
+            } else if (Character.isSurrogate(current)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+
+        return length;
+    }
+
+    private void writeUtf8(String value) {
+        for (int index = 0; index < value.length(); index++) {
+            char current = value.charAt(index);
+
+            if (current < 0x80) {
+                buffer[size++] = (byte) current;
+            } else if (current < 0x800) {
+                buffer[size++] = (byte) (0xC0 | (current >> 6));
+                buffer[size++] = (byte) (0x80 | (current & 0x3F));
+            } else if (Character.isHighSurrogate(current)
+                    && index + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(current, value.charAt(++index));
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(current)) {
+                buffer[size++] = UTF8_REPLACEMENT;
+            } else {
+                buffer[size++] = (byte) (0xE0 | (current >> 12));
+                buffer[size++] = (byte) (0x80 | ((current >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (current & 0x3F));
+            }
+        }
     }
 }
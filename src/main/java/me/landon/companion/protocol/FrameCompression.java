@@ -0,0 +1,113 @@
+package me.landon.companion.protocol;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate helpers for the compressed frame envelope.
+ *
+ * <p>Both sides prime the stream with {@link #PRESET_DICTIONARY}, so short frames full of widget
+ * ids and event labels compress well. Inflation is bounded by the size declared in the envelope.
+ */
+final class FrameCompression {
+    // zlib favours matches near the end of the dictionary, so the most frequent strings go last.
+    static final byte[] PRESET_DICTIONARY =
+            String.join(
+                            "",
+                            "Rank Kit Overlord: ",
+                            "Next Level Cap Day Unlock: Max Day",
+                            "Credit Shop Reset: ",
+                            "Flash Sale: Jackpot: Altar Spawn: Astral Gang: Meteorite: ",
+                            "leaderboard_cycleleaderboard_levelleaderboard_blocks",
+                            "leaderboard_gangleaderboard_gift",
+                            "Level Top: Blocks Top: Gift Top: Gang Top: ",
+                            "Next Reboot: Not Scheduled",
+                            "Coal: Iron: Gold: Diamond: Emerald: ",
+                            "satchelsgangcooldownsevents",
+                            "Gang/Truce Ping: Gang Join: ",
+                            "Merchant: KOTH: Meteor: ",
+                            "1h 2m 3s 4m 5m 10s 15s 30s 45m ")
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private FrameCompression() {}
+
+    static byte[] deflate(byte[] source, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            deflater.setDictionary(PRESET_DICTIONARY);
+            deflater.setInput(source, 0, length);
+            deflater.finish();
+
+            byte[] out = new byte[Math.max(64, length / 2)];
+            int size = 0;
+
+            while (!deflater.finished()) {
+                if (size == out.length) {
+                    out = Arrays.copyOf(out, out.length * 2);
+                }
+
+                size += deflater.deflate(out, size, out.length - size);
+            }
+
+            return Arrays.copyOf(out, size);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflates {@code compressed} into exactly {@code declaredSize} bytes.
+     *
+     * <p>The output buffer is sized from the declared length, which callers bound before calling,
+     * and a stream that would produce more or fewer bytes is rejected.
+     */
+    static byte[] inflate(ByteBuffer compressed, int declaredSize) throws BinaryDecodingException {
+        Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(compressed);
+            byte[] out = new byte[declaredSize];
+            int size = 0;
+
+            while (size < out.length) {
+                int inflated = inflater.inflate(out, size, out.length - size);
+
+                if (inflated > 0) {
+                    size += inflated;
+                } else if (inflater.needsDictionary()) {
+                    inflater.setDictionary(PRESET_DICTIONARY);
+                } else {
+                    break;
+                }
+            }
+
+            if (size != declaredSize) {
+                throw new BinaryDecodingException("Compressed frame shorter than declared size");
+            }
+
+            // Consumes the trailing checksum and proves the stream has no output left.
+            if (inflater.inflate(new byte[1]) != 0) {
+                throw new BinaryDecodingException("Compressed frame exceeds declared size");
+            }
+
+            if (!inflater.finished()) {
+                throw new BinaryDecodingException("Compressed frame is truncated");
+            }
+
+            if (inflater.getRemaining() != 0) {
+                throw new BinaryDecodingException("Trailing bytes after compressed frame");
+            }
+
+            return out;
+        } catch (DataFormatException | IllegalArgumentException ex) {
+            throw new BinaryDecodingException("Malformed compressed frame: " + ex.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
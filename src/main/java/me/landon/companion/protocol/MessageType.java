@@ -6,7 +6,12 @@ public enum MessageType {
     HUD_WIDGET_STATE_S2C(3),
     ENTITY_MARKER_DELTA_S2C(4),
     PING_INTENT_C2S(ProtocolConstants.MESSAGE_TYPE_PING_INTENT_C2S),
-    INVENTORY_ITEM_OVERLAYS_S2C(10);
+    INVENTORY_ITEM_OVERLAYS_S2C(10),
+    HUD_WIDGET_DELTA_S2C(12),
+    STRING_TABLE_S2C(13);
+
+    // Ids are small and dense, so lookups index an array instead of scanning values().
+    private static final MessageType[] BY_ID = buildLookup();
 
     private final int id;
 
@@ -19,12 +24,28 @@ public enum MessageType {
     }
 
     public static MessageType fromId(int id) throws BinaryDecodingException {
+        if (id >= 0 && id < BY_ID.length && BY_ID[id] != null) {
+            return BY_ID[id];
+        }
+
+        throw new BinaryDecodingException("Unknown message type: " + id);
+    }
+
+    private static MessageType[] buildLookup() {
+        int maxId = 0;
         for (MessageType value : values()) {
-            if (value.id == id) {
-                return value;
+            maxId = Math.max(maxId, value.id);
+        }
+
+        MessageType[] byId = new MessageType[maxId + 1];
+        for (MessageType value : values()) {
+            if (byId[value.id] != null) {
+                throw new IllegalStateException("Duplicate message type id: " + value.id);
             }
+
+            byId[value.id] = value;
         }
 
-        throw new BinaryDecodingException("Unknown message type: " + id);
+        return byId;
     }
 }
@@ -1,14 +1,86 @@
 package me.landon.companion.protocol;
 
+import it.unimi.dsi.fastutil.ints.IntImmutableList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 public final class ProtocolCodec {
     public record DecodedFrame(int protocolVersion, ProtocolMessage message) {}
 
+    /** Decodes the body of one message type; the version and type id are already consumed. */
+    @FunctionalInterface
+    public interface MessageDecoder {
+        ProtocolMessage decode(BinaryReader reader, ProtocolStringTable stringTable)
+                throws BinaryDecodingException;
+    }
+
+    private final MessageDecoder[] decoders = new MessageDecoder[MessageType.values().length];
+
+    public ProtocolCodec() {
+        registerBuiltInDecoders();
+    }
+
+    /**
+     * Registers (or replaces) the decoder used for {@code messageType}. Register decoders before
+     * the codec is shared with the decode thread.
+     */
+    public ProtocolCodec register(MessageType messageType, MessageDecoder decoder) {
+        decoders[messageType.ordinal()] = Objects.requireNonNull(decoder, "decoder");
+        return this;
+    }
+
     public byte[] encode(ProtocolMessage message) {
         BinaryWriter writer = new BinaryWriter();
+        encode(message, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Appends the encoded frame to {@code writer}. Callers that send often can keep one writer
+     * and {@link BinaryWriter#reset() reset} it between frames to avoid per-frame buffers.
+     */
+    public void encode(ProtocolMessage message, BinaryWriter writer) {
+        encode(message, writer, null);
+    }
+
+    /**
+     * Appends the encoded frame to {@code writer}, writing HUD strings already defined in {@code
+     * stringTable} as references. Encoded {@link ProtocolMessage.StringTableS2C} frames are applied
+     * to the table, mirroring what the decoding side does.
+     */
+    public void encode(
+            ProtocolMessage message, BinaryWriter writer, ProtocolStringTable stringTable) {
         writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        encodeMessage(message, writer, stringTable);
+    }
+
+    /**
+     * Appends {@code message} wrapped in the compressed frame envelope: the version, {@link
+     * ProtocolConstants#COMPRESSED_FRAME_MARKER}, the inflated size and the deflated message. Only
+     * send this to peers that advertised {@link
+     * ProtocolConstants#CLIENT_CAPABILITY_COMPRESSED_FRAMES}.
+     */
+    public void encodeCompressed(
+            ProtocolMessage message, BinaryWriter writer, ProtocolStringTable stringTable) {
+        BinaryWriter body = new BinaryWriter();
+        encodeMessage(message, body, stringTable);
+
+        if (body.size() > ProtocolConstants.MAX_DECOMPRESSED_FRAME_BYTES) {
+            throw new IllegalArgumentException("Frame too large to compress: " + body.size());
+        }
+
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(ProtocolConstants.COMPRESSED_FRAME_MARKER);
+        writer.writeVarInt(body.size());
+        writer.writeBytes(FrameCompression.deflate(body.buffer(), body.size()));
+    }
+
+    private void encodeMessage(
+            ProtocolMessage message, BinaryWriter writer, ProtocolStringTable stringTable) {
         writer.writeVarInt(message.type().id());
 
         switch (message) {
@@ -42,28 +114,72 @@ public final class ProtocolCodec {
                         "widgetCount");
 
                 for (ProtocolMessage.HudWidget widget : hudWidgetState.widgets()) {
-                    writer.writeString(widget.widgetId(), ProtocolConstants.MAX_STRING_BYTES);
-                    writeBoundedCount(
-                            writer,
-                            widget.lines().size(),
-                            ProtocolConstants.MAX_WIDGET_LINES,
-                            "lineCount");
-
-                    for (String line : widget.lines()) {
-                        writer.writeString(line, ProtocolConstants.MAX_STRING_BYTES);
+                    writeHudWidget(writer, widget, stringTable);
+                }
+            }
+            case ProtocolMessage.HudWidgetDeltaS2C hudWidgetDelta -> {
+                writeBoundedCount(
+                        writer,
+                        hudWidgetDelta.upserts().size(),
+                        ProtocolConstants.MAX_WIDGET_COUNT,
+                        "upsertCount");
+
+                for (ProtocolMessage.HudWidget widget : hudWidgetDelta.upserts()) {
+                    writeHudWidget(writer, widget, stringTable);
+                }
+
+                writeBoundedCount(
+                        writer,
+                        hudWidgetDelta.removedWidgetIds().size(),
+                        ProtocolConstants.MAX_WIDGET_COUNT,
+                        "removeCount");
+
+                for (String widgetId : hudWidgetDelta.removedWidgetIds()) {
+                    writeTableString(writer, widgetId, stringTable);
+                }
+
+                writeBoundedCount(
+                        writer,
+                        hudWidgetDelta.linePatches().size(),
+                        ProtocolConstants.MAX_WIDGET_LINE_PATCHES,
+                        "patchCount");
+
+                for (ProtocolMessage.HudWidgetLinePatch patch : hudWidgetDelta.linePatches()) {
+                    if (patch.lineIndex() >= ProtocolConstants.MAX_WIDGET_LINES) {
+                        throw new IllegalArgumentException(
+                                "lineIndex out of bounds: " + patch.lineIndex());
                     }
 
-                    writer.writeVarInt(widget.ttlSeconds());
+                    writeTableString(writer, patch.widgetId(), stringTable);
+                    writer.writeVarInt(patch.lineIndex());
+                    writeTableString(writer, patch.line(), stringTable);
+                }
+            }
+            case ProtocolMessage.StringTableS2C stringTableFrame -> {
+                writer.writeByte(stringTableFrame.reset() ? 1 : 0);
+                writeBoundedCount(
+                        writer,
+                        stringTableFrame.entries().size(),
+                        ProtocolConstants.MAX_STRING_TABLE_ENTRIES,
+                        "entryCount");
+
+                for (ProtocolMessage.StringTableEntry entry : stringTableFrame.entries()) {
+                    writer.writeVarInt(entry.id());
+                    writer.writeString(entry.value(), ProtocolConstants.MAX_STRING_BYTES);
+                }
+
+                if (stringTable != null) {
+                    stringTable.apply(stringTableFrame);
                 }
             }
             case ProtocolMessage.EntityMarkerDeltaS2C markerDelta -> {
                 writer.writeVarInt(markerDelta.markerType());
-                writeIntegerList(
+                writeIntList(
                         writer,
                         markerDelta.addEntityIds(),
                         ProtocolConstants.MAX_ENTITY_DELTA,
                         "addCount");
-                writeIntegerList(
+                writeIntList(
                         writer,
                         markerDelta.removeEntityIds(),
                         ProtocolConstants.MAX_ENTITY_DELTA,
@@ -87,8 +203,6 @@ public final class ProtocolCodec {
                 }
             }
         }
-
-        return writer.toByteArray();
     }
 
     public DecodedFrame decode(byte[] payload) throws BinaryDecodingException {
@@ -96,34 +210,114 @@ public final class ProtocolCodec {
             throw new BinaryDecodingException("Packet payload exceeds maximum size");
         }
 
-        BinaryReader reader = new BinaryReader(payload);
+        // Decoded messages never alias the input, so the frame is read in place.
+        return decodeFrame(BinaryReader.wrap(payload), null, false);
+    }
+
+    /**
+     * Decodes the remaining bytes of {@code payload} without copying them. The buffer position is
+     * left untouched, so read-only views of a received payload can be passed directly.
+     */
+    public DecodedFrame decode(ByteBuffer payload) throws BinaryDecodingException {
+        return decode(payload, null);
+    }
+
+    /**
+     * Decodes {@code payload} like {@link #decode(ByteBuffer)}, resolving string references
+     * against {@code stringTable}. A successfully decoded {@link ProtocolMessage.StringTableS2C}
+     * is applied to the table before this returns, so frames must be decoded in arrival order.
+     */
+    public DecodedFrame decode(ByteBuffer payload, ProtocolStringTable stringTable)
+            throws BinaryDecodingException {
+        if (payload.remaining() > ProtocolConstants.MAX_PACKET_BYTES) {
+            throw new BinaryDecodingException("Packet payload exceeds maximum size");
+        }
+
+        return decodeFrame(BinaryReader.wrap(payload), stringTable, true);
+    }
+
+    /**
+     * Decodes {@code payload} like {@link #decode(ByteBuffer, ProtocolStringTable)} but never
+     * modifies {@code stringTable}. A decoded {@link ProtocolMessage.StringTableS2C} is returned
+     * for the caller to apply, so it can be gated like any other message.
+     */
+    public DecodedFrame decodeResolving(ByteBuffer payload, ProtocolStringTable stringTable)
+            throws BinaryDecodingException {
+        if (payload.remaining() > ProtocolConstants.MAX_PACKET_BYTES) {
+            throw new BinaryDecodingException("Packet payload exceeds maximum size");
+        }
+
+        return decodeFrame(BinaryReader.wrap(payload), stringTable, false);
+    }
+
+    private DecodedFrame decodeFrame(
+            BinaryReader reader, ProtocolStringTable stringTable, boolean applyStringTable)
+            throws BinaryDecodingException {
         int protocolVersion = reader.readVarInt();
         int messageType = reader.readVarInt();
 
-        ProtocolMessage message = decodeMessage(reader, MessageType.fromId(messageType));
+        if (messageType == ProtocolConstants.COMPRESSED_FRAME_MARKER) {
+            // The declared size is bounded before any output buffer is allocated.
+            int decompressedSize =
+                    readBoundedCount(
+                            reader,
+                            ProtocolConstants.MAX_DECOMPRESSED_FRAME_BYTES,
+                            "decompressedSize");
+            ByteBuffer compressed = reader.readSlice(reader.remaining());
+            reader = BinaryReader.wrap(FrameCompression.inflate(compressed, decompressedSize));
+            messageType = reader.readVarInt();
+        }
+
+        ProtocolMessage message =
+                decodeMessage(reader, MessageType.fromId(messageType), stringTable);
 
         if (reader.hasRemaining()) {
             throw new BinaryDecodingException("Unexpected trailing bytes after message decode");
         }
 
+        if (applyStringTable
+                && message instanceof ProtocolMessage.StringTableS2C stringTableFrame
+                && stringTable != null) {
+            stringTable.apply(stringTableFrame);
+        }
+
         return new DecodedFrame(protocolVersion, message);
     }
 
-    private ProtocolMessage decodeMessage(BinaryReader reader, MessageType messageType)
+    private ProtocolMessage decodeMessage(
+            BinaryReader reader, MessageType messageType, ProtocolStringTable stringTable)
             throws BinaryDecodingException {
-        return switch (messageType) {
-            case CLIENT_HELLO_C2S ->
-                    new ProtocolMessage.ClientHelloC2S(
-                            reader.readString(ProtocolConstants.MAX_STRING_BYTES),
-                            reader.readVarInt());
-            case SERVER_HELLO_S2C -> decodeServerHello(reader);
-            case HUD_WIDGET_STATE_S2C -> decodeHudWidgetState(reader);
-            case ENTITY_MARKER_DELTA_S2C -> decodeEntityMarkerDelta(reader);
-            case PING_INTENT_C2S ->
-                    new ProtocolMessage.PingIntentC2S(
-                            readBoundedNonNegative(reader, Integer.MAX_VALUE, "pingType"));
-            case INVENTORY_ITEM_OVERLAYS_S2C -> decodeInventoryItemOverlays(reader);
-        };
+        MessageDecoder decoder = decoders[messageType.ordinal()];
+
+        if (decoder == null) {
+            throw new BinaryDecodingException("No decoder registered for " + messageType);
+        }
+
+        return decoder.decode(reader, stringTable);
+    }
+
+    private void registerBuiltInDecoders() {
+        register(
+                MessageType.CLIENT_HELLO_C2S,
+                (reader, stringTable) ->
+                        new ProtocolMessage.ClientHelloC2S(
+                                reader.readString(ProtocolConstants.MAX_STRING_BYTES),
+                                reader.readVarInt()));
+        register(MessageType.SERVER_HELLO_S2C, (reader, stringTable) -> decodeServerHello(reader));
+        register(MessageType.HUD_WIDGET_STATE_S2C, this::decodeHudWidgetState);
+        register(
+                MessageType.ENTITY_MARKER_DELTA_S2C,
+                (reader, stringTable) -> decodeEntityMarkerDelta(reader));
+        register(
+                MessageType.PING_INTENT_C2S,
+                (reader, stringTable) ->
+                        new ProtocolMessage.PingIntentC2S(
+                                readBoundedNonNegative(reader, Integer.MAX_VALUE, "pingType")));
+        register(
+                MessageType.INVENTORY_ITEM_OVERLAYS_S2C,
+                (reader, stringTable) -> decodeInventoryItemOverlays(reader));
+        register(MessageType.HUD_WIDGET_DELTA_S2C, this::decodeHudWidgetDelta);
+        register(MessageType.STRING_TABLE_S2C, (reader, stringTable) -> decodeStringTable(reader));
     }
 
     private ProtocolMessage.ServerHelloS2C decodeServerHello(BinaryReader reader)
@@ -150,35 +344,110 @@ public final class ProtocolCodec {
     private ProtocolMessage.EntityMarkerDeltaS2C decodeEntityMarkerDelta(BinaryReader reader)
             throws BinaryDecodingException {
         int markerType = reader.readVarInt();
-        List<Integer> addIds =
-                readIntegerList(reader, ProtocolConstants.MAX_ENTITY_DELTA, "addCount");
-        List<Integer> removeIds =
-                readIntegerList(reader, ProtocolConstants.MAX_ENTITY_DELTA, "removeCount");
+        IntList addIds = readIntList(reader, ProtocolConstants.MAX_ENTITY_DELTA, "addCount");
+        IntList removeIds = readIntList(reader, ProtocolConstants.MAX_ENTITY_DELTA, "removeCount");
         return new ProtocolMessage.EntityMarkerDeltaS2C(markerType, addIds, removeIds);
     }
 
-    private ProtocolMessage.HudWidgetStateS2C decodeHudWidgetState(BinaryReader reader)
-            throws BinaryDecodingException {
+    private ProtocolMessage.HudWidgetStateS2C decodeHudWidgetState(
+            BinaryReader reader, ProtocolStringTable stringTable) throws BinaryDecodingException {
         int widgetCount =
                 readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_COUNT, "widgetCount");
         List<ProtocolMessage.HudWidget> widgets =
                 ProtocolMessage.mutableHudWidgetListWithCapacity(widgetCount);
 
         for (int widgetIndex = 0; widgetIndex < widgetCount; widgetIndex++) {
-            String widgetId = reader.readString(ProtocolConstants.MAX_STRING_BYTES);
-            int lineCount =
-                    readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_LINES, "lineCount");
-            List<String> lines = new java.util.ArrayList<>(lineCount);
+            widgets.add(readHudWidget(reader, stringTable));
+        }
 
-            for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
-                lines.add(reader.readString(ProtocolConstants.MAX_STRING_BYTES));
-            }
+        return new ProtocolMessage.HudWidgetStateS2C(widgets);
+    }
 
-            int ttlSeconds = readBoundedNonNegative(reader, Integer.MAX_VALUE, "ttlSeconds");
-            widgets.add(new ProtocolMessage.HudWidget(widgetId, lines, ttlSeconds));
+    private ProtocolMessage.HudWidgetDeltaS2C decodeHudWidgetDelta(
+            BinaryReader reader, ProtocolStringTable stringTable) throws BinaryDecodingException {
+        int upsertCount =
+                readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_COUNT, "upsertCount");
+        List<ProtocolMessage.HudWidget> upserts =
+                ProtocolMessage.mutableHudWidgetListWithCapacity(upsertCount);
+
+        for (int index = 0; index < upsertCount; index++) {
+            upserts.add(readHudWidget(reader, stringTable));
         }
 
-        return new ProtocolMessage.HudWidgetStateS2C(widgets);
+        int removeCount =
+                readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_COUNT, "removeCount");
+        List<String> removedWidgetIds = new ArrayList<>(removeCount);
+
+        for (int index = 0; index < removeCount; index++) {
+            removedWidgetIds.add(readTableString(reader, stringTable));
+        }
+
+        int patchCount =
+                readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_LINE_PATCHES, "patchCount");
+        List<ProtocolMessage.HudWidgetLinePatch> linePatches = new ArrayList<>(patchCount);
+
+        for (int index = 0; index < patchCount; index++) {
+            String widgetId = readTableString(reader, stringTable);
+            int lineIndex =
+                    readBoundedNonNegative(
+                            reader, ProtocolConstants.MAX_WIDGET_LINES - 1, "lineIndex");
+            String line = readTableString(reader, stringTable);
+            linePatches.add(new ProtocolMessage.HudWidgetLinePatch(widgetId, lineIndex, line));
+        }
+
+        return new ProtocolMessage.HudWidgetDeltaS2C(upserts, removedWidgetIds, linePatches);
+    }
+
+    private ProtocolMessage.StringTableS2C decodeStringTable(BinaryReader reader)
+            throws BinaryDecodingException {
+        int resetFlag = reader.readUnsignedByte();
+
+        if (resetFlag > 1) {
+            throw new BinaryDecodingException("resetFlag out of bounds: " + resetFlag);
+        }
+
+        int entryCount =
+                readBoundedCount(reader, ProtocolConstants.MAX_STRING_TABLE_ENTRIES, "entryCount");
+        List<ProtocolMessage.StringTableEntry> entries = new ArrayList<>(entryCount);
+
+        for (int index = 0; index < entryCount; index++) {
+            int id =
+                    readBoundedNonNegative(
+                            reader, ProtocolConstants.MAX_STRING_TABLE_ENTRIES - 1, "stringId");
+            String value = reader.readString(ProtocolConstants.MAX_STRING_BYTES);
+            entries.add(new ProtocolMessage.StringTableEntry(id, value));
+        }
+
+        return new ProtocolMessage.StringTableS2C(resetFlag == 1, entries);
+    }
+
+    private static void writeHudWidget(
+            BinaryWriter writer,
+            ProtocolMessage.HudWidget widget,
+            ProtocolStringTable stringTable) {
+        writeTableString(writer, widget.widgetId(), stringTable);
+        writeBoundedCount(
+                writer, widget.lines().size(), ProtocolConstants.MAX_WIDGET_LINES, "lineCount");
+
+        for (String line : widget.lines()) {
+            writeTableString(writer, line, stringTable);
+        }
+
+        writer.writeVarInt(widget.ttlSeconds());
+    }
+
+    private static ProtocolMessage.HudWidget readHudWidget(
+            BinaryReader reader, ProtocolStringTable stringTable) throws BinaryDecodingException {
+        String widgetId = readTableString(reader, stringTable);
+        int lineCount = readBoundedCount(reader, ProtocolConstants.MAX_WIDGET_LINES, "lineCount");
+        List<String> lines = new ArrayList<>(lineCount);
+
+        for (int lineIndex = 0; lineIndex < lineCount; lineIndex++) {
+            lines.add(readTableString(reader, stringTable));
+        }
+
+        int ttlSeconds = readBoundedNonNegative(reader, Integer.MAX_VALUE, "ttlSeconds");
+        return new ProtocolMessage.HudWidget(widgetId, lines, ttlSeconds);
     }
 
     private ProtocolMessage.InventoryItemOverlaysS2C decodeInventoryItemOverlays(
@@ -200,25 +469,61 @@ public final class ProtocolCodec {
         return new ProtocolMessage.InventoryItemOverlaysS2C(overlays);
     }
 
-    private static void writeIntegerList(
-            BinaryWriter writer, List<Integer> values, int maxCount, String fieldName) {
+    private static void writeTableString(
+            BinaryWriter writer, String value, ProtocolStringTable stringTable) {
+        int id = stringTable == null ? -1 : stringTable.idOf(value);
+
+        if (id >= 0) {
+            writer.writeVarInt(ProtocolConstants.STRING_TABLE_REFERENCE_BASE + id);
+            return;
+        }
+
+        writer.writeString(value, ProtocolConstants.MAX_STRING_BYTES);
+    }
+
+    // Literal strings keep the plain length prefix; headers past MAX_STRING_BYTES are references.
+    private static String readTableString(BinaryReader reader, ProtocolStringTable stringTable)
+            throws BinaryDecodingException {
+        int header = reader.readVarInt();
+
+        if (header >= 0 && header <= ProtocolConstants.MAX_STRING_BYTES) {
+            return reader.readUtf8(header);
+        }
+
+        int id = header - ProtocolConstants.STRING_TABLE_REFERENCE_BASE;
+
+        if (id < 0 || id >= ProtocolConstants.MAX_STRING_TABLE_ENTRIES) {
+            throw new BinaryDecodingException("String byte length out of bounds: " + header);
+        }
+
+        String value = stringTable == null ? null : stringTable.lookup(id);
+
+        if (value == null) {
+            throw new BinaryDecodingException("Undefined string table reference: " + id);
+        }
+
+        return value;
+    }
+
+    private static void writeIntList(
+            BinaryWriter writer, IntList values, int maxCount, String fieldName) {
         writeBoundedCount(writer, values.size(), maxCount, fieldName);
 
-        for (int value : values) {
-            writer.writeVarInt(value);
+        for (int index = 0; index < values.size(); index++) {
+            writer.writeVarInt(values.getInt(index));
         }
     }
 
-    private static List<Integer> readIntegerList(
-            BinaryReader reader, int maxCount, String fieldName) throws BinaryDecodingException {
+    private static IntList readIntList(BinaryReader reader, int maxCount, String fieldName)
+            throws BinaryDecodingException {
         int count = readBoundedCount(reader, maxCount, fieldName);
-        List<Integer> values = ProtocolMessage.mutableIntegerListWithCapacity(count);
+        int[] values = new int[count];
 
         for (int index = 0; index < count; index++) {
-            values.add(reader.readVarInt());
+            values[index] = reader.readVarInt();
         }
 
-        return values;
+        return IntImmutableList.of(values);
     }
 
     private static void writeBoundedCount(
@@ -7,10 +7,17 @@ public final class ProtocolConstants {
     public static final int PROTOCOL_VERSION = 1;
 
     public static final int MAX_PACKET_BYTES = 16 * 1024;
+    public static final int MAX_DECOMPRESSED_FRAME_BYTES = 64 * 1024;
+    // Sent in place of a message type id; the deflated frame body follows.
+    public static final int COMPRESSED_FRAME_MARKER = 0;
     public static final int MAX_STRING_BYTES = 2048;
     public static final int MAX_WIDGET_COUNT = 64;
     public static final int MAX_WIDGET_LINES = 16;
+    public static final int MAX_WIDGET_LINE_PATCHES = MAX_WIDGET_COUNT * MAX_WIDGET_LINES;
     public static final int MAX_LIST_LEN = 256;
+    public static final int MAX_STRING_TABLE_ENTRIES = 512;
+    // String headers above MAX_STRING_BYTES are string table references, not literal lengths.
+    public static final int STRING_TABLE_REFERENCE_BASE = MAX_STRING_BYTES + 1;
     public static final int MAX_ENTITY_DELTA = 2048;
     public static final int MAX_ITEM_OVERLAY_ENTRIES = 64;
     public static final int MAX_ITEM_OVERLAY_COUNT = MAX_ITEM_OVERLAY_ENTRIES;
@@ -26,6 +33,11 @@ public final class ProtocolConstants {
     public static final int FEATURE_GANG_TRUCE_PINGS = 1 << 6;
     public static final int SERVER_FEATURE_GANG_TRUCE_PINGS = FEATURE_GANG_TRUCE_PINGS;
     public static final int SERVER_FEATURE_INVENTORY_ITEM_OVERLAYS = 1 << 5;
+    public static final int SERVER_FEATURE_HUD_WIDGET_DELTA = 1 << 7;
+    public static final int CLIENT_CAPABILITY_HUD_WIDGET_DELTA = 1 << 7;
+    public static final int SERVER_FEATURE_STRING_TABLE = 1 << 8;
+    public static final int CLIENT_CAPABILITY_STRING_TABLE = 1 << 8;
+    public static final int CLIENT_CAPABILITY_COMPRESSED_FRAMES = 1 << 9;
     public static final int MARKER_TYPE_SAME_GANG = 1;
     public static final int MARKER_TYPE_PEACEFUL_MINING_PASS_THROUGH = 2;
     public static final int MARKER_TYPE_GANG_PING_BEACON = 3;
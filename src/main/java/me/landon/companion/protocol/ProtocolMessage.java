@@ -1,5 +1,7 @@
 package me.landon.companion.protocol;
 
+import it.unimi.dsi.fastutil.ints.IntImmutableList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -12,7 +14,9 @@ public sealed interface ProtocolMessage
                 ProtocolMessage.HudWidgetStateS2C,
                 ProtocolMessage.EntityMarkerDeltaS2C,
                 ProtocolMessage.PingIntentC2S,
-                ProtocolMessage.InventoryItemOverlaysS2C {
+                ProtocolMessage.InventoryItemOverlaysS2C,
+                ProtocolMessage.HudWidgetDeltaS2C,
+                ProtocolMessage.StringTableS2C {
 
     MessageType type();
 
@@ -57,13 +61,34 @@ public sealed interface ProtocolMessage
         }
     }
 
-    record EntityMarkerDeltaS2C(
-            int markerType, List<Integer> addEntityIds, List<Integer> removeEntityIds)
+    /** Replaces one line of an existing widget; {@code lineIndex == lines().size()} appends. */
+    record HudWidgetLinePatch(String widgetId, int lineIndex, String line) {
+        public HudWidgetLinePatch {
+            widgetId = Objects.requireNonNull(widgetId, "widgetId");
+            line = Objects.requireNonNull(line, "line");
+
+            if (lineIndex < 0) {
+                throw new IllegalArgumentException("lineIndex must be non-negative");
+            }
+        }
+    }
+
+    record StringTableEntry(int id, String value) {
+        public StringTableEntry {
+            value = Objects.requireNonNull(value, "value");
+
+            if (id < 0 || id >= ProtocolConstants.MAX_STRING_TABLE_ENTRIES) {
+                throw new IllegalArgumentException("String table id out of bounds: " + id);
+            }
+        }
+    }
+
+    record EntityMarkerDeltaS2C(int markerType, IntList addEntityIds, IntList removeEntityIds)
             implements ProtocolMessage {
         public EntityMarkerDeltaS2C {
-            addEntityIds = List.copyOf(Objects.requireNonNull(addEntityIds, "addEntityIds"));
+            addEntityIds = immutableIntList(Objects.requireNonNull(addEntityIds, "addEntityIds"));
             removeEntityIds =
-                    List.copyOf(Objects.requireNonNull(removeEntityIds, "removeEntityIds"));
+                    immutableIntList(Objects.requireNonNull(removeEntityIds, "removeEntityIds"));
         }
 
         @Override
@@ -127,6 +152,48 @@ public sealed interface ProtocolMessage
         }
     }
 
+    /**
+     * Incremental HUD update applied on top of the current widget snapshot: removals first, then
+     * whole-widget upserts, then individual line patches.
+     */
+    record HudWidgetDeltaS2C(
+            List<HudWidget> upserts,
+            List<String> removedWidgetIds,
+            List<HudWidgetLinePatch> linePatches)
+            implements ProtocolMessage {
+        public HudWidgetDeltaS2C {
+            upserts = List.copyOf(Objects.requireNonNull(upserts, "upserts"));
+            removedWidgetIds =
+                    List.copyOf(Objects.requireNonNull(removedWidgetIds, "removedWidgetIds"));
+            linePatches = List.copyOf(Objects.requireNonNull(linePatches, "linePatches"));
+        }
+
+        @Override
+        public MessageType type() {
+            return MessageType.HUD_WIDGET_DELTA_S2C;
+        }
+    }
+
+    /**
+     * Defines string table entries; {@code reset} drops every earlier definition first.
+     *
+     * <p>Definitions live for the whole connection. A client only honors table frames once it has
+     * accepted a {@link ServerHelloS2C}, and a re-handshake on the same connection does not clear
+     * the table, so the server sends a {@code reset} frame after each hello before referencing
+     * any entry.
+     */
+    record StringTableS2C(boolean reset, List<StringTableEntry> entries)
+            implements ProtocolMessage {
+        public StringTableS2C {
+            entries = List.copyOf(Objects.requireNonNull(entries, "entries"));
+        }
+
+        @Override
+        public MessageType type() {
+            return MessageType.STRING_TABLE_S2C;
+        }
+    }
+
     record InventoryItemOverlaysS2C(List<InventoryItemOverlay> overlays)
             implements ProtocolMessage {
         public InventoryItemOverlaysS2C {
@@ -147,7 +214,12 @@ public sealed interface ProtocolMessage
         return new ArrayList<>(size);
     }
 
-    static List<Integer> mutableIntegerListWithCapacity(int size) {
-        return new ArrayList<>(size);
+    // Immutable lists are shared as-is so decoded int[] buffers are never copied again.
+    static IntList immutableIntList(IntList values) {
+        if (values instanceof IntImmutableList immutableValues) {
+            return immutableValues;
+        }
+
+        return new IntImmutableList(values);
     }
 }
@@ -0,0 +1,68 @@
+package me.landon.companion.protocol;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.util.Arrays;
+
+/**
+ * Per-connection id-to-string dictionary defined by {@link ProtocolMessage.StringTableS2C} frames.
+ *
+ * <p>Ids are bounded by {@link ProtocolConstants#MAX_STRING_TABLE_ENTRIES}. Decoding resolves
+ * references to the stored instances, so repeated labels are not re-allocated per frame.
+ */
+public final class ProtocolStringTable {
+    private final String[] values = new String[ProtocolConstants.MAX_STRING_TABLE_ENTRIES];
+    private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+    private int size;
+
+    public ProtocolStringTable() {
+        ids.defaultReturnValue(-1);
+    }
+
+    /** Applies one table frame, clearing previous definitions first when it asks for a reset. */
+    public synchronized void apply(ProtocolMessage.StringTableS2C stringTable) {
+        if (stringTable.reset()) {
+            clearDefinitions();
+        }
+
+        for (ProtocolMessage.StringTableEntry entry : stringTable.entries()) {
+            String previous = values[entry.id()];
+
+            if (previous == null) {
+                size++;
+            } else if (ids.getInt(previous) == entry.id()) {
+                ids.removeInt(previous);
+            }
+
+            values[entry.id()] = entry.value();
+            ids.put(entry.value(), entry.id());
+        }
+    }
+
+    /** Returns the string defined for {@code id}, or {@code null} when it is undefined. */
+    public synchronized String lookup(int id) {
+        if (id < 0 || id >= values.length) {
+            return null;
+        }
+
+        return values[id];
+    }
+
+    /** Returns the id defined for {@code value}, or {@code -1} when it is undefined. */
+    public synchronized int idOf(String value) {
+        return ids.getInt(value);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        clearDefinitions();
+    }
+
+    private void clearDefinitions() {
+        Arrays.fill(values, null);
+        ids.clear();
+        size = 0;
+    }
+}
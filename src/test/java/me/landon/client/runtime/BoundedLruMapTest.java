@@ -0,0 +1,24 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BoundedLruMapTest {
+    @Test
+    void evictsLeastRecentlyUsedBeyondCapacity() {
+        BoundedLruMap<String, Integer> map = new BoundedLruMap<>(2);
+
+        map.put("a", 1);
+        map.put("b", 2);
+        map.get("a");
+        map.put("c", 3);
+
+        assertTrue(map.containsKey("a"), "recently read entries survive eviction");
+        assertFalse(map.containsKey("b"), "the least recently used entry was evicted");
+        assertEquals(List.of("a", "c"), List.copyOf(map.keySet()));
+    }
+}
@@ -0,0 +1,105 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Optional;
+import me.landon.companion.config.CompanionConfig;
+import me.landon.companion.protocol.BinaryDecodingException;
+import me.landon.companion.protocol.BinaryWriter;
+import me.landon.companion.protocol.MessageType;
+import me.landon.companion.protocol.ProtocolCodec;
+import me.landon.companion.protocol.ProtocolConstants;
+import me.landon.companion.protocol.ProtocolMessage;
+import me.landon.companion.protocol.ProtocolStringTable;
+import org.junit.jupiter.api.Test;
+
+class CompanionFrameDecoderTest {
+    private static final String SERVER_ID = "cosmic";
+
+    private final ProtocolCodec codec = new ProtocolCodec();
+    private final ProtocolStringTable stringTable = new ProtocolStringTable();
+    private final CompanionFrameDecoder decoder =
+            new CompanionFrameDecoder(
+                    codec, stringTable, CompanionFrameDecoderTest::config, (hello, config) -> true);
+
+    @Test
+    void ignoresStringTablesUntilHelloIsAccepted() throws Exception {
+        decoder.decode(encode(definitions(false, "events")));
+        assertEquals(0, stringTable.size());
+
+        decoder.decode(encode(hello("other-server")));
+        decoder.decode(encode(definitions(false, "events")));
+        assertEquals(0, stringTable.size(), "a rejected hello keeps the gate closed");
+
+        decoder.decode(encode(hello(SERVER_ID)));
+        decoder.decode(encode(definitions(false, "events")));
+        assertEquals("events", stringTable.lookup(0));
+    }
+
+    @Test
+    void rehandshakeKeepsDefinitionsUntilServerResetsThem() throws Exception {
+        decoder.decode(encode(hello(SERVER_ID)));
+        decoder.decode(encode(definitions(false, "events")));
+
+        decoder.resetHandshake();
+        ProtocolCodec.DecodedFrame inFlight = decoder.decode(referencingFrame(0));
+        decoder.decode(encode(definitions(true, "cooldowns")));
+
+        assertEquals("events", firstWidgetId(inFlight), "frames sent before the hello resolve");
+        assertEquals("events", stringTable.lookup(0), "tables wait for the next hello");
+
+        decoder.decode(encode(hello(SERVER_ID)));
+        decoder.decode(encode(definitions(true, "cooldowns")));
+        assertEquals("cooldowns", stringTable.lookup(0));
+        assertEquals(1, stringTable.size());
+    }
+
+    @Test
+    void connectionResetDropsDefinitions() throws Exception {
+        decoder.decode(encode(hello(SERVER_ID)));
+        decoder.decode(encode(definitions(false, "events")));
+
+        decoder.resetConnection();
+
+        assertNull(stringTable.lookup(0));
+        assertThrows(BinaryDecodingException.class, () -> decoder.decode(referencingFrame(0)));
+    }
+
+    private static CompanionConfig config() {
+        CompanionConfig config = CompanionConfig.defaults();
+        config.allowedServerIds = List.of(SERVER_ID);
+        return config;
+    }
+
+    private static ProtocolMessage hello(String serverId) {
+        return new ProtocolMessage.ServerHelloS2C(serverId, "1.0", 0, Optional.empty());
+    }
+
+    private static ProtocolMessage definitions(boolean reset, String value) {
+        return new ProtocolMessage.StringTableS2C(
+                reset, List.of(new ProtocolMessage.StringTableEntry(0, value)));
+    }
+
+    private static ByteBuffer referencingFrame(int id) {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(MessageType.HUD_WIDGET_DELTA_S2C.id());
+        writer.writeVarInt(0);
+        writer.writeVarInt(1);
+        writer.writeVarInt(ProtocolConstants.STRING_TABLE_REFERENCE_BASE + id);
+        writer.writeVarInt(0);
+        return ByteBuffer.wrap(writer.toByteArray());
+    }
+
+    private static String firstWidgetId(ProtocolCodec.DecodedFrame frame) {
+        return ((ProtocolMessage.HudWidgetDeltaS2C) frame.message()).removedWidgetIds().get(0);
+    }
+
+    private ByteBuffer encode(ProtocolMessage message) {
+        return ByteBuffer.wrap(codec.encode(message));
+    }
+}
@@ -3,9 +3,12 @@ package me.landon.client.runtime;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import it.unimi.dsi.fastutil.ints.IntList;
 import java.util.List;
 import me.landon.companion.protocol.ProtocolMessage;
 import org.junit.jupiter.api.Test;
@@ -34,11 +37,11 @@ class ConnectionSessionStateTest {
         ConnectionSessionState sessionState = new ConnectionSessionState();
         sessionState.replaceInventoryItemOverlays(
                 List.of(new ProtocolMessage.InventoryItemOverlay(0, 1, "8K")));
-        assertTrue(sessionState.inventoryItemOverlaysSnapshot().containsKey(0));
+        assertNotNull(sessionState.getInventoryItemOverlay(0));
 
         sessionState.replaceInventoryItemOverlays(List.of());
 
-        assertTrue(sessionState.inventoryItemOverlaysSnapshot().isEmpty());
+        assertFalse(sessionState.hasInventoryItemOverlays());
     }
 
     @Test
@@ -61,7 +64,7 @@ class ConnectionSessionStateTest {
 
         sessionState.reset();
 
-        assertTrue(sessionState.inventoryItemOverlaysSnapshot().isEmpty());
+        assertFalse(sessionState.hasInventoryItemOverlays());
         assertFalse(sessionState.inventoryItemOverlaysSupported());
     }
 
@@ -83,6 +86,94 @@ class ConnectionSessionStateTest {
         assertEquals(List.of("Coal: 1K/2K x1"), satchels.lines());
     }
 
+    @Test
+    void hudWidgetDeltaPatchesOnlyChangedWidgets() {
+        ConnectionSessionState sessionState = new ConnectionSessionState();
+        sessionState.replaceHudWidgets(
+                List.of(
+                        new ProtocolMessage.HudWidget(
+                                "events", List.of("Meteor: 10m", "Reboot: 2h"), 0),
+                        new ProtocolMessage.HudWidget("cooldowns", List.of("Gang Join: 2m"), 5),
+                        new ProtocolMessage.HudWidget("satchels", List.of("Coal: 1K/2K x1"), 0)));
+        ConnectionSessionState.HudWidgetEntry events = sessionState.getHudWidget("events");
+        ConnectionSessionState.HudWidgetEntry cooldowns = sessionState.getHudWidget("cooldowns");
+
+        sessionState.applyHudWidgetDelta(
+                new ProtocolMessage.HudWidgetDeltaS2C(
+                        List.of(new ProtocolMessage.HudWidget("gang", List.of("Points: 12"), 0)),
+                        List.of("satchels"),
+                        List.of(
+                                new ProtocolMessage.HudWidgetLinePatch("events", 0, "Meteor: 9m"),
+                                new ProtocolMessage.HudWidgetLinePatch("events", 2, "Koth: 1h"),
+                                new ProtocolMessage.HudWidgetLinePatch("events", 5, "ignored"),
+                                new ProtocolMessage.HudWidgetLinePatch("missing", 0, "ignored"))));
+
+        assertEquals(
+                List.of("Meteor: 9m", "Reboot: 2h", "Koth: 1h"),
+                sessionState.getHudWidget("events").lines());
+        assertEquals(
+                540L,
+                sessionState.getHudWidget("events").rows().get(0).durationSeconds().orElseThrow());
+        assertSame(
+                events.rows().get(1),
+                sessionState.getHudWidget("events").rows().get(1),
+                "unchanged lines keep their countdown baseline");
+        assertSame(cooldowns, sessionState.getHudWidget("cooldowns"));
+        assertEquals(List.of("Points: 12"), sessionState.getHudWidget("gang").lines());
+        assertNull(sessionState.getHudWidget("satchels"));
+        assertNull(sessionState.getHudWidget("missing"));
+    }
+
+    @Test
+    void snapshotsAreSharedUntilStateChanges() {
+        ConnectionSessionState sessionState = new ConnectionSessionState();
+        sessionState.replaceHudWidgets(
+                List.of(new ProtocolMessage.HudWidget("events", List.of("Meteor: 10m"), 0)));
+        sessionState.applyGangPingBeaconDelta(IntList.of(7), IntList.of());
+        long hudVersion = sessionState.hudWidgetsVersion();
+        var hudSnapshot = sessionState.hudWidgetsSnapshot();
+        var gangSnapshot = sessionState.gangPingBeaconIdsSnapshot();
+
+        sessionState.applyGangPingBeaconDelta(IntList.of(7), IntList.of(99));
+
+        assertSame(hudSnapshot, sessionState.hudWidgetsSnapshot());
+        assertSame(gangSnapshot, sessionState.gangPingBeaconIdsSnapshot());
+        assertEquals(hudVersion, sessionState.hudWidgetsVersion());
+
+        sessionState.replaceHudWidgets(
+                List.of(new ProtocolMessage.HudWidget("events", List.of("Meteor: 9m"), 0)));
+        sessionState.applyGangPingBeaconDelta(IntList.of(), IntList.of(7));
+
+        assertNotSame(hudSnapshot, sessionState.hudWidgetsSnapshot());
+        assertTrue(sessionState.hudWidgetsVersion() > hudVersion);
+        assertEquals(List.of("Meteor: 10m"), hudSnapshot.get("events").lines());
+        assertTrue(gangSnapshot.contains(7));
+        assertTrue(sessionState.gangPingBeaconIdsSnapshot().isEmpty());
+    }
+
+    @Test
+    void overlayTableRejectsOutOfRangeSlotsAndBumpsGenerationOnlyOnChange() {
+        ConnectionSessionState sessionState = new ConnectionSessionState();
+        long emptyGeneration = sessionState.inventoryItemOverlaysVersion();
+
+        sessionState.clearInventoryItemOverlays();
+        assertEquals(emptyGeneration, sessionState.inventoryItemOverlaysVersion());
+
+        sessionState.replaceInventoryItemOverlays(
+                List.of(
+                        new ProtocolMessage.InventoryItemOverlay(35, 1, "1K"),
+                        new ProtocolMessage.InventoryItemOverlay(44, 2, "2K")));
+
+        assertTrue(sessionState.hasInventoryItemOverlays());
+        assertTrue(sessionState.inventoryItemOverlaysVersion() > emptyGeneration);
+        assertEquals("1K", sessionState.getInventoryItemOverlay(35).displayText());
+        assertEquals("2K", sessionState.getInventoryItemOverlay(8).displayText());
+        assertNull(sessionState.getInventoryItemOverlay(-1));
+        assertNull(
+                sessionState.getInventoryItemOverlay(
+                        ConnectionSessionState.INVENTORY_OVERLAY_SLOT_COUNT));
+    }
+
     @Test
     void resetClearsHudWidgetsAndSupportFlag() {
         ConnectionSessionState sessionState = new ConnectionSessionState();
@@ -96,16 +187,30 @@ class ConnectionSessionStateTest {
         assertFalse(sessionState.hudWidgetsSupported());
     }
 
+    @Test
+    void resetLeavesStringTableToDecodeThread() {
+        ConnectionSessionState sessionState = new ConnectionSessionState();
+        sessionState
+                .stringTable()
+                .apply(
+                        new ProtocolMessage.StringTableS2C(
+                                false, List.of(new ProtocolMessage.StringTableEntry(0, "events"))));
+
+        sessionState.reset();
+
+        assertEquals("events", sessionState.stringTable().lookup(0));
+    }
+
     @Test
     void peacefulMiningDeltaAddsAndRemovesEntityIds() {
         ConnectionSessionState sessionState = new ConnectionSessionState();
 
-        sessionState.applyPeacefulMiningPassThroughDelta(List.of(4, 9, 14), List.of());
+        sessionState.applyPeacefulMiningPassThroughDelta(IntList.of(4, 9, 14), IntList.of());
         assertTrue(sessionState.isPeacefulMiningPassThroughEntity(4));
         assertTrue(sessionState.isPeacefulMiningPassThroughEntity(9));
         assertTrue(sessionState.isPeacefulMiningPassThroughEntity(14));
 
-        sessionState.applyPeacefulMiningPassThroughDelta(List.of(), List.of(9, 44));
+        sessionState.applyPeacefulMiningPassThroughDelta(IntList.of(), IntList.of(9, 44));
         assertFalse(sessionState.isPeacefulMiningPassThroughEntity(9));
         assertTrue(sessionState.isPeacefulMiningPassThroughEntity(14));
     }
@@ -113,7 +218,7 @@ class ConnectionSessionStateTest {
     @Test
     void resetClearsPeacefulMiningEntityIds() {
         ConnectionSessionState sessionState = new ConnectionSessionState();
-        sessionState.applyPeacefulMiningPassThroughDelta(List.of(11), List.of());
+        sessionState.applyPeacefulMiningPassThroughDelta(IntList.of(11), IntList.of());
         assertTrue(sessionState.isPeacefulMiningPassThroughEntity(11));
 
         sessionState.reset();
@@ -126,8 +231,8 @@ class ConnectionSessionStateTest {
     void gangAndTrucePingDeltasTrackIndependentEntityIds() {
         ConnectionSessionState sessionState = new ConnectionSessionState();
 
-        sessionState.applyGangPingBeaconDelta(List.of(7, 9), List.of());
-        sessionState.applyTrucePingBeaconDelta(List.of(14, 15), List.of());
+        sessionState.applyGangPingBeaconDelta(IntList.of(7, 9), IntList.of());
+        sessionState.applyTrucePingBeaconDelta(IntList.of(14, 15), IntList.of());
         assertEquals(
                 List.of(7, 9),
                 sessionState.gangPingBeaconIdsSnapshot().intStream().sorted().boxed().toList());
@@ -135,8 +240,8 @@ class ConnectionSessionStateTest {
                 List.of(14, 15),
                 sessionState.trucePingBeaconIdsSnapshot().intStream().sorted().boxed().toList());
 
-        sessionState.applyGangPingBeaconDelta(List.of(), List.of(7));
-        sessionState.applyTrucePingBeaconDelta(List.of(), List.of(15));
+        sessionState.applyGangPingBeaconDelta(IntList.of(), IntList.of(7));
+        sessionState.applyTrucePingBeaconDelta(IntList.of(), IntList.of(15));
         assertEquals(
                 List.of(9),
                 sessionState.gangPingBeaconIdsSnapshot().intStream().sorted().boxed().toList());
@@ -148,8 +253,8 @@ class ConnectionSessionStateTest {
     @Test
     void resetClearsGangAndTrucePingBeaconIds() {
         ConnectionSessionState sessionState = new ConnectionSessionState();
-        sessionState.applyGangPingBeaconDelta(List.of(1), List.of());
-        sessionState.applyTrucePingBeaconDelta(List.of(2), List.of());
+        sessionState.applyGangPingBeaconDelta(IntList.of(1), IntList.of());
+        sessionState.applyTrucePingBeaconDelta(IntList.of(2), IntList.of());
 
         sessionState.reset();
 
@@ -0,0 +1,79 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class HudTextMetricsTest {
+    @Test
+    void memoizesWidthsAndCountsHits() {
+        HudTextMetrics metrics = new HudTextMetrics(HudTextMetrics.DEFAULT_CAPACITY);
+        AtomicInteger measured = new AtomicInteger();
+
+        assertEquals(5, metrics.width("Coal:", text -> measured.incrementAndGet() + 4));
+        assertEquals(5, metrics.width("Coal:", text -> measured.incrementAndGet() + 4));
+
+        assertEquals(1, measured.get());
+        assertEquals(1L, metrics.hits());
+        assertEquals(1L, metrics.misses());
+    }
+
+    @Test
+    void memoizesTrimsPerMaxWidth() {
+        HudTextMetrics metrics = new HudTextMetrics(HudTextMetrics.DEFAULT_CAPACITY);
+        AtomicInteger trimmed = new AtomicInteger();
+        HudTextMetrics.Trimmer trimmer =
+                (text, maxWidth) -> {
+                    trimmed.incrementAndGet();
+                    return text.substring(0, Math.min(text.length(), maxWidth));
+                };
+
+        assertEquals("Meteo", metrics.trim("Meteor", 5, trimmer));
+        assertEquals("Meteo", metrics.trim("Meteor", 5, trimmer));
+        assertEquals("Met", metrics.trim("Meteor", 3, trimmer));
+
+        assertEquals(2, trimmed.get());
+        assertEquals(1L, metrics.hits());
+    }
+
+    @Test
+    void cachesRankWidthsByValue() {
+        HudTextMetrics metrics = new HudTextMetrics(HudTextMetrics.DEFAULT_CAPACITY);
+        AtomicInteger measured = new AtomicInteger();
+
+        assertEquals(2, metrics.rankWidth(7, digits -> measured.incrementAndGet() + 1));
+        assertEquals(2, metrics.rankWidth(7, digits -> measured.incrementAndGet() + 1));
+        assertEquals(1, measured.get());
+
+        metrics.rankWidth(HudTextMetrics.CACHED_RANKS, digits -> measured.incrementAndGet());
+        metrics.rankWidth(HudTextMetrics.CACHED_RANKS, digits -> measured.incrementAndGet());
+        assertEquals(3, measured.get(), "ranks past the cached range are measured every time");
+
+        metrics.invalidate();
+        metrics.rankWidth(7, digits -> measured.incrementAndGet());
+        assertEquals(4, measured.get());
+    }
+
+    @Test
+    void invalidateDropsWidthsAndTrims() {
+        HudTextMetrics metrics = new HudTextMetrics(HudTextMetrics.DEFAULT_CAPACITY);
+        AtomicInteger measured = new AtomicInteger();
+        HudTextMetrics.Trimmer trimmer =
+                (text, maxWidth) -> {
+                    measured.incrementAndGet();
+                    return text;
+                };
+
+        metrics.width("Coal:", text -> measured.incrementAndGet());
+        metrics.trim("Meteor", 5, trimmer);
+        metrics.invalidate();
+        metrics.resetCounters();
+        metrics.width("Coal:", text -> measured.incrementAndGet());
+        metrics.trim("Meteor", 5, trimmer);
+
+        assertEquals(4, measured.get());
+        assertEquals(0L, metrics.hits());
+        assertEquals(2L, metrics.misses());
+    }
+}
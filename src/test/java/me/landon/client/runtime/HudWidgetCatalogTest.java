@@ -2,11 +2,13 @@ package me.landon.client.runtime;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import me.landon.companion.config.CompanionConfig;
 import org.junit.jupiter.api.Test;
 
 class HudWidgetCatalogTest {
@@ -50,4 +52,121 @@ class HudWidgetCatalogTest {
         assertFalse(HudWidgetCatalog.isCooldownLineActive("Gang Join: Now"));
         assertFalse(HudWidgetCatalog.isCooldownLineActive("Gang Join: 0s"));
     }
+
+    @Test
+    void countdownsTickLocallyFromTheReceivedBaseline() {
+        long receivedAt = 1_000_000L;
+        HudWidgetCatalog.WidgetLine meteor =
+                HudWidgetCatalog.parseWidgetLine("events", "Meteor: 10m | total=20m", receivedAt);
+        HudWidgetCatalog.WidgetLine gangJoin =
+                HudWidgetCatalog.parseWidgetLine("cooldowns", "Gang Join: 2s", receivedAt);
+
+        assertTrue(meteor.countdown());
+        assertEquals(600L, meteor.remainingSeconds(receivedAt + 999L).orElseThrow());
+        assertEquals(540L, meteor.remainingSeconds(receivedAt + 60_000L).orElseThrow());
+        assertEquals(0L, meteor.remainingSeconds(receivedAt + 3_600_000L).orElseThrow());
+        assertEquals(0.55D, meteor.progressHint(receivedAt + 60_000L).orElseThrow(), 1.0E-6D);
+        assertEquals(receivedAt + 600_000L, meteor.countdownEndsAtMillis());
+
+        assertTrue(HudWidgetCatalog.isCooldownLineActive(gangJoin, receivedAt + 1_999L));
+        assertFalse(HudWidgetCatalog.isCooldownLineActive(gangJoin, receivedAt + 2_000L));
+        assertFalse(HudWidgetCatalog.parseWidgetLine("events", "Max Day (2d 4h)").countdown());
+    }
+
+    @Test
+    void resolvesRowPresentationForItsWidgetWhenParsed() {
+        HudWidgetCatalog.WidgetLine kit =
+                HudWidgetCatalog.parseWidgetLine("cooldowns", "Rank Kit Gold: Unavailable");
+        HudWidgetCatalog.WidgetLine meteor =
+                HudWidgetCatalog.parseWidgetLine("events", "Meteor: Now");
+        HudWidgetCatalog.WidgetLine unknownEvent =
+                HudWidgetCatalog.parseWidgetLine("events", "Boss Rush: Unavailable");
+
+        assertEquals("Kit Gold", kit.displayLabel());
+        assertEquals("--", kit.statusText());
+        assertEquals("kit gold", kit.progressKey());
+        assertEquals(HudWidgetCatalog.StatusCategory.UNAVAILABLE, kit.statusCategory());
+        assertEquals(HudWidgetCatalog.RowIcon.CHEST, kit.icon());
+
+        assertEquals("[MET]", meteor.tag());
+        assertEquals("LIVE", meteor.statusText());
+        assertEquals(CompanionConfig.HUD_EVENT_METEOR, meteor.progressKey());
+        assertEquals(HudWidgetCatalog.StatusCategory.LIVE, meteor.statusCategory());
+        assertEquals(HudWidgetCatalog.RowIcon.FIRE_CHARGE, meteor.icon());
+
+        assertEquals("[BOS]", unknownEvent.tag());
+        assertEquals("N/A", unknownEvent.statusText());
+        assertEquals("boss rush", unknownEvent.progressKey());
+        assertEquals(HudWidgetCatalog.RowIcon.CLOCK, unknownEvent.icon());
+        assertNull(HudWidgetCatalog.parseWidgetLine("gang", "Members: 4").icon());
+    }
+
+    @Test
+    void countdownTextKeepsServerTextUntilItsValueChanges() {
+        long receivedAt = 1_000_000L;
+        HudWidgetCatalog.WidgetLine precise =
+                HudWidgetCatalog.parseWidgetLine("events", "Meteor: 1h 20m 5s", receivedAt);
+        HudWidgetCatalog.WidgetLine minutes =
+                HudWidgetCatalog.parseWidgetLine("events", "Meteor: 17m", receivedAt);
+
+        assertNull(precise.tickedCountdownText(receivedAt + 999L));
+        assertEquals("1h 20m 4s", precise.tickedCountdownText(receivedAt + 1_000L));
+        assertEquals(receivedAt + 1_000L, precise.nextCountdownTextChangeMillis(receivedAt));
+
+        assertNull(minutes.tickedCountdownText(receivedAt + 59_999L));
+        assertEquals("16m", minutes.tickedCountdownText(receivedAt + 60_000L));
+        assertEquals(receivedAt + 60_000L, minutes.nextCountdownTextChangeMillis(receivedAt));
+        assertEquals(
+                receivedAt + 120_000L, minutes.nextCountdownTextChangeMillis(receivedAt + 60_000L));
+        assertEquals("0m", minutes.tickedCountdownText(receivedAt + 1_020_000L));
+        assertEquals(
+                Long.MAX_VALUE, minutes.nextCountdownTextChangeMillis(receivedAt + 1_020_000L));
+    }
+
+    @Test
+    void formatsDurationsDownToTheGivenUnit() {
+        assertEquals("0s", HudWidgetCatalog.formatDurationSeconds(0L, 1L));
+        assertEquals("45s", HudWidgetCatalog.formatDurationSeconds(45L, 1L));
+        assertEquals("9m", HudWidgetCatalog.formatDurationSeconds(540L, 1L));
+        assertEquals("1h 1m 5s", HudWidgetCatalog.formatDurationSeconds(3_665L, 1L));
+        assertEquals("1h 1m", HudWidgetCatalog.formatDurationSeconds(3_665L, 60L));
+        assertEquals("2d 4h", HudWidgetCatalog.formatDurationSeconds(187_200L, 3_600L));
+    }
+
+    @Test
+    void parsesWidgetLinesOnceWithDerivedFields() {
+        List<HudWidgetCatalog.WidgetLine> events =
+                HudWidgetCatalog.parseWidgetLines(
+                        "events", List.of("  Meteor: 10m | total=20m ", " ", "Unknown: soon"));
+
+        assertEquals(2, events.size());
+        assertEquals("Meteor: 10m | total=20m", events.get(0).text());
+        assertEquals("meteor", events.get(0).event().key());
+        assertEquals(600L, events.get(0).durationSeconds().orElseThrow());
+        assertEquals(0.5D, events.get(0).progressHint().orElseThrow(), 1.0E-6D);
+        assertNull(events.get(1).event());
+        assertTrue(events.get(1).durationSeconds().isEmpty());
+
+        HudWidgetCatalog.WidgetLine satchel =
+                HudWidgetCatalog.parseWidgetLine("satchels", "Coal: 1.5K/2K x1");
+        assertEquals(0.75F, satchel.satchelProgress(), 1.0E-6F);
+        assertFalse(satchel.satchelFull());
+        assertTrue(HudWidgetCatalog.parseWidgetLine("satchels", "Coal: 2K/2K").satchelFull());
+    }
+
+    @Test
+    void leaderboardValuesHonourBlocksSuffixRule() {
+        HudWidgetCatalog.WidgetLine gift =
+                HudWidgetCatalog.parseWidgetLine("leaderboard_gift", "#2 Steve - 1.5B");
+        HudWidgetCatalog.WidgetLine blocks =
+                HudWidgetCatalog.parseWidgetLine("leaderboard_blocks", "#2 Steve - 1.5B");
+
+        assertEquals(2, gift.leaderboardEntry().rank());
+        assertEquals("Steve", gift.leaderboardEntry().name());
+        assertEquals(1.5E9D, gift.leaderboardValue().orElseThrow());
+        assertEquals(1.5D, blocks.leaderboardValue().orElseThrow());
+        assertNull(
+                HudWidgetCatalog.parseWidgetLine("leaderboard_gift", "Top Gifts")
+                        .leaderboardEntry());
+    }
 }
@@ -0,0 +1,102 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HudWidgetParserDifferentialTest {
+    private static final long SEED = 0x5EED_C0DEL;
+    private static final int RANDOM_INPUTS = 50_000;
+    private static final List<String> SAMPLES =
+            List.of(
+                    "",
+                    " ",
+                    "1h 20m 5s",
+                    "Check in 3m",
+                    "check in  14m 2s | total=20m",
+                    "Now",
+                    "ACTIVE",
+                    "Not Scheduled",
+                    "Max Day (2d 4h)",
+                    "Soon (n/a)",
+                    "(5m)",
+                    "123",
+                    "99999999999999999999s",
+                    "9223372036854775807d",
+                    "412K",
+                    "1.2M",
+                    "1,204",
+                    " 1,5 k ",
+                    "5K ,",
+                    "-3.5B",
+                    "-,5",
+                    "1.5e3",
+                    "0x1p3",
+                    "Infinity",
+                    "$9.2B",
+                    "1.2345678901234567T",
+                    "12.",
+                    ".5",
+                    "1.2.3");
+    // Includes the non-ASCII characters whose case mapping or digit class could trip a scanner.
+    private static final String[] TOKENS = {
+        "0", "1", "7", "42", "60", "000", "12345678901234567890", " ", "  ", "\t", ",", ".", "-",
+        "+", "(", ")", "|", "/", "%", "d", "D", "h", "H", "m", "M", "s", "S", "k", "K", "b", "B",
+        "t", "T", "e", "E", "x", "p", "f", "now", "NOW", "Active", "check in ", "Check In ",
+        "max day", "N/A", "Not Scheduled", "unavailable", "Infinity", "NaN", "\u212A", "\u0130",
+        "\u00DF", "\u0663", "\u00E9", "\uFB05", "\u2003"
+    };
+
+    @Test
+    void durationScannerMatchesLegacyParser() {
+        for (String input : inputs()) {
+            assertEquals(
+                    LegacyHudWidgetParsers.parseDurationSeconds(input),
+                    HudWidgetCatalog.parseDurationSeconds(input),
+                    () -> "duration of \"" + input + "\"");
+        }
+    }
+
+    @Test
+    void compactAmountScannerMatchesLegacyParser() {
+        for (String input : inputs()) {
+            assertEquals(
+                    LegacyHudWidgetParsers.parseCompactAmount(input),
+                    HudWidgetCatalog.parseCompactAmount(input),
+                    () -> "compact amount of \"" + input + "\"");
+        }
+    }
+
+    @Test
+    void leaderboardValueScannerMatchesLegacyParser() {
+        for (String input : inputs()) {
+            for (boolean allowBillionSuffix : new boolean[] {true, false}) {
+                assertEquals(
+                        LegacyHudWidgetParsers.parseLeaderboardValue(input, allowBillionSuffix),
+                        HudWidgetCatalog.parseLeaderboardValue(input, allowBillionSuffix),
+                        () -> "leaderboard value of \"" + input + "\"");
+            }
+        }
+    }
+
+    private static List<String> inputs() {
+        List<String> inputs = new ArrayList<>(SAMPLES.size() + RANDOM_INPUTS + 1);
+        inputs.addAll(SAMPLES);
+        inputs.add(null);
+
+        Random random = new Random(SEED);
+        StringBuilder builder = new StringBuilder();
+        for (int index = 0; index < RANDOM_INPUTS; index++) {
+            builder.setLength(0);
+            int tokens = random.nextInt(9);
+            for (int token = 0; token < tokens; token++) {
+                builder.append(TOKENS[random.nextInt(TOKENS.length)]);
+            }
+            inputs.add(builder.toString());
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,75 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import net.minecraft.client.font.TextRenderer;
+import org.junit.jupiter.api.Test;
+
+class ItemOverlayLayoutCacheTest {
+    private static final ConnectionSessionState.ItemOverlayEntry MONEY =
+            new ConnectionSessionState.ItemOverlayEntry(1, "12.5K");
+    private static final ConnectionSessionState.ItemOverlayEntry ENERGY =
+            new ConnectionSessionState.ItemOverlayEntry(2, "12.5K");
+    private static final ConnectionSessionState.ItemOverlayEntry SATCHEL =
+            new ConnectionSessionState.ItemOverlayEntry(3, "99%");
+
+    @Test
+    void laysOutEachTextAndOverlayTypeOnce() {
+        ItemOverlayLayoutCache cache = new ItemOverlayLayoutCache(4);
+        AtomicInteger created = new AtomicInteger();
+
+        ItemOverlayLayout first = cache.layout(null, MONEY, (renderer, entry) -> layout(created));
+        ItemOverlayLayout second =
+                cache.layout(
+                        null,
+                        new ConnectionSessionState.ItemOverlayEntry(1, "12.5K"),
+                        (renderer, entry) -> layout(created));
+        cache.layout(null, ENERGY, (renderer, entry) -> layout(created));
+
+        assertSame(first, second, "equal entries share one layout");
+        assertEquals(2, created.get(), "the overlay type is part of the key");
+    }
+
+    @Test
+    void skipsEmptyLabels() {
+        ItemOverlayLayoutCache cache = new ItemOverlayLayoutCache(4);
+        AtomicInteger created = new AtomicInteger();
+
+        assertNull(
+                cache.layout(
+                        null,
+                        new ConnectionSessionState.ItemOverlayEntry(1, ""),
+                        (renderer, entry) -> layout(created)));
+        assertEquals(0, created.get());
+    }
+
+    @Test
+    void dropsLayoutsWhenTheRendererChanges() {
+        ItemOverlayLayoutCache cache = new ItemOverlayLayoutCache(4);
+        AtomicInteger created = new AtomicInteger();
+        TextRenderer first = TestTextRenderers.unmeasured();
+        TextRenderer second = TestTextRenderers.unmeasured();
+
+        cache.get(first, MONEY, (renderer, entry) -> layout(created));
+        cache.get(first, SATCHEL, (renderer, entry) -> layout(created));
+        cache.get(first, MONEY, (renderer, entry) -> layout(created));
+        assertEquals(2, created.get());
+
+        cache.get(second, MONEY, (renderer, entry) -> layout(created));
+        assertEquals(3, created.get(), "layouts measured with the old renderer were dropped");
+        cache.get(second, SATCHEL, (renderer, entry) -> layout(created));
+        assertEquals(4, created.get());
+
+        cache.invalidate();
+        cache.get(second, MONEY, (renderer, entry) -> layout(created));
+        assertEquals(5, created.get());
+    }
+
+    private static ItemOverlayLayout layout(AtomicInteger created) {
+        created.incrementAndGet();
+        return new ItemOverlayLayout("", 0, 0, 1.0F, 0, 0, 0, 0, 0, 0);
+    }
+}
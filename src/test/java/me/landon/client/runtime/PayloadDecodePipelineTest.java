@@ -0,0 +1,210 @@
+package me.landon.client.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import me.landon.companion.protocol.BinaryDecodingException;
+import me.landon.companion.protocol.MessageType;
+import me.landon.companion.protocol.ProtocolCodec;
+import me.landon.companion.protocol.ProtocolConstants;
+import me.landon.companion.protocol.ProtocolMessage;
+import org.junit.jupiter.api.Test;
+
+class PayloadDecodePipelineTest {
+    private final ProtocolCodec codec = new ProtocolCodec();
+    private final ArrayDeque<Runnable> clientTasks = new ArrayDeque<>();
+    private final List<ProtocolMessage> applied = new ArrayList<>();
+    private final List<BinaryDecodingException> malformed = new ArrayList<>();
+    private final PayloadDecodePipeline pipeline =
+            newPipeline(PayloadDecodePipeline.CoalescingPolicy.none());
+
+    @Test
+    void appliesFramesInArrivalOrderOnApplyExecutor() {
+        ProtocolMessage first =
+                new ProtocolMessage.EntityMarkerDeltaS2C(
+                        ProtocolConstants.MARKER_TYPE_GANG_PING_BEACON,
+                        IntList.of(4),
+                        IntList.of());
+        ProtocolMessage second =
+                new ProtocolMessage.EntityMarkerDeltaS2C(
+                        ProtocolConstants.MARKER_TYPE_GANG_PING_BEACON,
+                        IntList.of(),
+                        IntList.of(4));
+
+        pipeline.submit(encode(first));
+        pipeline.submit(encode(second));
+
+        assertTrue(applied.isEmpty());
+        assertEquals(2, pipeline.queueDepth());
+
+        runClientTasks();
+
+        assertEquals(List.of(first, second), applied);
+        assertEquals(0, pipeline.queueDepth());
+        assertEquals(2, pipeline.peakQueueDepth());
+    }
+
+    @Test
+    void recordsDecodeStatsPerMessageType() {
+        pipeline.submit(encode(new ProtocolMessage.HudWidgetStateS2C(List.of())));
+        pipeline.submit(encode(new ProtocolMessage.HudWidgetStateS2C(List.of())));
+        pipeline.submit(encode(new ProtocolMessage.InventoryItemOverlaysS2C(List.of())));
+        runClientTasks();
+
+        List<PayloadDecodePipeline.DecodeStats> stats = pipeline.decodeStats();
+        assertEquals(2, stats.size());
+        assertEquals(MessageType.HUD_WIDGET_STATE_S2C, stats.get(0).messageType());
+        assertEquals(2L, stats.get(0).frames());
+        assertEquals(MessageType.INVENTORY_ITEM_OVERLAYS_S2C, stats.get(1).messageType());
+        assertEquals(1L, stats.get(1).frames());
+
+        pipeline.resetMetrics();
+        assertTrue(pipeline.decodeStats().isEmpty());
+    }
+
+    @Test
+    void routesMalformedPayloadsToMalformedSink() {
+        pipeline.submit(ByteBuffer.wrap(new byte[] {(byte) 0x80}));
+        runClientTasks();
+
+        assertEquals(1, malformed.size());
+        assertEquals(1L, pipeline.malformedFrames());
+        assertTrue(applied.isEmpty());
+        assertEquals(0, pipeline.queueDepth());
+    }
+
+    @Test
+    void appliesOnlyNewestPendingSnapshot() {
+        PayloadDecodePipeline coalescing = newPipeline(snapshotPolicy());
+        ProtocolMessage stale = overlaysSnapshot("1K");
+        ProtocolMessage newest = overlaysSnapshot("3K");
+
+        coalescing.submit(encode(stale));
+        coalescing.submit(encode(overlaysSnapshot("2K")));
+        coalescing.submit(encode(newest));
+
+        assertEquals(1, coalescing.queueDepth());
+        runClientTasks();
+
+        assertEquals(List.of(newest), applied);
+        assertEquals(2L, coalescing.coalescedFrames());
+        assertEquals(0, coalescing.queueDepth());
+    }
+
+    @Test
+    void keepsMarkerDeltasOrderedAroundSnapshots() {
+        PayloadDecodePipeline coalescing = newPipeline(snapshotPolicy());
+        ProtocolMessage add =
+                new ProtocolMessage.EntityMarkerDeltaS2C(
+                        ProtocolConstants.MARKER_TYPE_SAME_GANG, IntList.of(7), IntList.of());
+        ProtocolMessage remove =
+                new ProtocolMessage.EntityMarkerDeltaS2C(
+                        ProtocolConstants.MARKER_TYPE_SAME_GANG, IntList.of(), IntList.of(7));
+        ProtocolMessage newest = overlaysSnapshot("3K");
+
+        coalescing.submit(encode(overlaysSnapshot("1K")));
+        coalescing.submit(encode(add));
+        coalescing.submit(encode(newest));
+        coalescing.submit(encode(remove));
+        runClientTasks();
+
+        assertEquals(List.of(newest, add, remove), applied);
+    }
+
+    @Test
+    void orderedFrameStopsSnapshotCoalescing() {
+        PayloadDecodePipeline coalescing = newPipeline(snapshotPolicy());
+        ProtocolMessage before = overlaysSnapshot("1K");
+        ProtocolMessage hello =
+                new ProtocolMessage.ServerHelloS2C("cosmic", "1.0", 0, Optional.empty());
+        ProtocolMessage after = overlaysSnapshot("2K");
+
+        coalescing.submit(encode(before));
+        coalescing.submit(encode(hello));
+        coalescing.submit(encode(after));
+        runClientTasks();
+
+        assertEquals(List.of(before, hello, after), applied);
+        assertEquals(0L, coalescing.coalescedFrames());
+    }
+
+    @Test
+    void markersRunInOrderWithQueuedPayloads() {
+        ArrayDeque<Runnable> decodeTasks = new ArrayDeque<>();
+        List<String> events = new ArrayList<>();
+        PayloadDecodePipeline queued =
+                new PayloadDecodePipeline(
+                        payload -> {
+                            ProtocolCodec.DecodedFrame frame = codec.decode(payload);
+                            events.add("decode " + frame.message().type());
+                            return frame;
+                        },
+                        decodeTasks::add,
+                        clientTasks::add,
+                        this::apply,
+                        malformed::add,
+                        snapshotPolicy());
+        ProtocolMessage before = overlaysSnapshot("1K");
+        ProtocolMessage after = overlaysSnapshot("2K");
+
+        queued.submit(encode(before));
+        queued.submitMarker(() -> events.add("marker"));
+        queued.submit(encode(after));
+        assertTrue(events.isEmpty());
+
+        while (!decodeTasks.isEmpty()) {
+            decodeTasks.poll().run();
+        }
+        runClientTasks();
+
+        assertEquals(
+                List.of(
+                        "decode " + MessageType.INVENTORY_ITEM_OVERLAYS_S2C,
+                        "marker",
+                        "decode " + MessageType.INVENTORY_ITEM_OVERLAYS_S2C),
+                events);
+        assertEquals(List.of(before, after), applied, "snapshots are not coalesced across it");
+    }
+
+    private PayloadDecodePipeline newPipeline(PayloadDecodePipeline.CoalescingPolicy policy) {
+        return new PayloadDecodePipeline(
+                codec::decode,
+                Runnable::run,
+                clientTasks::add,
+                this::apply,
+                malformed::add,
+                policy);
+    }
+
+    private static PayloadDecodePipeline.CoalescingPolicy snapshotPolicy() {
+        return new PayloadDecodePipeline.CoalescingPolicy(
+                Set.of(MessageType.HUD_WIDGET_STATE_S2C, MessageType.INVENTORY_ITEM_OVERLAYS_S2C),
+                Set.of(MessageType.ENTITY_MARKER_DELTA_S2C));
+    }
+
+    private static ProtocolMessage overlaysSnapshot(String displayText) {
+        return new ProtocolMessage.InventoryItemOverlaysS2C(
+                List.of(new ProtocolMessage.InventoryItemOverlay(0, 1, displayText)));
+    }
+
+    private void apply(ProtocolCodec.DecodedFrame frame) {
+        applied.add(frame.message());
+    }
+
+    private ByteBuffer encode(ProtocolMessage message) {
+        return ByteBuffer.wrap(codec.encode(message)).asReadOnlyBuffer();
+    }
+
+    private void runClientTasks() {
+        while (!clientTasks.isEmpty()) {
+            clientTasks.poll().run();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package me.landon.client.runtime;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import net.minecraft.client.font.TextRenderer;
+
+/** Text renderers for caches that only compare the renderer by identity. */
+final class TestTextRenderers {
+    private TestTextRenderers() {}
+
+    /**
+     * Returns a distinct renderer whose constructor never ran, so it needs no fonts. It must not
+     * be asked to measure anything.
+     */
+    static TextRenderer unmeasured() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method allocateInstance = unsafeClass.getMethod("allocateInstance", Class.class);
+            return (TextRenderer) allocateInstance.invoke(theUnsafe.get(null), TextRenderer.class);
+        } catch (ReflectiveOperationException exception) {
+            throw new IllegalStateException("Could not allocate a TextRenderer", exception);
+        }
+    }
+}
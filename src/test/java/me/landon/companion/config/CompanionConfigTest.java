@@ -0,0 +1,36 @@
+package me.landon.companion.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CompanionConfigTest {
+    @Test
+    void copyDoesNotShareMutableStateWithOriginal() {
+        CompanionConfig original = CompanionConfig.defaults();
+        original.featureToggles.put("inventory_item_overlays", true);
+        original.sanitize();
+
+        CompanionConfig copy = original.copy();
+        copy.featureToggles.put("inventory_item_overlays", false);
+        copy.hudEventVisibility.put(CompanionConfig.HUD_EVENT_METEOR, false);
+        copy.hudWidgetPositions.get(CompanionConfig.HUD_WIDGET_EVENTS_ID).x = 0.9D;
+        copy.pingParticlesEnabled = false;
+        copy.hudPanelRenderCaching = false;
+
+        assertTrue(original.featureToggles.get("inventory_item_overlays"));
+        assertTrue(original.hudEventVisibility.get(CompanionConfig.HUD_EVENT_METEOR));
+        assertEquals(
+                0.03D, original.hudWidgetPositions.get(CompanionConfig.HUD_WIDGET_EVENTS_ID).x);
+        assertTrue(original.pingParticlesEnabled);
+        assertFalse(copy.pingParticlesEnabled);
+        assertTrue(original.hudPanelRenderCaching);
+        assertFalse(copy.hudPanelRenderCaching);
+        assertNotSame(original.allowedServerIds, copy.allowedServerIds);
+        assertEquals(original.allowedServerIds, copy.allowedServerIds);
+        assertEquals(original.hudWidgetScales, copy.hudWidgetScales);
+    }
+}
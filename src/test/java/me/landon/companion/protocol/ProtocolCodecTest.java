@@ -2,8 +2,15 @@ package me.landon.companion.protocol;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
@@ -47,6 +54,19 @@ class ProtocolCodecTest {
                                         "cooldowns", List.of("Gang Join: 4m 10s"), 10))));
     }
 
+    @Test
+    void roundtripHudWidgetDelta() throws Exception {
+        assertRoundtrip(
+                new ProtocolMessage.HudWidgetDeltaS2C(
+                        List.of(
+                                new ProtocolMessage.HudWidget(
+                                        "cooldowns", List.of("Gang Join: 4m 10s"), 10)),
+                        List.of("satchels"),
+                        List.of(
+                                new ProtocolMessage.HudWidgetLinePatch(
+                                        "events", 0, "Meteor: 1h 19m"))));
+    }
+
     @Test
     void roundtripInventoryItemOverlays() throws Exception {
         assertRoundtrip(
@@ -61,8 +81,27 @@ class ProtocolCodecTest {
         assertRoundtrip(
                 new ProtocolMessage.EntityMarkerDeltaS2C(
                         ProtocolConstants.MARKER_TYPE_PEACEFUL_MINING_PASS_THROUGH,
-                        List.of(45, 72, 1099),
-                        List.of(3, 18)));
+                        IntList.of(45, 72, 1099),
+                        IntList.of(3, 18)));
+    }
+
+    @Test
+    void decodedMarkerDeltaListsAreImmutable() throws Exception {
+        int[] addIds = {45, 72};
+        ProtocolMessage.EntityMarkerDeltaS2C source =
+                new ProtocolMessage.EntityMarkerDeltaS2C(
+                        ProtocolConstants.MARKER_TYPE_SAME_GANG,
+                        new IntArrayList(addIds),
+                        IntList.of());
+        addIds[0] = 1;
+
+        ProtocolMessage.EntityMarkerDeltaS2C decoded =
+                (ProtocolMessage.EntityMarkerDeltaS2C) codec.decode(codec.encode(source)).message();
+
+        assertEquals(IntList.of(45, 72), source.addEntityIds());
+        assertEquals(IntList.of(45, 72), decoded.addEntityIds());
+        assertThrows(UnsupportedOperationException.class, () -> decoded.addEntityIds().add(3));
+        assertThrows(UnsupportedOperationException.class, () -> decoded.removeEntityIds().add(3));
     }
 
     @Test
@@ -147,6 +186,37 @@ class ProtocolCodecTest {
         assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
     }
 
+    @Test
+    void messageTypeLookupResolvesEveryIdAndRejectsGaps() throws Exception {
+        for (MessageType messageType : MessageType.values()) {
+            assertSame(messageType, MessageType.fromId(messageType.id()));
+        }
+
+        assertThrows(BinaryDecodingException.class, () -> MessageType.fromId(-1));
+        assertThrows(BinaryDecodingException.class, () -> MessageType.fromId(5));
+        assertThrows(
+                BinaryDecodingException.class,
+                () -> MessageType.fromId(ProtocolConstants.COMPRESSED_FRAME_MARKER));
+    }
+
+    @Test
+    void registeredDecoderReplacesBuiltInDecoder() throws Exception {
+        ProtocolMessage.PingIntentC2S replacement = new ProtocolMessage.PingIntentC2S(42);
+        ProtocolCodec customCodec =
+                new ProtocolCodec()
+                        .register(
+                                MessageType.PING_INTENT_C2S,
+                                (reader, stringTable) -> {
+                                    reader.readVarInt();
+                                    return replacement;
+                                });
+
+        ProtocolCodec.DecodedFrame decoded =
+                customCodec.decode(codec.encode(new ProtocolMessage.PingIntentC2S(1)));
+
+        assertSame(replacement, decoded.message());
+    }
+
     @Test
     void rejectsOversizedWidgetCount() {
         BinaryWriter writer = new BinaryWriter();
@@ -170,6 +240,21 @@ class ProtocolCodecTest {
         assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
     }
 
+    @Test
+    void rejectsOutOfRangeWidgetLinePatchIndex() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(MessageType.HUD_WIDGET_DELTA_S2C.id());
+        writer.writeVarInt(0);
+        writer.writeVarInt(0);
+        writer.writeVarInt(1);
+        writer.writeString("events", ProtocolConstants.MAX_STRING_BYTES);
+        writer.writeVarInt(ProtocolConstants.MAX_WIDGET_LINES);
+        writer.writeString("Meteor: 1m", ProtocolConstants.MAX_STRING_BYTES);
+
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
+    }
+
     @Test
     void rejectsTrailingBytes() {
         byte[] encoded =
@@ -195,6 +280,51 @@ class ProtocolCodecTest {
         assertThrows(BinaryDecodingException.class, () -> codec.decode(truncated));
     }
 
+    @Test
+    void decodesReadOnlyBufferSliceInPlace() throws Exception {
+        ProtocolMessage.HudWidgetStateS2C message =
+                new ProtocolMessage.HudWidgetStateS2C(
+                        List.of(
+                                new ProtocolMessage.HudWidget(
+                                        "events", List.of("Météor: 1h 20m", "KOTH: 5m"), 0)));
+        byte[] encoded = codec.encode(message);
+        byte[] framed = new byte[encoded.length + 5];
+        System.arraycopy(encoded, 0, framed, 3, encoded.length);
+        ByteBuffer view = ByteBuffer.wrap(framed, 3, encoded.length).slice().asReadOnlyBuffer();
+
+        ProtocolCodec.DecodedFrame decoded = codec.decode(view);
+
+        assertEquals(message, decoded.message());
+        assertEquals(0, view.position());
+        assertEquals(encoded.length, view.remaining());
+    }
+
+    @Test
+    void rejectsOversizedStringFromReadOnlyBuffer() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(MessageType.CLIENT_HELLO_C2S.id());
+
+        int oversizedLength = ProtocolConstants.MAX_STRING_BYTES + 1;
+        writer.writeVarInt(oversizedLength);
+        writer.writeBytes(new byte[oversizedLength]);
+        writer.writeVarInt(0);
+        ByteBuffer view = ByteBuffer.wrap(writer.toByteArray()).asReadOnlyBuffer();
+
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(view));
+    }
+
+    @Test
+    void rejectsStringLongerThanBufferSlice() {
+        byte[] encoded =
+                codec.encode(
+                        new ProtocolMessage.InventoryItemOverlaysS2C(
+                                List.of(new ProtocolMessage.InventoryItemOverlay(0, 1, "15K"))));
+        ByteBuffer truncated = ByteBuffer.wrap(encoded, 0, encoded.length - 1).asReadOnlyBuffer();
+
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(truncated));
+    }
+
     @Test
     void goldenVectorServerHello() {
         ProtocolMessage.ServerHelloS2C serverHello =
@@ -215,6 +345,212 @@ class ProtocolCodecTest {
         assertEquals(GOLDEN_ITEM_OVERLAYS_BASE64, Base64.getEncoder().encodeToString(encoded));
     }
 
+    @Test
+    void reusedWriterMatchesGoldenVectors() {
+        BinaryWriter writer = new BinaryWriter(4);
+        ProtocolMessage.ServerHelloS2C serverHello =
+                new ProtocolMessage.ServerHelloS2C(
+                        "cosmic-prisons-prod", "1.4.2", 5, Optional.empty());
+        ProtocolMessage.InventoryItemOverlaysS2C overlays =
+                new ProtocolMessage.InventoryItemOverlaysS2C(
+                        List.of(
+                                new ProtocolMessage.InventoryItemOverlay(0, 1, "12.5K"),
+                                new ProtocolMessage.InventoryItemOverlay(12, 2, "999M")));
+
+        codec.encode(serverHello, writer);
+        assertEquals(GOLDEN_SERVER_HELLO_BASE64, encodeWrittenBytes(writer));
+
+        writer.reset();
+        codec.encode(new ProtocolMessage.ClientHelloC2S("x".repeat(900), 127), writer);
+        writer.reset();
+        codec.encode(overlays, writer);
+        assertEquals(GOLDEN_ITEM_OVERLAYS_BASE64, encodeWrittenBytes(writer));
+
+        writer.reset();
+        codec.encode(serverHello, writer);
+        assertEquals(GOLDEN_SERVER_HELLO_BASE64, encodeWrittenBytes(writer));
+    }
+
+    @Test
+    void writerEncodesUtf8LikeStringGetBytes() throws Exception {
+        List<String> samples =
+                List.of(
+                        "",
+                        "plain ascii",
+                        "M\u00e9t\u00e9or \u2013 1h",
+                        "\u4f1a\u8bae",
+                        "gem \ud83d\udc8e",
+                        "lone \ud83d x",
+                        "\udc8e");
+
+        for (String sample : samples) {
+            BinaryWriter writer = new BinaryWriter();
+            writer.writeString(sample, ProtocolConstants.MAX_STRING_BYTES);
+
+            BinaryWriter expected = new BinaryWriter();
+            byte[] utf8 = sample.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+            expected.writeVarInt(utf8.length);
+            expected.writeBytes(utf8);
+
+            assertArrayEquals(expected.toByteArray(), writer.toByteArray());
+        }
+    }
+
+    @Test
+    void resolvesStringTableReferencesToDefinedInstances() throws Exception {
+        ProtocolStringTable serverTable = new ProtocolStringTable();
+        ProtocolStringTable clientTable = new ProtocolStringTable();
+        ProtocolMessage.StringTableS2C definitions =
+                new ProtocolMessage.StringTableS2C(
+                        true,
+                        List.of(
+                                new ProtocolMessage.StringTableEntry(0, "events"),
+                                new ProtocolMessage.StringTableEntry(1, "Meteor: Not Scheduled")));
+        ProtocolMessage.HudWidgetStateS2C state =
+                new ProtocolMessage.HudWidgetStateS2C(
+                        List.of(
+                                new ProtocolMessage.HudWidget(
+                                        "events",
+                                        List.of("Meteor: Not Scheduled", "KOTH: 5m"),
+                                        0)));
+
+        codec.decode(ByteBuffer.wrap(encodeWithTable(definitions, serverTable)), clientTable);
+        byte[] referenced = encodeWithTable(state, serverTable);
+        ProtocolCodec.DecodedFrame decoded = codec.decode(ByteBuffer.wrap(referenced), clientTable);
+
+        assertEquals(state, decoded.message());
+        assertTrue(referenced.length < codec.encode(state).length);
+        ProtocolMessage.HudWidget widget =
+                ((ProtocolMessage.HudWidgetStateS2C) decoded.message()).widgets().get(0);
+        assertSame(clientTable.lookup(0), widget.widgetId());
+        assertSame(clientTable.lookup(1), widget.lines().get(0));
+    }
+
+    @Test
+    void rejectsUndefinedStringTableReference() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(MessageType.HUD_WIDGET_STATE_S2C.id());
+        writer.writeVarInt(1);
+        writer.writeVarInt(ProtocolConstants.STRING_TABLE_REFERENCE_BASE + 3);
+
+        ByteBuffer payload = ByteBuffer.wrap(writer.toByteArray());
+
+        assertThrows(
+                BinaryDecodingException.class,
+                () -> codec.decode(payload, new ProtocolStringTable()));
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
+    }
+
+    @Test
+    void stringTableResetDropsEarlierDefinitions() throws Exception {
+        ProtocolStringTable table = new ProtocolStringTable();
+        ProtocolMessage.StringTableS2C initial =
+                new ProtocolMessage.StringTableS2C(
+                        false,
+                        List.of(
+                                new ProtocolMessage.StringTableEntry(0, "events"),
+                                new ProtocolMessage.StringTableEntry(1, "cooldowns")));
+        ProtocolMessage.StringTableS2C replacement =
+                new ProtocolMessage.StringTableS2C(
+                        true, List.of(new ProtocolMessage.StringTableEntry(1, "gang")));
+
+        codec.decode(ByteBuffer.wrap(codec.encode(initial)), table);
+        codec.decode(ByteBuffer.wrap(codec.encode(replacement)), table);
+
+        assertEquals(1, table.size());
+        assertNull(table.lookup(0));
+        assertEquals("gang", table.lookup(1));
+        assertEquals(-1, table.idOf("cooldowns"));
+        assertEquals(1, table.idOf("gang"));
+    }
+
+    @Test
+    void decodeResolvingLeavesStringTableToCaller() throws Exception {
+        ProtocolStringTable table = new ProtocolStringTable();
+        ProtocolMessage.StringTableS2C definitions =
+                new ProtocolMessage.StringTableS2C(
+                        false, List.of(new ProtocolMessage.StringTableEntry(0, "events")));
+
+        ProtocolCodec.DecodedFrame decoded =
+                codec.decodeResolving(ByteBuffer.wrap(codec.encode(definitions)), table);
+
+        assertEquals(definitions, decoded.message());
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void roundtripCompressedFrameFromReadOnlyBuffer() throws Exception {
+        List<ProtocolMessage.HudWidget> widgets = new java.util.ArrayList<>();
+        for (int index = 0; index < ProtocolConstants.MAX_WIDGET_COUNT; index++) {
+            widgets.add(
+                    new ProtocolMessage.HudWidget(
+                            "leaderboard_gang",
+                            List.of("Gang Top: Astral Gang", "Next Reboot: Not Scheduled"),
+                            index));
+        }
+        ProtocolMessage.HudWidgetStateS2C message = new ProtocolMessage.HudWidgetStateS2C(widgets);
+
+        BinaryWriter writer = new BinaryWriter();
+        codec.encodeCompressed(message, writer, null);
+        byte[] compressed = writer.toByteArray();
+        ProtocolCodec.DecodedFrame decoded =
+                codec.decode(ByteBuffer.wrap(compressed).asReadOnlyBuffer());
+
+        assertEquals(message, decoded.message());
+        assertTrue(compressed.length < codec.encode(message).length / 4);
+    }
+
+    @Test
+    void rejectsOversizedDeclaredDecompressedSize() {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(ProtocolConstants.COMPRESSED_FRAME_MARKER);
+        writer.writeVarInt(ProtocolConstants.MAX_DECOMPRESSED_FRAME_BYTES + 1);
+        writer.writeBytes(FrameCompression.deflate(new byte[] {1, 0}, 2));
+
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
+    }
+
+    @Test
+    void rejectsCompressedFrameThatDisagreesWithDeclaredSize() {
+        byte[] frame = codec.encode(new ProtocolMessage.PingIntentC2S(1));
+        byte[] deflated = FrameCompression.deflate(frame, frame.length);
+
+        for (int declaredSize : new int[] {frame.length - 1, frame.length + 1}) {
+            BinaryWriter writer = new BinaryWriter();
+            writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+            writer.writeVarInt(ProtocolConstants.COMPRESSED_FRAME_MARKER);
+            writer.writeVarInt(declaredSize);
+            writer.writeBytes(deflated);
+
+            assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
+        }
+    }
+
+    @Test
+    void rejectsNestedCompressedFrame() {
+        BinaryWriter inner = new BinaryWriter();
+        inner.writeVarInt(ProtocolConstants.COMPRESSED_FRAME_MARKER);
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeVarInt(ProtocolConstants.PROTOCOL_VERSION);
+        writer.writeVarInt(ProtocolConstants.COMPRESSED_FRAME_MARKER);
+        writer.writeVarInt(inner.size());
+        writer.writeBytes(FrameCompression.deflate(inner.buffer(), inner.size()));
+
+        assertThrows(BinaryDecodingException.class, () -> codec.decode(writer.toByteArray()));
+    }
+
+    private byte[] encodeWithTable(ProtocolMessage message, ProtocolStringTable table) {
+        BinaryWriter writer = new BinaryWriter();
+        codec.encode(message, writer, table);
+        return writer.toByteArray();
+    }
+
+    private static String encodeWrittenBytes(BinaryWriter writer) {
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(writer.buffer(), writer.size()));
+    }
+
     private void assertRoundtrip(ProtocolMessage message) throws Exception {
         byte[] encoded = codec.encode(message);
         ProtocolCodec.DecodedFrame decoded = codec.decode(encoded);